@@ -30,11 +30,24 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-starter-web:3.3.0")
     implementation("org.springframework.boot:spring-boot-starter-data-jpa:3.3.0")
     implementation("org.springframework.boot:spring-boot-starter-security:3.3.0")
+    implementation("org.springframework.boot:spring-boot-starter-actuator:3.3.0")
 
     // Database drivers
     runtimeOnly("com.h2database:h2:2.2.224") // For development
     runtimeOnly("org.postgresql:postgresql:42.7.3") // For production
 
+    // Hibernate second-level cache (JCache backed by Caffeine) and its metrics
+    implementation("org.hibernate.orm:hibernate-jcache:6.5.2.Final")
+    implementation("com.github.ben-manes.caffeine:jcache:3.1.8")
+    implementation("org.hibernate.orm:hibernate-micrometer:6.5.2.Final")
+
+    // In-memory caches (UserPrincipalCache)
+    implementation("com.github.ben-manes.caffeine:caffeine:3.1.8")
+
+    // Schema migrations
+    implementation("org.flywaydb:flyway-core:10.10.0")
+    runtimeOnly("org.flywaydb:flyway-database-postgresql:10.10.0")
+
     // Lombok
     implementation("org.projectlombok:lombok:1.18.30")
     annotationProcessor("org.projectlombok:lombok:1.18.30")
@@ -2,8 +2,10 @@ package com.taskwell;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class TaskwellApp {
     public String getGreeting() {
         return "Hello World!";
@@ -2,14 +2,36 @@ package com.taskwell.controller;
 
 import java.util.List;
 
+import com.taskwell.dto.BatchCreateResponse;
+import com.taskwell.dto.BulkOperationResponse;
+import com.taskwell.dto.BulkReassignRequest;
+import com.taskwell.dto.BulkStatusRequest;
+import com.taskwell.dto.BulkTaskSelection;
+import com.taskwell.dto.CursorPage;
+import com.taskwell.dto.ProductivityBucket;
+import com.taskwell.dto.ProductivityPoint;
+import com.taskwell.dto.TaskExportFormat;
+import com.taskwell.dto.TaskImportResponse;
+import com.taskwell.dto.TaskSearchCriteria;
+import com.taskwell.dto.TaskSearchHit;
+import com.taskwell.dto.TaskSort;
+import com.taskwell.dto.TaskSummaryResponse;
+import com.taskwell.dto.TaskView;
+import com.taskwell.dto.TitleSuggestion;
+import com.taskwell.model.ArchivedTask;
 import com.taskwell.model.Task;
 import com.taskwell.model.User;
+import com.taskwell.security.CustomUserDetails;
+import com.taskwell.service.TaskArchiveService;
+import com.taskwell.service.TaskChangeStamps;
+import com.taskwell.service.TaskExportService;
+import com.taskwell.service.TaskImportService;
 import com.taskwell.service.TaskService;
 import com.taskwell.service.UserService;
+import com.taskwell.utils.SecurityUtils;
 import com.taskwell.model.TaskStatus;
 import com.taskwell.model.TaskPriority;
 import com.taskwell.model.TaskCategory;
-import com.taskwell.utils.SecurityUtils;
 
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -18,18 +40,31 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 
-import com.taskwell.security.CustomUserDetails;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
+import java.util.zip.GZIPInputStream;
+import java.time.format.DateTimeParseException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.util.Arrays;
@@ -40,9 +75,36 @@ public class TaskController {
 
     @Autowired
     private TaskService taskService;
+
+    @Autowired
+    private TaskChangeStamps changeStamps;
+
+    @Autowired
+    private TaskExportService exportService;
+
+    @Autowired
+    private TaskImportService importService;
+
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private TaskArchiveService archiveService;
+
+    // Listings are keyset-paginated; the body stays a plain array and the token for
+    // the following page travels in this header (absent on the last page)
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    // Cacheable reads carry a weak ETag from TaskChangeStamps, or for a single
+    // task its strong version tag. no-cache lets the browser keep the copy but
+    // revalidate it each time, which costs a 304.
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    @Value("${taskwell.tasks.page-size.default:50}")
+    private int defaultPageSize;
+    @Value("${taskwell.tasks.page-size.max:200}")
+    private int maxPageSize;
+
     private static final Logger logger = LoggerFactory.getLogger(TaskController.class);
 
     // Create a new task
@@ -57,51 +119,131 @@ public class TaskController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdTask);
     }
 
+    @Operation(summary = "Create tasks in bulk", description = "Creates up to 2000 tasks for the current user in one request. Invalid items are skipped and reported by their index; the rest are created.")
+    @ApiResponse(responseCode = "200", description = "Batch processed; see created and errors.")
+    @ApiResponse(responseCode = "400", description = "Empty or oversized batch.")
+    @ApiResponse(responseCode = "403", description = "User must be verified to create tasks.")
+    @PostMapping("/api/tasks/batch")
+    public ResponseEntity<BatchCreateResponse> createTasks(@RequestBody List<Task> tasks) {
+        BatchCreateResponse response = taskService.createTasks(tasks);
+        logger.info("Batch create: created={}, rejected={}", response.getCreated().size(),
+                response.getErrors().size());
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(summary = "Import tasks", description = "Creates tasks for the current user from an NDJSON or CSV request body in the export's shape, optionally gzip-compressed (Content-Encoding: gzip). The body is read as a stream and inserted in batches of 500. Fields are title, description, status, priority, category, dueDate and completedAt; others are ignored. Status and priority default to PENDING and MEDIUM. Rows that fail validation or repeat an existing title are skipped and reported by row number.")
+    @ApiResponse(responseCode = "200", description = "Import processed; see imported, errors and rowsPerSecond.")
+    @ApiResponse(responseCode = "400", description = "Unsupported format.")
+    @ApiResponse(responseCode = "403", description = "User must be verified to create tasks.")
+    @PostMapping("/api/tasks/import")
+    public ResponseEntity<TaskImportResponse> importTasks(
+            @Parameter(description = "ndjson or csv.") @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletRequest request) throws IOException {
+        TaskExportFormat importFormat = TaskExportFormat.parse(format);
+        InputStream body = request.getInputStream();
+        if ("gzip".equalsIgnoreCase(request.getHeader(HttpHeaders.CONTENT_ENCODING))) {
+            body = new GZIPInputStream(body);
+        }
+        TaskImportResponse response = importService.importTasks(importFormat, body);
+        logger.info("Import: rows={}, imported={}, rejected={}", response.getRows(), response.getImported(),
+                response.getRejected());
+        return ResponseEntity.ok(response);
+    }
+
     // Get all tasks
-    @Operation(summary = "Get all tasks", description = "Returns a list of all tasks.")
+    @Operation(summary = "Get all tasks", description = "Returns one page of tasks, newest first. The X-Next-Cursor response header holds the cursor for the next page. The weak ETag changes whenever any task does; If-None-Match with it returns 304.")
     @ApiResponse(responseCode = "200", description = "List of tasks returned successfully")
+    @ApiResponse(responseCode = "304", description = "No task changed since the given ETag.")
+    @ApiResponse(responseCode = "400", description = "Invalid cursor or page size.")
     @GetMapping("/api/tasks")
-    public ResponseEntity<List<Task>> getAllTasks() {
-        List<Task> tasks = taskService.findAllTasks();
-        logger.info("Fetched all tasks, count={}", tasks.size());
-        return ResponseEntity.ok(tasks);
+    public ResponseEntity<List<TaskView>> getAllTasks(
+            @Parameter(description = "ETag of a cached copy.") @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @Parameter(description = "Cursor from a previous page's X-Next-Cursor header.") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (capped by the server).") @RequestParam(required = false) Integer size) {
+        String tag = changeStamps.globalTag();
+        if (notModified(ifNoneMatch, tag)) {
+            return notModifiedResponse(tag);
+        }
+        CursorPage<TaskView> page = taskService.findAllTasks(cursor, resolvePageSize(size));
+        logger.info("Fetched tasks page, count={}, hasNext={}", page.getItems().size(), page.hasNext());
+        return pageResponse(page, tag);
+    }
+
+    // Stream all tasks
+    @Operation(summary = "Stream all tasks", description = "Returns tasks as a single JSON array in id order. Admins get every task, or every task of one user; other callers get only their own. Rows are written as they are read from the database, so the server holds no full list in memory.")
+    @ApiResponse(responseCode = "200", description = "Tasks streamed successfully.")
+    @ApiResponse(responseCode = "403", description = "userId is another user and the caller is not an admin.")
+    @GetMapping("/api/tasks/stream")
+    public ResponseEntity<StreamingResponseBody> streamTasks(
+            @Parameter(description = "Only stream this user's tasks (admins only, for other users).") @RequestParam(required = false) Long userId) {
+        CustomUserDetails currentUser = SecurityUtils.getCurrentUser();
+        Long ownerId = userId;
+        if (!SecurityUtils.isAdmin()) {
+            // A whole-table dump, or another user's tasks, is an admin export
+            if (userId != null && !userId.equals(currentUser.getId())) {
+                throw new AccessDeniedException("You do not own these tasks");
+            }
+            ownerId = currentUser.getId();
+        }
+        Long streamedOwner = ownerId;
+        logger.info("Streaming tasks, userId={}", streamedOwner);
+        StreamingResponseBody body = out -> exportService.writeJson(streamedOwner, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    // Export the current user's tasks
+    @Operation(summary = "Export my tasks", description = "Streams the current user's tasks in id order as NDJSON (one JSON object per line) or CSV, gzip-compressed (Content-Encoding: gzip). All rows come from one database query, so the export is a consistent snapshot. An export that runs past the server's export timeout is cut off.")
+    @ApiResponse(responseCode = "200", description = "Export streamed successfully.")
+    @ApiResponse(responseCode = "400", description = "Unsupported format.")
+    @GetMapping("/api/tasks/export")
+    public ResponseEntity<StreamingResponseBody> exportTasks(
+            @Parameter(description = "ndjson or csv.") @RequestParam(defaultValue = "ndjson") String format) {
+        TaskExportFormat exportFormat = TaskExportFormat.parse(format);
+        Long userId = SecurityUtils.getCurrentUser().getId();
+        logger.info("Exporting tasks, userId={}, format={}", userId, exportFormat);
+        StreamingResponseBody body = out -> exportService.export(userId, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("tasks." + exportFormat.getExtension()).build().toString())
+                .body(body);
     }
 
     // Get task by ID
-    @Operation(summary = "Get task by ID", description = "Returns a single task by its ID.")
+    @Operation(summary = "Get task by ID", description = "Returns a single task by its ID. The strong ETag is the task's version: If-None-Match with it returns 304 while the task is unchanged, and it can be sent as If-Match on later writes.")
     @ApiResponse(responseCode = "200", description = "Task found.")
+    @ApiResponse(responseCode = "304", description = "The task has not changed since the given ETag.")
     @ApiResponse(responseCode = "403", description = "Users can only access their own tasks.")
     @ApiResponse(responseCode = "404", description = "Task not found.")
     @GetMapping("/api/tasks/{id}")
     public ResponseEntity<Task> getTaskById(
-            @Parameter(description = "ID of the task to retrieve.") @PathVariable Long id) {
-        CustomUserDetails currentUser = SecurityUtils.getCurrentUser();
-        return taskService.findTaskById(id)
-                .map(task -> {
-                    if (!task.getUser().getId().equals(currentUser.getId())) {
-                        logger.warn("Access denied: userId={} tried to access taskId={}", currentUser.getId(), id);
-                        throw new AccessDeniedException("You do not own this task");
-                    }
-                    logger.info("Task fetched: id={}, userId={}", id, currentUser.getId());
-                    return ResponseEntity.ok(task);
-                })
-                .orElseGet(() -> {
-                    logger.warn("Task not found: id={}", id);
-                    return ResponseEntity.notFound().build();
-                });
-    }
-
-    @Operation(summary = "Update a task", description = "Updates an existing task by its ID.")
+            @Parameter(description = "ID of the task to retrieve.") @PathVariable Long id,
+            @Parameter(description = "ETag of a cached copy.") @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // Loaded first, so a missing or foreign id is a 404 or 403 whatever
+        // the header says
+        Task task = taskService.findOwnedTask(id);
+        String tag = versionTag(task);
+        if (notModified(ifNoneMatch, tag)) {
+            return notModifiedResponse(tag);
+        }
+        logger.info("Task fetched: id={}", id);
+        return ResponseEntity.ok().eTag(tag).cacheControl(REVALIDATE).body(task);
+    }
+
+    @Operation(summary = "Update a task", description = "Updates an existing task by its ID. With If-Match, the update only applies if the task is still at that version.")
     @ApiResponse(responseCode = "200", description = "Task updated successfully.")
     @ApiResponse(responseCode = "400", description = "Invalid input data.")
     @ApiResponse(responseCode = "403", description = "Users can only update their own tasks.")
     @ApiResponse(responseCode = "404", description = "Task not found.")
+    @ApiResponse(responseCode = "412", description = "The task changed since the version in If-Match.")
     @PutMapping("/api/tasks/{id}")
     public ResponseEntity<Task> updateTask(@Parameter(description = "ID of the task to update.") @PathVariable Long id,
+            @Parameter(description = "ETag of the version being edited.") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody Task task) {
-        Task updatedTask = taskService.updateTask(id, task);
+        Task updatedTask = taskService.updateTask(id, task, expectedVersion(ifMatch));
         logger.info("Task updated: id={}, userId={}", id, updatedTask.getUser().getId());
-        return ResponseEntity.ok(updatedTask);
+        return ResponseEntity.ok().eTag(versionTag(updatedTask)).body(updatedTask);
     }
 
     @Operation(summary = "Delete a task", description = "Deletes a task by its ID.")
@@ -119,64 +261,104 @@ public class TaskController {
     @Operation(summary = "Get task by user", description = "Returns a list of tasks assigned to a given user.")
     @ApiResponse(responseCode = "200", description = "List of tasks returned successfully")
     @ApiResponse(responseCode = "404", description = "User not found.")
+    @ApiResponse(responseCode = "304", description = "None of the user's tasks changed since the given ETag.")
     @GetMapping("/api/tasks/user/{userId}")
-    public ResponseEntity<List<Task>> getTasksByUser(
-            @Parameter(description = "ID of the user to retrieve tasks for.") @PathVariable Long userId) {
+    public ResponseEntity<List<TaskView>> getTasksByUser(
+            @Parameter(description = "ID of the user to retrieve tasks for.") @PathVariable Long userId,
+            @Parameter(description = "ETag of a cached copy.") @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @Parameter(description = "Cursor from a previous page's X-Next-Cursor header.") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (capped by the server).") @RequestParam(required = false) Integer size) {
+        String tag = changeStamps.userTag(userId);
+        if (notModified(ifNoneMatch, tag)) {
+            return notModifiedResponse(tag);
+        }
         User user = userService.findByID(userId);
         if (user == null) {
             logger.warn("User not found when fetching tasks: userId={}", userId);
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
-        List<Task> tasks = taskService.findTasksByUser(user);
-        logger.info("Fetched tasks for userId={}, count={}", userId, tasks.size());
-        return ResponseEntity.ok(tasks);
+        CursorPage<TaskView> page = taskService.findTasksByUser(user.getId(), cursor, resolvePageSize(size));
+        logger.info("Fetched tasks for userId={}, count={}", userId, page.getItems().size());
+        return pageResponse(page, tag);
     }
 
     @Operation(summary = "Get task by status", description = "Returns a list of tasks with a given status.")
     @ApiResponse(responseCode = "200", description = "List of tasks returned successfully.")
     @ApiResponse(responseCode = "404", description = "No tasks found for the given status.")
+    @ApiResponse(responseCode = "304", description = "No task changed since the given ETag.")
     @GetMapping("/api/tasks/status/{status}")
-    public ResponseEntity<List<Task>> getTasksByStatus(
-            @Parameter(description = "Status of the tasks to retrieve (PENDING, IN_PROGRESS, COMPLETE, CANCELLED, ON_HOLD, OVERDUE, ARCHIVED).") @PathVariable String status) {
-        List<Task> tasks = taskService.findTasksByStatus(TaskStatus.valueOf(status.toUpperCase()));
-        logger.info("Fetched tasks by status={}, count={}", status, tasks.size());
-        return ResponseEntity.ok(tasks);
+    public ResponseEntity<List<TaskView>> getTasksByStatus(
+            @Parameter(description = "ETag of a cached copy.") @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @Parameter(description = "Status of the tasks to retrieve (PENDING, IN_PROGRESS, COMPLETE, CANCELLED, ON_HOLD, OVERDUE, ARCHIVED).") @PathVariable String status,
+            @Parameter(description = "Cursor from a previous page's X-Next-Cursor header.") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (capped by the server).") @RequestParam(required = false) Integer size) {
+        String tag = changeStamps.globalTag();
+        if (notModified(ifNoneMatch, tag)) {
+            return notModifiedResponse(tag);
+        }
+        CursorPage<TaskView> page = taskService.findTasksByStatus(TaskStatus.valueOf(status.toUpperCase()), cursor, resolvePageSize(size));
+        logger.info("Fetched tasks by status={}, count={}", status, page.getItems().size());
+        return pageResponse(page, tag);
     }
 
     @Operation(summary = "Get task by priority", description = "Returns a list of tasks with a given priority.")
     @ApiResponse(responseCode = "200", description = "List of tasks returned successfully.")
     @ApiResponse(responseCode = "404", description = "No tasks found for the given priority.")
+    @ApiResponse(responseCode = "304", description = "No task changed since the given ETag.")
     @GetMapping("/api/tasks/priority/{priority}")
-    public ResponseEntity<List<Task>> getTasksByPriority(
-            @Parameter(description = "Priority of the tasks to retrieve (LOW, MEDIUM, or HIGH).") @PathVariable String priority) {
-        List<Task> tasks = taskService.findTasksByPriority(TaskPriority.valueOf(priority.toUpperCase()));
-        logger.info("Fetched tasks by priority={}, count={}", priority, tasks.size());
-        return ResponseEntity.ok(tasks);
+    public ResponseEntity<List<TaskView>> getTasksByPriority(
+            @Parameter(description = "ETag of a cached copy.") @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @Parameter(description = "Priority of the tasks to retrieve (LOW, MEDIUM, or HIGH).") @PathVariable String priority,
+            @Parameter(description = "Cursor from a previous page's X-Next-Cursor header.") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (capped by the server).") @RequestParam(required = false) Integer size) {
+        String tag = changeStamps.globalTag();
+        if (notModified(ifNoneMatch, tag)) {
+            return notModifiedResponse(tag);
+        }
+        CursorPage<TaskView> page = taskService.findTasksByPriority(TaskPriority.valueOf(priority.toUpperCase()), cursor, resolvePageSize(size));
+        logger.info("Fetched tasks by priority={}, count={}", priority, page.getItems().size());
+        return pageResponse(page, tag);
     }
 
     @Operation(summary = "Get task by category", description = "Returns a list of tasks from a given category")
     @ApiResponse(responseCode = "200", description = "List of tasks returned successfully.")
     @ApiResponse(responseCode = "404", description = "No tasks found for the given category.")
+    @ApiResponse(responseCode = "304", description = "No task changed since the given ETag.")
     @GetMapping("/api/tasks/category/{category}")
-    public ResponseEntity<List<Task>> getTasksByCategory(
-            @Parameter(description = "Category of the tasks to retrieve.") @PathVariable String category) {
-        List<Task> tasks = taskService.findTasksByCategory(TaskCategory.valueOf(category.toUpperCase()));
-        logger.info("Fetched tasks by category={}, count={}", category, tasks.size());
-        return ResponseEntity.ok(tasks);
+    public ResponseEntity<List<TaskView>> getTasksByCategory(
+            @Parameter(description = "ETag of a cached copy.") @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @Parameter(description = "Category of the tasks to retrieve.") @PathVariable String category,
+            @Parameter(description = "Cursor from a previous page's X-Next-Cursor header.") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (capped by the server).") @RequestParam(required = false) Integer size) {
+        String tag = changeStamps.globalTag();
+        if (notModified(ifNoneMatch, tag)) {
+            return notModifiedResponse(tag);
+        }
+        CursorPage<TaskView> page = taskService.findTasksByCategory(TaskCategory.valueOf(category.toUpperCase()), cursor, resolvePageSize(size));
+        logger.info("Fetched tasks by category={}, count={}", category, page.getItems().size());
+        return pageResponse(page, tag);
     }
 
     @Operation(summary = "Get task by due date", description = "Returns a list of tasks with a given due date")
     @ApiResponse(responseCode = "200", description = "List of tasks returned successfully.")
     @ApiResponse(responseCode = "404", description = "No tasks found for the given due date.")
+    @ApiResponse(responseCode = "304", description = "No task changed since the given ETag.")
     @GetMapping("/api/tasks/due/{dueDate}")
-    public ResponseEntity<List<Task>> getTasksByDueDate(
-            @Parameter(description = "Due date of the tasks to retrieve.") @PathVariable String dueDate) {
+    public ResponseEntity<List<TaskView>> getTasksByDueDate(
+            @Parameter(description = "Due date of the tasks to retrieve.") @PathVariable String dueDate,
+            @Parameter(description = "ETag of a cached copy.") @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @Parameter(description = "Cursor from a previous page's X-Next-Cursor header.") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (capped by the server).") @RequestParam(required = false) Integer size) {
+        String tag = changeStamps.globalTag();
+        if (notModified(ifNoneMatch, tag)) {
+            return notModifiedResponse(tag);
+        }
         LocalDateTime parsedDate;
         try {
             parsedDate = LocalDateTime.parse(dueDate);
-            List<Task> tasks = taskService.findTasksByDueDate(parsedDate);
-            logger.info("Fetched tasks by dueDate={}, count={}", dueDate, tasks.size());
-            return ResponseEntity.ok(tasks);
+            CursorPage<TaskView> page = taskService.findTasksByDueDate(parsedDate, cursor, resolvePageSize(size));
+            logger.info("Fetched tasks by dueDate={}, count={}", dueDate, page.getItems().size());
+            return pageResponse(page, tag);
         } catch (Exception e) {
             logger.warn("Bad request: invalid dueDate format '{}', error={}", dueDate, e.getMessage());
             return ResponseEntity.badRequest().build();
@@ -187,39 +369,191 @@ public class TaskController {
     @Operation(summary = "Get overdue tasks", description = "Gets a list of overdue tasks.")
     @ApiResponse(responseCode = "200", description = "List of tasks returned successfully.")
     @GetMapping("/api/tasks/overdue")
-    public ResponseEntity<List<Task>> getOverdueTasks() {
-        List<Task> tasks = taskService.findOverdueTasks();
-        logger.info("Fetched overdue tasks, count={}", tasks.size());
-        return ResponseEntity.ok(tasks);
+    public ResponseEntity<List<TaskView>> getOverdueTasks(
+            @Parameter(description = "Cursor from a previous page's X-Next-Cursor header.") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (capped by the server).") @RequestParam(required = false) Integer size) {
+        CursorPage<TaskView> page = taskService.findOverdueTasks(cursor, resolvePageSize(size));
+        logger.info("Fetched overdue tasks, count={}", page.getItems().size());
+        return pageResponse(page, null);
     }
 
     @Operation(summary = "Get upcoming tasks", description = "Gets a list of upcoming tasks.")
     @ApiResponse(responseCode = "200", description = "List of tasks returned successfully.")
     @GetMapping("/api/tasks/upcoming")
-    public ResponseEntity<List<Task>> getUpcomingTasks() {
-        List<Task> tasks = taskService.findUpcomingTasks();
-        logger.info("Fetched upcoming tasks, count={}", tasks.size());
-        return ResponseEntity.ok(tasks);
+    public ResponseEntity<List<TaskView>> getUpcomingTasks(
+            @Parameter(description = "Cursor from a previous page's X-Next-Cursor header.") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (capped by the server).") @RequestParam(required = false) Integer size) {
+        CursorPage<TaskView> page = taskService.findUpcomingTasks(cursor, resolvePageSize(size));
+        logger.info("Fetched upcoming tasks, count={}", page.getItems().size());
+        return pageResponse(page, null);
+    }
+
+    @Operation(summary = "Get archived tasks", description = "Returns one page of the current user's archived tasks, newest first. ARCHIVED tasks and tasks completed long ago are moved here by a background job and no longer appear in the other listings.")
+    @ApiResponse(responseCode = "200", description = "List of archived tasks returned successfully.")
+    @ApiResponse(responseCode = "400", description = "Invalid cursor or page size.")
+    @GetMapping("/api/tasks/archive")
+    public ResponseEntity<List<TaskView>> getArchivedTasks(
+            @Parameter(description = "Cursor from a previous page's X-Next-Cursor header.") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (capped by the server).") @RequestParam(required = false) Integer size) {
+        CursorPage<TaskView> page = archiveService.findArchivedTasks(cursor, resolvePageSize(size));
+        logger.info("Fetched archived tasks, count={}", page.getItems().size());
+        return pageResponse(page, null);
+    }
+
+    @Operation(summary = "Get archived task by ID", description = "Returns one of the current user's archived tasks.")
+    @ApiResponse(responseCode = "200", description = "Archived task found.")
+    @ApiResponse(responseCode = "404", description = "Archived task not found.")
+    @GetMapping("/api/tasks/archive/{id}")
+    public ResponseEntity<ArchivedTask> getArchivedTaskById(
+            @Parameter(description = "ID of the archived task to retrieve.") @PathVariable Long id) {
+        ArchivedTask task = archiveService.findArchivedTask(id);
+        logger.info("Archived task fetched: id={}", id);
+        return ResponseEntity.ok(task);
+    }
+
+    @Operation(summary = "Search tasks", description = "Returns one page of the current user's tasks matching every given filter. With q, title and description are searched as full text and each hit carries a rank and a highlight excerpt (HTML: the task text is escaped and hits are wrapped in <mark>). The X-Next-Cursor response header holds the cursor for the next page; pass the same filters and sort with it.")
+    @ApiResponse(responseCode = "200", description = "Matching tasks returned successfully.")
+    @ApiResponse(responseCode = "400", description = "Invalid filter, sort, cursor or page size.")
+    @ApiResponse(responseCode = "304", description = "None of the user's tasks changed since the given ETag.")
+    @GetMapping("/api/tasks/search")
+    public ResponseEntity<List<TaskSearchHit>> searchTasks(
+            @Parameter(description = "ETag of a cached copy.") @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @Parameter(description = "Text to search for in title and description.") @RequestParam(required = false) String q,
+            @Parameter(description = "Status to match.") @RequestParam(required = false) String status,
+            @Parameter(description = "Priority to match (LOW, MEDIUM, or HIGH).") @RequestParam(required = false) String priority,
+            @Parameter(description = "Category to match.") @RequestParam(required = false) String category,
+            @Parameter(description = "Earliest due date, inclusive (ISO date-time).") @RequestParam(required = false) String dueFrom,
+            @Parameter(description = "Latest due date, inclusive (ISO date-time).") @RequestParam(required = false) String dueTo,
+            @Parameter(description = "Sort as field[,asc|desc]; field is createdAt, dueDate, priority, title or relevance (with q only). Defaults to relevance,desc with q and createdAt,desc without.") @RequestParam(required = false) String sort,
+            @Parameter(description = "Cursor from a previous page's X-Next-Cursor header.") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (capped by the server).") @RequestParam(required = false) Integer size) {
+        String tag = changeStamps.userTag(SecurityUtils.getCurrentUser().getId());
+        if (notModified(ifNoneMatch, tag)) {
+            return notModifiedResponse(tag);
+        }
+        TaskSearchCriteria criteria = new TaskSearchCriteria();
+        criteria.setText(q);
+        if (status != null) {
+            criteria.setStatus(TaskStatus.valueOf(status.toUpperCase()));
+        }
+        if (priority != null) {
+            criteria.setPriority(TaskPriority.valueOf(priority.toUpperCase()));
+        }
+        if (category != null) {
+            criteria.setCategory(TaskCategory.valueOf(category.toUpperCase()));
+        }
+        criteria.setDueFrom(parseDateParam("dueFrom", dueFrom));
+        criteria.setDueTo(parseDateParam("dueTo", dueTo));
+        if (sort != null && !sort.isBlank()) {
+            criteria.setSort(TaskSort.parse(sort));
+        }
+
+        CursorPage<TaskSearchHit> page = taskService.searchTasks(criteria, cursor, resolvePageSize(size));
+        logger.info("Searched tasks, hasText={}, status={}, priority={}, category={}, dueFrom={}, dueTo={}, sort={}, count={}",
+                q != null, status, priority, category, dueFrom, dueTo, sort, page.getItems().size());
+        return pageResponse(page, tag);
+    }
+
+    @Operation(summary = "Autocomplete task titles", description = "Returns the current user's tasks whose title has a word starting with the query, tolerating up to two typos. Best matches come first.")
+    @ApiResponse(responseCode = "200", description = "Suggestions returned successfully.")
+    @ApiResponse(responseCode = "400", description = "Query too long or invalid limit.")
+    @GetMapping("/api/tasks/autocomplete")
+    public ResponseEntity<List<TitleSuggestion>> autocompleteTitles(
+            @Parameter(description = "Text typed so far.") @RequestParam String q,
+            @Parameter(description = "Maximum number of suggestions (at most 20).") @RequestParam(defaultValue = "10") int limit) {
+        List<TitleSuggestion> suggestions = taskService.suggestTitles(q, limit);
+        logger.info("Autocompleted task titles, count={}", suggestions.size());
+        return ResponseEntity.ok(suggestions);
+    }
+
+    @Operation(summary = "Get task summary", description = "Returns dashboard counts by status, category and priority, overdue/upcoming counts and the next due tasks for the current user. The weak ETag changes when any of the user's tasks does and at least once a minute, since overdue counts depend on the time.")
+    @ApiResponse(responseCode = "200", description = "Summary returned successfully.")
+    @ApiResponse(responseCode = "304", description = "Nothing changed since the given ETag.")
+    @ApiResponse(responseCode = "400", description = "Invalid list size.")
+    @GetMapping("/api/tasks/summary")
+    public ResponseEntity<TaskSummaryResponse> getTaskSummary(
+            @Parameter(description = "ETag of a cached copy.") @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @Parameter(description = "Number of next due / overdue tasks to include (at most 20).") @RequestParam(defaultValue = "5") int limit) {
+        String tag = changeStamps.userMinuteTag(SecurityUtils.getCurrentUser().getId());
+        if (notModified(ifNoneMatch, tag)) {
+            return notModifiedResponse(tag);
+        }
+        TaskSummaryResponse summary = taskService.getTaskSummary(limit);
+        logger.info("Fetched task summary, total={}", summary.getTotal());
+        return ResponseEntity.ok().eTag(tag).cacheControl(REVALIDATE).body(summary);
+    }
+
+    @Operation(summary = "Get productivity stats", description = "Returns tasks created and completed per day or week over the last N days for the current user.")
+    @ApiResponse(responseCode = "200", description = "Stats returned successfully.")
+    @ApiResponse(responseCode = "400", description = "Invalid days or bucket.")
+    @GetMapping("/api/tasks/stats/productivity")
+    public ResponseEntity<List<ProductivityPoint>> getProductivityStats(
+            @Parameter(description = "Number of days to cover, today included (1-366).") @RequestParam(defaultValue = "7") int days,
+            @Parameter(description = "Bucket size (day or week).") @RequestParam(defaultValue = "day") String bucket) {
+        List<ProductivityPoint> points = taskService.getProductivity(days,
+                ProductivityBucket.valueOf(bucket.toUpperCase()));
+        logger.info("Fetched productivity stats, days={}, bucket={}, points={}", days, bucket, points.size());
+        return ResponseEntity.ok(points);
     }
 
     @Operation(summary = "Complete task", description = "Marks a task as completed by its ID.")
     @ApiResponse(responseCode = "200", description = "Task marked as completed successfully")
+    @ApiResponse(responseCode = "412", description = "The task changed since the version in If-Match and is not already completed.")
     @PostMapping("/api/tasks/{id}/complete")
     public ResponseEntity<Task> completeTask(
-            @Parameter(description = "ID of the task to complete.") @PathVariable Long id) {
-        Task completedTask = taskService.markTaskAsCompleted(id);
+            @Parameter(description = "ID of the task to complete.") @PathVariable Long id,
+            @Parameter(description = "ETag of the version being changed.") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Task completedTask = taskService.markTaskAsCompleted(id, expectedVersion(ifMatch));
         logger.info("Task marked as completed: id={}", id);
-        return ResponseEntity.ok(completedTask);
+        return ResponseEntity.ok().eTag(versionTag(completedTask)).body(completedTask);
     }
 
     @Operation(summary = "Uncomplete task", description = "Marks a task as uncompleted by its ID.")
     @ApiResponse(responseCode = "200", description = "Task marked as uncompleted successfully")
+    @ApiResponse(responseCode = "412", description = "The task changed since the version in If-Match and is not already uncompleted.")
     @PostMapping("/api/tasks/{id}/uncomplete")
     public ResponseEntity<Task> uncompleteTask(
-            @Parameter(description = "ID of the task to uncomplete.") @PathVariable Long id) {
-        Task uncompletedTask = taskService.markTaskAsUncompleted(id);
+            @Parameter(description = "ID of the task to uncomplete.") @PathVariable Long id,
+            @Parameter(description = "ETag of the version being changed.") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Task uncompletedTask = taskService.markTaskAsUncompleted(id, expectedVersion(ifMatch));
         logger.info("Task marked as uncompleted: id={}", id);
-        return ResponseEntity.ok(uncompletedTask);
+        return ResponseEntity.ok().eTag(versionTag(uncompletedTask)).body(uncompletedTask);
+    }
+
+    @Operation(summary = "Bulk status change", description = "Moves the current user's tasks, given by ids or by a filter, to one status in a single statement. Completing sets completedAt; any other status clears it. Tasks the user does not own or that already have the status are skipped.")
+    @ApiResponse(responseCode = "200", description = "Number of tasks changed.")
+    @ApiResponse(responseCode = "400", description = "Missing status, both or neither of ids and filter, or too many ids.")
+    @PostMapping("/api/tasks/bulk/status")
+    public ResponseEntity<BulkOperationResponse> bulkUpdateStatus(@RequestBody BulkStatusRequest request) {
+        if (request.getStatus() == null) {
+            throw new IllegalArgumentException("Status is required");
+        }
+        long updated = taskService.bulkUpdateStatus(request.getIds(), request.getFilter(), request.getStatus());
+        logger.info("Bulk status change to {}: updated={}", request.getStatus(), updated);
+        return ResponseEntity.ok(new BulkOperationResponse(updated));
+    }
+
+    @Operation(summary = "Bulk delete", description = "Deletes one owner's tasks selected by ids, by a filter, or all of them. The owner defaults to the current user; admins may name any user. Large selections are deleted in id-range chunks that each commit on their own.")
+    @ApiResponse(responseCode = "200", description = "Number of tasks deleted.")
+    @ApiResponse(responseCode = "400", description = "Not exactly one of ids, filter and all, or too many ids.")
+    @ApiResponse(responseCode = "403", description = "Owner is another user and the caller is not an admin.")
+    @PostMapping("/api/tasks/bulk/delete")
+    public ResponseEntity<BulkOperationResponse> bulkDelete(@RequestBody BulkTaskSelection selection) {
+        long deleted = taskService.bulkDelete(selection);
+        logger.info("Bulk delete: deleted={}", deleted);
+        return ResponseEntity.ok(new BulkOperationResponse(deleted));
+    }
+
+    @Operation(summary = "Bulk reassign", description = "Moves one owner's tasks, selected as for bulk delete, to the user toUserId. Large selections are moved in id-range chunks that each commit on their own.")
+    @ApiResponse(responseCode = "200", description = "Number of tasks moved.")
+    @ApiResponse(responseCode = "400", description = "Invalid selection or missing target user.")
+    @ApiResponse(responseCode = "403", description = "Owner is another user and the caller is not an admin.")
+    @ApiResponse(responseCode = "404", description = "Target user not found.")
+    @PostMapping("/api/tasks/bulk/reassign")
+    public ResponseEntity<BulkOperationResponse> bulkReassign(@RequestBody BulkReassignRequest request) {
+        long moved = taskService.bulkReassign(request);
+        logger.info("Bulk reassign to user {}: moved={}", request.getToUserId(), moved);
+        return ResponseEntity.ok(new BulkOperationResponse(moved));
     }
 
     @Operation(summary = "Assign task to user", description = "Assigns a task to a user by their IDs.")
@@ -243,4 +577,84 @@ public class TaskController {
     public ResponseEntity<List<String>> getAllCategories() {
         return ResponseEntity.ok(Arrays.stream(TaskCategory.values()).map(Enum::name).toList());
     }
-}
\ No newline at end of file
+
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return defaultPageSize;
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        return Math.min(size, maxPageSize);
+    }
+
+    private static LocalDateTime parseDateParam(String name, String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        }
+    }
+
+    // tag is the weak ETag the page was read under, or null for none
+    private static <T> ResponseEntity<List<T>> pageResponse(CursorPage<T> page, String tag) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.hasNext()) {
+            response.header(NEXT_CURSOR_HEADER, page.getNext());
+        }
+        if (tag != null) {
+            response.eTag(tag).cacheControl(REVALIDATE);
+        }
+        return response.body(page.getItems());
+    }
+
+    // True when If-None-Match names tag or is *, by weak comparison. Listing
+    // callers check this before any task query, so a hit costs no database
+    // work; getTaskById checks it after the ownership-scoped load.
+    private static boolean notModified(String ifNoneMatch, String tag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaque = stripWeak(tag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*") || stripWeak(trimmed).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeak(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    private static <T> ResponseEntity<T> notModifiedResponse(String tag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(tag).cacheControl(REVALIDATE).build();
+    }
+
+    // Strong ETag carrying the task's optimistic-lock version
+    private static String versionTag(Task task) {
+        return "\"" + task.getVersion() + "\"";
+    }
+
+    // Version expected by an If-Match header: a tag from versionTag, or none
+    // for a missing header or *. Anything else can never match the task.
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.parseLong(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException e) {
+                // fall through to the precondition failure
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "If-Match does not name a task version");
+    }
+}
@@ -86,7 +86,7 @@ public class UserController {
             logger.warn("Unauthorized access attempt to /api/users/me");
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
-        User user = userService.findByUsername(userDetails.getUsername());
+        User user = userService.findPrincipal(userDetails.getUsername());
         logger.info("Current user retrieved: {}", user.getUsername());
         return ResponseEntity.ok(user);
     }
@@ -0,0 +1,23 @@
+package com.taskwell.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Marks a read path: a read-only transaction in which Hibernate loads
+ * entities read-only (no snapshots kept for dirty checking) and never flushes.
+ * With a replica configured, ReadWriteRoutingDataSource sends its statements
+ * there. Writes keep using jakarta.transaction.Transactional; a read-only
+ * method called from inside one joins that read-write transaction.
+ */
+@Target({ ElementType.METHOD, ElementType.TYPE })
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Transactional(readOnly = true)
+public @interface ReadOnlyTransactional {
+}
@@ -0,0 +1,60 @@
+package com.taskwell.datasource;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Primary/replica data sources, only when taskwell.datasource.replica.url is
+ * set; otherwise Spring Boot's single data source is used unchanged. The
+ * primary is configured by spring.datasource.* as before, the replica by
+ * taskwell.datasource.replica.*, and each gets its own Hikari pool (pool
+ * settings under .hikari). Everything that injects a DataSource, Flyway and
+ * JPA included, gets the lazy routing proxy.
+ */
+@Configuration
+@ConditionalOnProperty(name = "taskwell.datasource.replica.url")
+public class ReadWriteDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("taskwell.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(@Value("${taskwell.datasource.replica.url}") String url,
+            @Value("${taskwell.datasource.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${taskwell.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create().type(HikariDataSource.class)
+                .url(url).username(username).password(password).build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+            @Qualifier("replicaDataSource") DataSource replica,
+            @Value("${taskwell.datasource.read-your-writes:5s}") Duration readYourWritesWindow) {
+        return new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(primary, replica, new ReadYourWrites(readYourWritesWindow)));
+    }
+}
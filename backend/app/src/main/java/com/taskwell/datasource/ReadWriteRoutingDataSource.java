@@ -0,0 +1,78 @@
+package com.taskwell.datasource;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends read-only transactions to the replica and everything else (writes,
+ * statements outside a transaction, migrations) to the primary. Reads by a
+ * user who wrote within the ReadYourWrites window stay on the primary, and so
+ * do reads run through onPrimary, which must never see replication lag.
+ *
+ * The route is picked when a physical connection is taken, so this must sit
+ * behind a LazyConnectionDataSourceProxy: transaction managers open the
+ * connection before the transaction's read-only flag is published, and the
+ * proxy delays that until the first statement.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY, REPLICA
+    }
+
+    private static final ThreadLocal<Boolean> forcePrimary = new ThreadLocal<>();
+
+    private final ReadYourWrites readYourWrites;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReadYourWrites readYourWrites) {
+        this.readYourWrites = readYourWrites;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    // Runs action with every connection it takes on this thread routed to the
+    // primary, read-only transactions included. For security-sensitive reads
+    // (principal lookups) where another user's write, such as an admin
+    // locking the account, must be visible at once. The transaction has to
+    // start inside action: one that already holds a replica connection keeps it.
+    public static <T> T onPrimary(Supplier<T> action) {
+        if (forcePrimary.get() != null) {
+            return action.get();
+        }
+        forcePrimary.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            forcePrimary.remove();
+        }
+    }
+
+    // True inside onPrimary
+    public static boolean isOnPrimary() {
+        return forcePrimary.get() != null;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return route();
+    }
+
+    Route route() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                readYourWrites.writing();
+            }
+            return Route.PRIMARY;
+        }
+        if (forcePrimary.get() != null) {
+            return Route.PRIMARY;
+        }
+        return readYourWrites.pinned() ? Route.PRIMARY : Route.REPLICA;
+    }
+}
@@ -0,0 +1,77 @@
+package com.taskwell.datasource;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.taskwell.security.CustomUserDetails;
+import com.taskwell.utils.SecurityUtils;
+
+/**
+ * Remembers which users committed a write in the last window, so their own
+ * reads go to the primary until the replica has had time to catch up. The
+ * window should exceed the usual replication lag. State is per instance:
+ * behind a load balancer the guarantee holds for requests that land on the
+ * instance that took the write.
+ */
+public class ReadYourWrites {
+
+    // Above this many remembered users, expired entries are dropped on write
+    static final int PRUNE_THRESHOLD = 10_000;
+
+    private final long windowNanos;
+    private final LongSupplier nanoTime;
+    private final Map<Long, Long> lastWrites = new ConcurrentHashMap<>();
+
+    public ReadYourWrites(Duration window) {
+        this(window, System::nanoTime);
+    }
+
+    ReadYourWrites(Duration window, LongSupplier nanoTime) {
+        this.windowNanos = window.toNanos();
+        this.nanoTime = nanoTime;
+    }
+
+    // Called when a read-write transaction takes a connection: the current
+    // user's window starts once it commits
+    void writing() {
+        CustomUserDetails user = SecurityUtils.getCurrentUser();
+        if (user == null || user.getId() == null) {
+            return;
+        }
+        Long userId = user.getId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    wrote(userId);
+                }
+            });
+        } else {
+            wrote(userId);
+        }
+    }
+
+    void wrote(Long userId) {
+        long now = nanoTime.getAsLong();
+        lastWrites.put(userId, now);
+        if (lastWrites.size() > PRUNE_THRESHOLD) {
+            lastWrites.values().removeIf(at -> now - at >= windowNanos);
+        }
+    }
+
+    // True while the current user is inside the window of their last write
+    boolean pinned() {
+        CustomUserDetails user = SecurityUtils.getCurrentUser();
+        return user != null && user.getId() != null && pinned(user.getId());
+    }
+
+    boolean pinned(Long userId) {
+        Long at = lastWrites.get(userId);
+        return at != null && nanoTime.getAsLong() - at < windowNanos;
+    }
+}
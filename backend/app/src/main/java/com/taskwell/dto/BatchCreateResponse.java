@@ -0,0 +1,65 @@
+package com.taskwell.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a batch create. Every submitted item appears in exactly one of
+ * the two lists, identified by its position in the request.
+ */
+public class BatchCreateResponse {
+    private final List<Created> created = new ArrayList<>();
+    private final List<ItemError> errors = new ArrayList<>();
+
+    public static class Created {
+        private final int index;
+        private final Long id;
+
+        public Created(int index, Long id) {
+            this.index = index;
+            this.id = id;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public Long getId() {
+            return id;
+        }
+    }
+
+    public static class ItemError {
+        private final int index;
+        private final String message;
+
+        public ItemError(int index, String message) {
+            this.index = index;
+            this.message = message;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+
+    public void addCreated(int index, Long id) {
+        created.add(new Created(index, id));
+    }
+
+    public void addError(int index, String message) {
+        errors.add(new ItemError(index, message));
+    }
+
+    public List<Created> getCreated() {
+        return created;
+    }
+
+    public List<ItemError> getErrors() {
+        return errors;
+    }
+}
@@ -0,0 +1,16 @@
+package com.taskwell.dto;
+
+/**
+ * Result of a set-based bulk operation: how many tasks it changed.
+ */
+public class BulkOperationResponse {
+    private final long affected;
+
+    public BulkOperationResponse(long affected) {
+        this.affected = affected;
+    }
+
+    public long getAffected() {
+        return affected;
+    }
+}
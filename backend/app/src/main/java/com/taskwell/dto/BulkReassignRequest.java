@@ -0,0 +1,16 @@
+package com.taskwell.dto;
+
+/**
+ * Moves the selected tasks to another user.
+ */
+public class BulkReassignRequest extends BulkTaskSelection {
+    private Long toUserId;
+
+    public Long getToUserId() {
+        return toUserId;
+    }
+
+    public void setToUserId(Long toUserId) {
+        this.toUserId = toUserId;
+    }
+}
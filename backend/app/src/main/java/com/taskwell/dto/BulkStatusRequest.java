@@ -0,0 +1,39 @@
+package com.taskwell.dto;
+
+import java.util.List;
+
+import com.taskwell.model.TaskStatus;
+
+/**
+ * Moves a set of the caller's tasks to one status. The tasks are given either
+ * as ids or as a filter, not both.
+ */
+public class BulkStatusRequest {
+    private List<Long> ids;
+    private TaskFilter filter;
+    private TaskStatus status;
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public TaskFilter getFilter() {
+        return filter;
+    }
+
+    public void setFilter(TaskFilter filter) {
+        this.filter = filter;
+    }
+
+    public TaskStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(TaskStatus status) {
+        this.status = status;
+    }
+}
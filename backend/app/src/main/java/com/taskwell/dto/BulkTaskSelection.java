@@ -0,0 +1,47 @@
+package com.taskwell.dto;
+
+import java.util.List;
+
+/**
+ * Selects one owner's tasks for a bulk operation: an explicit id list, a
+ * filter, or all of them. Exactly one of ids, filter and all is given. The
+ * owner defaults to the caller; only admins may name another user.
+ */
+public class BulkTaskSelection {
+    private Long ownerId;
+    private List<Long> ids;
+    private TaskFilter filter;
+    private boolean all;
+
+    public Long getOwnerId() {
+        return ownerId;
+    }
+
+    public void setOwnerId(Long ownerId) {
+        this.ownerId = ownerId;
+    }
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public TaskFilter getFilter() {
+        return filter;
+    }
+
+    public void setFilter(TaskFilter filter) {
+        this.filter = filter;
+    }
+
+    public boolean isAll() {
+        return all;
+    }
+
+    public void setAll(boolean all) {
+        this.all = all;
+    }
+}
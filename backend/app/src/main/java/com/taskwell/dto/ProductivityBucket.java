@@ -0,0 +1,6 @@
+package com.taskwell.dto;
+
+public enum ProductivityBucket {
+    DAY, // One point per calendar day
+    WEEK // One point per ISO week, keyed by its Monday
+}
@@ -0,0 +1,27 @@
+package com.taskwell.dto;
+
+import java.time.LocalDate;
+
+public class ProductivityPoint {
+    private LocalDate date; // First day of the bucket
+    private long created;
+    private long completed;
+
+    public ProductivityPoint(LocalDate date, long created, long completed) {
+        this.date = date;
+        this.created = created;
+        this.completed = completed;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public long getCreated() {
+        return created;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+}
@@ -0,0 +1,39 @@
+package com.taskwell.dto;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Row formats offered by the task export, parsed case-insensitively from the
+ * format request parameter.
+ */
+public enum TaskExportFormat {
+    // One TaskExportRow JSON object per line
+    NDJSON(MediaType.valueOf("application/x-ndjson"), "ndjson"),
+    // RFC 4180 with a header row; text fields quoted when needed
+    CSV(MediaType.valueOf("text/csv;charset=UTF-8"), "csv");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    TaskExportFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static TaskExportFormat parse(String format) {
+        for (TaskExportFormat candidate : values()) {
+            if (candidate.extension.equalsIgnoreCase(format)) {
+                return candidate;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported export format: " + format);
+    }
+}
@@ -0,0 +1,25 @@
+package com.taskwell.dto;
+
+import java.time.LocalDateTime;
+
+import com.taskwell.model.TaskCategory;
+import com.taskwell.model.TaskPriority;
+import com.taskwell.model.TaskStatus;
+
+/**
+ * One task as written by the unpaged exports: the TaskView columns plus the
+ * description, so an export read back through /api/tasks/import loses
+ * nothing the import accepts. Selected directly in JPQL like TaskView.
+ */
+public record TaskExportRow(
+        Long id,
+        String title,
+        String description,
+        TaskStatus status,
+        TaskPriority priority,
+        TaskCategory category,
+        LocalDateTime dueDate,
+        LocalDateTime completedAt,
+        LocalDateTime createdAt,
+        Long ownerId) {
+}
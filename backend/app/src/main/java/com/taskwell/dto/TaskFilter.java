@@ -0,0 +1,84 @@
+package com.taskwell.dto;
+
+import java.time.LocalDateTime;
+
+import com.taskwell.model.TaskCategory;
+import com.taskwell.model.TaskPriority;
+import com.taskwell.model.TaskStatus;
+
+/**
+ * Request-body form of the task search filters, for bulk operations that
+ * select their tasks by filter rather than by id.
+ */
+public class TaskFilter {
+    private String q;
+    private TaskStatus status;
+    private TaskPriority priority;
+    private TaskCategory category;
+    private LocalDateTime dueFrom;
+    private LocalDateTime dueTo;
+
+    public boolean isEmpty() {
+        return (q == null || q.isBlank()) && status == null && priority == null && category == null
+                && dueFrom == null && dueTo == null;
+    }
+
+    public TaskSearchCriteria toCriteria() {
+        TaskSearchCriteria criteria = new TaskSearchCriteria();
+        criteria.setText(q);
+        criteria.setStatus(status);
+        criteria.setPriority(priority);
+        criteria.setCategory(category);
+        criteria.setDueFrom(dueFrom);
+        criteria.setDueTo(dueTo);
+        return criteria;
+    }
+
+    public String getQ() {
+        return q;
+    }
+
+    public void setQ(String q) {
+        this.q = q;
+    }
+
+    public TaskStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(TaskStatus status) {
+        this.status = status;
+    }
+
+    public TaskPriority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(TaskPriority priority) {
+        this.priority = priority;
+    }
+
+    public TaskCategory getCategory() {
+        return category;
+    }
+
+    public void setCategory(TaskCategory category) {
+        this.category = category;
+    }
+
+    public LocalDateTime getDueFrom() {
+        return dueFrom;
+    }
+
+    public void setDueFrom(LocalDateTime dueFrom) {
+        this.dueFrom = dueFrom;
+    }
+
+    public LocalDateTime getDueTo() {
+        return dueTo;
+    }
+
+    public void setDueTo(LocalDateTime dueTo) {
+        this.dueTo = dueTo;
+    }
+}
@@ -0,0 +1,82 @@
+package com.taskwell.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a task import. Every row read is either imported or rejected;
+ * rejected rows are reported by their 1-based row number, the first
+ * MAX_REPORTED_ERRORS of them in full.
+ */
+public class TaskImportResponse {
+    // Keeps the report bounded however bad the file is
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    private long rows;
+    private long imported;
+    private long rejected;
+    private long elapsedMillis;
+    private final List<RowError> errors = new ArrayList<>();
+
+    public static class RowError {
+        private final long row;
+        private final String message;
+
+        public RowError(long row, String message) {
+            this.row = row;
+            this.message = message;
+        }
+
+        public long getRow() {
+            return row;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+
+    public void addRows(long count) {
+        rows += count;
+    }
+
+    public void addImported(long count) {
+        imported += count;
+    }
+
+    public void addError(long row, String message) {
+        rejected++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new RowError(row, message));
+        }
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    // Rows read per second over the whole import
+    public double getRowsPerSecond() {
+        return elapsedMillis == 0 ? rows * 1000.0 : rows * 1000.0 / elapsedMillis;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+}
@@ -0,0 +1,78 @@
+package com.taskwell.dto;
+
+import java.time.LocalDateTime;
+
+import com.taskwell.model.TaskCategory;
+import com.taskwell.model.TaskPriority;
+import com.taskwell.model.TaskStatus;
+
+/**
+ * Filters for task search. Every field is optional; the ones that are set are
+ * combined with AND. The due date range is inclusive on both ends. A null sort
+ * means newest first, or most relevant first when searching by text.
+ */
+public class TaskSearchCriteria {
+    private String text;
+    private TaskStatus status;
+    private TaskPriority priority;
+    private TaskCategory category;
+    private LocalDateTime dueFrom;
+    private LocalDateTime dueTo;
+    private TaskSort sort;
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    public TaskStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(TaskStatus status) {
+        this.status = status;
+    }
+
+    public TaskPriority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(TaskPriority priority) {
+        this.priority = priority;
+    }
+
+    public TaskCategory getCategory() {
+        return category;
+    }
+
+    public void setCategory(TaskCategory category) {
+        this.category = category;
+    }
+
+    public LocalDateTime getDueFrom() {
+        return dueFrom;
+    }
+
+    public void setDueFrom(LocalDateTime dueFrom) {
+        this.dueFrom = dueFrom;
+    }
+
+    public LocalDateTime getDueTo() {
+        return dueTo;
+    }
+
+    public void setDueTo(LocalDateTime dueTo) {
+        this.dueTo = dueTo;
+    }
+
+    public TaskSort getSort() {
+        return sort;
+    }
+
+    public void setSort(TaskSort sort) {
+        this.sort = sort;
+    }
+}
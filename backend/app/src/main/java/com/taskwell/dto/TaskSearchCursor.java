@@ -0,0 +1,71 @@
+package com.taskwell.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position for task search: the sort key and id of the last row
+ * served. The sort is encoded too, so a cursor cannot be replayed against a
+ * different order.
+ */
+public class TaskSearchCursor {
+    private final TaskSort sort;
+    private final Comparable<?> key;
+    private final Long id;
+
+    public TaskSearchCursor(TaskSort sort, Comparable<?> key, Long id) {
+        this.sort = sort;
+        this.key = key;
+        this.id = id;
+    }
+
+    public static TaskSearchCursor of(TaskSort sort, TaskSearchHit last) {
+        return new TaskSearchCursor(sort, sort.getField().keyOf(last), last.task().id());
+    }
+
+    // Returns null for the first page
+    public static TaskSearchCursor decode(String token, TaskSort sort) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        // sort|key|id; the key may itself contain '|' (titles), the others cannot
+        int first = raw.indexOf('|');
+        int last = raw.lastIndexOf('|');
+        if (first < 0 || first == last) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (!raw.substring(0, first).equals(sort.toString())) {
+            throw new IllegalArgumentException("Cursor does not match sort");
+        }
+        try {
+            return new TaskSearchCursor(sort, sort.getField().parseKey(raw.substring(first + 1, last)),
+                    Long.parseLong(raw.substring(last + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = sort + "|" + (key instanceof Enum<?> e ? e.name() : key.toString()) + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public TaskSort getSort() {
+        return sort;
+    }
+
+    public Comparable<?> getKey() {
+        return key;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
@@ -0,0 +1,28 @@
+package com.taskwell.dto;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import com.taskwell.model.TaskCategory;
+import com.taskwell.model.TaskPriority;
+import com.taskwell.model.TaskStatus;
+
+/**
+ * One search result: the task row plus, for text searches, its relevance and
+ * a highlighted excerpt. Serialized flat, so without a text query it looks
+ * exactly like a listing row.
+ */
+public record TaskSearchHit(
+        @JsonUnwrapped TaskView task,
+        @JsonInclude(JsonInclude.Include.NON_NULL) Double rank,
+        @JsonInclude(JsonInclude.Include.NON_NULL) String highlight) {
+
+    // Flat form for JPQL/criteria constructor expressions, which cannot nest
+    public TaskSearchHit(Long id, String title, TaskStatus status, TaskPriority priority, TaskCategory category,
+            LocalDateTime dueDate, LocalDateTime completedAt, LocalDateTime createdAt, Long ownerId,
+            Double rank, String highlight) {
+        this(new TaskView(id, title, status, priority, category, dueDate, completedAt, createdAt, ownerId),
+                rank, highlight);
+    }
+}
@@ -0,0 +1,118 @@
+package com.taskwell.dto;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.function.Function;
+
+import com.taskwell.model.TaskPriority;
+
+/**
+ * Sort order for task search, parsed from the usual {@code field[,asc|desc]}
+ * form. Every order is tie-broken on id in the same direction, so it is total
+ * and can be resumed from a {@link TaskSearchCursor}.
+ */
+public class TaskSort {
+    // Tasks without a due date sort as if due at the end of time, so the order
+    // is the same on every database regardless of its null ordering
+    public static final LocalDateTime NO_DUE_DATE = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    public enum Field {
+        CREATED_AT("createdAt", hit -> hit.task().createdAt(), LocalDateTime::parse),
+        DUE_DATE("dueDate", hit -> hit.task().dueDate() == null ? NO_DUE_DATE : hit.task().dueDate(),
+                LocalDateTime::parse),
+        PRIORITY("priority", hit -> hit.task().priority(), TaskPriority::valueOf),
+        TITLE("title", hit -> hit.task().title(), Function.identity()),
+        // Text search rank; only valid together with a text query
+        RELEVANCE("relevance", TaskSearchHit::rank, Double::valueOf);
+
+        private final String property;
+        private final Function<TaskSearchHit, ? extends Comparable<?>> key;
+        private final Function<String, ? extends Comparable<?>> parser;
+
+        Field(String property, Function<TaskSearchHit, ? extends Comparable<?>> key,
+                Function<String, ? extends Comparable<?>> parser) {
+            this.property = property;
+            this.key = key;
+            this.parser = parser;
+        }
+
+        public String getProperty() {
+            return property;
+        }
+
+        // Sort key of a row as it will be compared in the database
+        public Comparable<?> keyOf(TaskSearchHit hit) {
+            Comparable<?> value = key.apply(hit);
+            if (value instanceof LocalDateTime time) {
+                // The database keeps microseconds
+                return time.truncatedTo(ChronoUnit.MICROS);
+            }
+            return value;
+        }
+
+        public Comparable<?> parseKey(String raw) {
+            return parser.apply(raw);
+        }
+
+        public static Field fromProperty(String property) {
+            for (Field field : values()) {
+                if (field.property.equalsIgnoreCase(property)) {
+                    return field;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported sort field: " + property);
+        }
+    }
+
+    private static final TaskSort NEWEST_FIRST = new TaskSort(Field.CREATED_AT, false);
+    private static final TaskSort MOST_RELEVANT = new TaskSort(Field.RELEVANCE, false);
+
+    private final Field field;
+    private final boolean ascending;
+
+    public TaskSort(Field field, boolean ascending) {
+        this.field = field;
+        this.ascending = ascending;
+    }
+
+    // Newest first, matching the plain listing endpoints
+    public static TaskSort defaultSort() {
+        return NEWEST_FIRST;
+    }
+
+    // Best match first, the default when searching by text
+    public static TaskSort relevance() {
+        return MOST_RELEVANT;
+    }
+
+    public static TaskSort parse(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return NEWEST_FIRST;
+        }
+        String[] parts = sort.split(",", -1);
+        if (parts.length > 2) {
+            throw new IllegalArgumentException("Invalid sort: " + sort);
+        }
+        Field field = Field.fromProperty(parts[0].trim());
+        if (parts.length == 1 || parts[1].trim().equalsIgnoreCase("asc")) {
+            return new TaskSort(field, true);
+        }
+        if (parts[1].trim().equalsIgnoreCase("desc")) {
+            return new TaskSort(field, false);
+        }
+        throw new IllegalArgumentException("Invalid sort direction: " + parts[1]);
+    }
+
+    public Field getField() {
+        return field;
+    }
+
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    @Override
+    public String toString() {
+        return field.getProperty() + "," + (ascending ? "asc" : "desc");
+    }
+}
@@ -0,0 +1,119 @@
+package com.taskwell.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import com.taskwell.model.TaskCategory;
+import com.taskwell.model.TaskPriority;
+import com.taskwell.model.TaskStatus;
+
+public class TaskSummaryResponse {
+    private long total;
+    private Map<TaskStatus, Long> byStatus;
+    private Map<TaskCategory, Long> byCategory;
+    private long uncategorized;
+    private Map<TaskPriority, Long> byPriority;
+    private long overdue;
+    private long upcoming;
+    private List<DueTask> nextDue;
+    private List<DueTask> overdueTasks;
+
+    // Minimal task reference for the due-date lists
+    public static class DueTask {
+        private Long id;
+        private String title;
+        private LocalDateTime dueDate;
+
+        public DueTask(Long id, String title, LocalDateTime dueDate) {
+            this.id = id;
+            this.title = title;
+            this.dueDate = dueDate;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public LocalDateTime getDueDate() {
+            return dueDate;
+        }
+    }
+
+    // Getters and Setters
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public Map<TaskStatus, Long> getByStatus() {
+        return byStatus;
+    }
+
+    public void setByStatus(Map<TaskStatus, Long> byStatus) {
+        this.byStatus = byStatus;
+    }
+
+    public Map<TaskCategory, Long> getByCategory() {
+        return byCategory;
+    }
+
+    public void setByCategory(Map<TaskCategory, Long> byCategory) {
+        this.byCategory = byCategory;
+    }
+
+    public long getUncategorized() {
+        return uncategorized;
+    }
+
+    public void setUncategorized(long uncategorized) {
+        this.uncategorized = uncategorized;
+    }
+
+    public Map<TaskPriority, Long> getByPriority() {
+        return byPriority;
+    }
+
+    public void setByPriority(Map<TaskPriority, Long> byPriority) {
+        this.byPriority = byPriority;
+    }
+
+    public long getOverdue() {
+        return overdue;
+    }
+
+    public void setOverdue(long overdue) {
+        this.overdue = overdue;
+    }
+
+    public long getUpcoming() {
+        return upcoming;
+    }
+
+    public void setUpcoming(long upcoming) {
+        this.upcoming = upcoming;
+    }
+
+    public List<DueTask> getNextDue() {
+        return nextDue;
+    }
+
+    public void setNextDue(List<DueTask> nextDue) {
+        this.nextDue = nextDue;
+    }
+
+    public List<DueTask> getOverdueTasks() {
+        return overdueTasks;
+    }
+
+    public void setOverdueTasks(List<DueTask> overdueTasks) {
+        this.overdueTasks = overdueTasks;
+    }
+}
@@ -0,0 +1,24 @@
+package com.taskwell.dto;
+
+import java.time.LocalDateTime;
+
+import com.taskwell.model.TaskCategory;
+import com.taskwell.model.TaskPriority;
+import com.taskwell.model.TaskStatus;
+
+/**
+ * Flat, read-only row for task listings, selected directly in JPQL so list
+ * endpoints never hydrate Task or User entities. createdAt is carried for the
+ * keyset cursor.
+ */
+public record TaskView(
+        Long id,
+        String title,
+        TaskStatus status,
+        TaskPriority priority,
+        TaskCategory category,
+        LocalDateTime dueDate,
+        LocalDateTime completedAt,
+        LocalDateTime createdAt,
+        Long ownerId) {
+}
@@ -0,0 +1,7 @@
+package com.taskwell.dto;
+
+/**
+ * Autocomplete match for a task title.
+ */
+public record TitleSuggestion(Long id, String title) {
+}
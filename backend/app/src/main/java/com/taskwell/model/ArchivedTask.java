@@ -0,0 +1,103 @@
+package com.taskwell.model;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.Immutable;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+// A task moved to the cold tier by TaskArchiveService. Rows are copied in by
+// SQL and never changed afterwards, so the mapping is read-only and keeps the
+// owner as a plain id rather than a User association.
+@Entity
+@Immutable
+@Table(name = "task_archive")
+public class ArchivedTask {
+
+    @Id
+    private Long id;
+
+    private String title;
+
+    private String description;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    private TaskStatus status;
+
+    private LocalDateTime dueDate;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime completedAt;
+
+    private TaskPriority priority;
+
+    private TaskCategory category;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+
+    // No-args constructor required by JPA
+    public ArchivedTask() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    @JsonProperty("ownerId")
+    public Long getUserId() {
+        return userId;
+    }
+
+    public TaskStatus getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getDueDate() {
+        return dueDate;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public TaskPriority getPriority() {
+        return priority;
+    }
+
+    public TaskCategory getCategory() {
+        return category;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+}
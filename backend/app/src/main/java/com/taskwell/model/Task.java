@@ -3,7 +3,11 @@ package com.taskwell.model;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import java.time.LocalDateTime;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
@@ -15,14 +19,22 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Version;
 
+// Not second-level cached: tasks are read through owner-scoped queries and
+// projections, which never consult an entity cache, and every single-task
+// JPQL write would evict the whole region anyway.
 @Entity
 @Table(uniqueConstraints = {
         @UniqueConstraint(columnNames = { "user_id", "title" })
 })
 public class Task {
+    // Sequence ids (allocated 50 at a time) keep Hibernate insert batching
+    // enabled; the step must match task_seq in the V4 migration
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_seq")
+    @SequenceGenerator(name = "task_seq", sequenceName = "task_seq", allocationSize = 50)
     private Long id;
 
     @NotNull(message = "Title is required")
@@ -32,7 +44,10 @@ public class Task {
     @Size(max = 500, message = "Description must be at most 500 characters")
     private String description;
 
-    @ManyToOne
+    // Lazy so loading a task never drags its owner row along; only the owner
+    // id is exposed in JSON, which a proxy can answer without a query
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
     @jakarta.persistence.JoinColumn(name = "user_id", referencedColumnName = "id")
     private User user; // The user to whom the task is assigned
 
@@ -57,6 +72,12 @@ public class Task {
 
     private TaskCategory category;
 
+    // Optimistic lock; sent back as the ETag and checked against If-Match.
+    // The conditional JPQL writes in TaskRepository bump it themselves.
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     // No-args constructor required by JPA
     public Task() {
     }
@@ -98,6 +119,16 @@ public class Task {
         return user;
     }
 
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    public Long getVersion() {
+        return version;
+    }
+
+    @JsonProperty(value = "ownerId", access = JsonProperty.Access.READ_ONLY)
+    public Long getOwnerId() {
+        return user == null ? null : user.getId();
+    }
+
     public void setStatus(TaskStatus status) {
         this.status = status;
     }
@@ -0,0 +1,93 @@
+package com.taskwell.model;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+// One per-user task counter row (see TaskStats). Rows are only ever inserted
+// whole by a rebuild and changed afterwards by UPDATE statements, so isNew()
+// is always true and save() skips the lookup merge() would do.
+@Entity
+@Table(name = "task_stats")
+@IdClass(TaskStat.Key.class)
+public class TaskStat implements Persistable<TaskStat.Key> {
+
+    public static class Key implements Serializable {
+        private Long userId;
+        private String statKey;
+
+        public Key() {
+        }
+
+        public Key(Long userId, String statKey) {
+            this.userId = userId;
+            this.statKey = statKey;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return Objects.equals(userId, other.userId) && Objects.equals(statKey, other.statKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, statKey);
+        }
+    }
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "stat_key")
+    private String statKey;
+
+    @Column(name = "task_count", nullable = false)
+    private long taskCount;
+
+    public TaskStat() {
+    }
+
+    public TaskStat(Long userId, String statKey, long taskCount) {
+        this.userId = userId;
+        this.statKey = statKey;
+        this.taskCount = taskCount;
+    }
+
+    @Override
+    public Key getId() {
+        return new Key(userId, statKey);
+    }
+
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getStatKey() {
+        return statKey;
+    }
+
+    public long getTaskCount() {
+        return taskCount;
+    }
+}
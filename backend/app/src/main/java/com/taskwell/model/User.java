@@ -9,6 +9,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Email;
@@ -16,14 +17,23 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import jakarta.validation.constraints.Pattern;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
+// Cached in the second-level cache, by id and by username (the natural id
+// UserRepository.findByUsername resolves); regions and limits are in
+// hibernate-cache.conf. Writes through Hibernate update the entries on commit.
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
+@NaturalIdCache(region = "users-by-username")
 @Table(name = "users", uniqueConstraints = {
         @UniqueConstraint(columnNames = { "username" }),
         @UniqueConstraint(columnNames = { "email" })
@@ -37,6 +47,7 @@ public class User {
     @NotBlank(message = "Username is required")
     @Size(min = 3, max = 50, message = "Username must be between 3 and 50 characters")
     @Pattern(regexp = "^(?!.*([_.])\\1)[a-zA-Z0-9._]+$", message = "Username can only contain letters, numbers, dots, and underscores, and no consecutive dots or underscores")
+    @NaturalId(mutable = true)
     @Column(nullable = false, unique = true)
     private String username;
 
@@ -68,6 +79,13 @@ public class User {
     @Column(name = "verification_token")
     private String verificationToken;
 
+    // Optimistic lock: concurrent profile or role changes fail with a 409
+    // instead of silently overwriting each other
+    @JsonIgnore
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     // No-args constructor required by JPA
     public User() {
     }
@@ -89,6 +107,10 @@ public class User {
         return verificationToken;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public void setId(Long id) {
         this.id = id;
     }
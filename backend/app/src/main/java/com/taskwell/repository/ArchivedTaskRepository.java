@@ -0,0 +1,41 @@
+package com.taskwell.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.taskwell.dto.TaskView;
+import com.taskwell.model.ArchivedTask;
+
+import jakarta.transaction.Transactional;
+
+public interface ArchivedTaskRepository extends JpaRepository<ArchivedTask, Long> {
+
+    // One keyset page of a user's archived tasks, newest first, in the same
+    // TaskView rows and order as the live listings so TaskCursor works for both
+    @Query("SELECT new com.taskwell.dto.TaskView(a.id, a.title, a.status, a.priority, a.category, a.dueDate, a.completedAt, a.createdAt, a.userId) FROM ArchivedTask a WHERE a.userId = :userId AND a.createdAt <= :createdAt AND (a.createdAt < :createdAt OR a.id < :id) ORDER BY a.createdAt DESC, a.id DESC")
+    Slice<TaskView> findPageByUserId(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id, Pageable pageable);
+
+    Optional<ArchivedTask> findByIdAndUserId(Long id, Long userId);
+
+    // Ids of rows archived before the cutoff, oldest first; the purge deletes
+    // them a page at a time
+    @Query("SELECT a.id FROM ArchivedTask a WHERE a.archivedAt < :before ORDER BY a.archivedAt")
+    List<Long> findIdsArchivedBefore(@Param("before") LocalDateTime before, Pageable pageable);
+
+    // Runs in its own transaction when called outside one, so the purge
+    // commits each batch separately
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ArchivedTask a WHERE a.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+}
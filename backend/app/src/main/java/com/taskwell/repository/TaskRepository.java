@@ -1,35 +1,224 @@
 package com.taskwell.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import jakarta.persistence.QueryHint;
+import jakarta.transaction.Transactional;
+
+import org.hibernate.jpa.HibernateHints;
+
+import com.taskwell.dto.TaskExportRow;
+import com.taskwell.dto.TaskView;
 import com.taskwell.model.Task;
 import com.taskwell.model.TaskCategory;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 import com.taskwell.model.User;
 import java.time.LocalDateTime;
 import com.taskwell.model.TaskStatus;
 import com.taskwell.model.TaskPriority;
 
-public interface TaskRepository extends JpaRepository<Task, Long> {
-    // Custom query methods
-    Task findByTitle(String title);
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskSearchRepository {
+    // Rows per JDBC round trip for the streaming exports
+    String STREAM_FETCH_SIZE = "500";
+
+    // Keyset pages in (createdAt DESC, id DESC) order, strictly after the cursor,
+    // projected straight into TaskView rows so listings never load Task or User
+    // entities. Always call with page 0 of a Pageable; the cursor replaces the
+    // offset. The redundant createdAt <= bound gives the planner an index range
+    // to seek on.
+    @Query("SELECT new com.taskwell.dto.TaskView(t.id, t.title, t.status, t.priority, t.category, t.dueDate, t.completedAt, t.createdAt, t.user.id) FROM Task t WHERE t.createdAt <= :createdAt AND (t.createdAt < :createdAt OR t.id < :id) ORDER BY t.createdAt DESC, t.id DESC")
+    Slice<TaskView> findPage(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT new com.taskwell.dto.TaskView(t.id, t.title, t.status, t.priority, t.category, t.dueDate, t.completedAt, t.createdAt, t.user.id) FROM Task t WHERE t.user.id = :userId AND t.createdAt <= :createdAt AND (t.createdAt < :createdAt OR t.id < :id) ORDER BY t.createdAt DESC, t.id DESC")
+    Slice<TaskView> findPageByUserId(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT new com.taskwell.dto.TaskView(t.id, t.title, t.status, t.priority, t.category, t.dueDate, t.completedAt, t.createdAt, t.user.id) FROM Task t WHERE t.status = :status AND t.createdAt <= :createdAt AND (t.createdAt < :createdAt OR t.id < :id) ORDER BY t.createdAt DESC, t.id DESC")
+    Slice<TaskView> findPageByStatus(@Param("status") TaskStatus status, @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT new com.taskwell.dto.TaskView(t.id, t.title, t.status, t.priority, t.category, t.dueDate, t.completedAt, t.createdAt, t.user.id) FROM Task t WHERE t.category = :category AND t.createdAt <= :createdAt AND (t.createdAt < :createdAt OR t.id < :id) ORDER BY t.createdAt DESC, t.id DESC")
+    Slice<TaskView> findPageByCategory(@Param("category") TaskCategory category,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT new com.taskwell.dto.TaskView(t.id, t.title, t.status, t.priority, t.category, t.dueDate, t.completedAt, t.createdAt, t.user.id) FROM Task t WHERE t.priority = :priority AND t.createdAt <= :createdAt AND (t.createdAt < :createdAt OR t.id < :id) ORDER BY t.createdAt DESC, t.id DESC")
+    Slice<TaskView> findPageByPriority(@Param("priority") TaskPriority priority,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT new com.taskwell.dto.TaskView(t.id, t.title, t.status, t.priority, t.category, t.dueDate, t.completedAt, t.createdAt, t.user.id) FROM Task t WHERE t.dueDate = :dueDate AND t.createdAt <= :createdAt AND (t.createdAt < :createdAt OR t.id < :id) ORDER BY t.createdAt DESC, t.id DESC")
+    Slice<TaskView> findPageByDueDate(@Param("dueDate") LocalDateTime dueDate, @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT new com.taskwell.dto.TaskView(t.id, t.title, t.status, t.priority, t.category, t.dueDate, t.completedAt, t.createdAt, t.user.id) FROM Task t WHERE t.status = com.taskwell.model.TaskStatus.OVERDUE AND t.createdAt <= :createdAt AND (t.createdAt < :createdAt OR t.id < :id) ORDER BY t.createdAt DESC, t.id DESC")
+    Slice<TaskView> findOverduePage(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT new com.taskwell.dto.TaskView(t.id, t.title, t.status, t.priority, t.category, t.dueDate, t.completedAt, t.createdAt, t.user.id) FROM Task t WHERE t.dueDate > CURRENT_TIMESTAMP AND t.status <> com.taskwell.model.TaskStatus.COMPLETE AND t.createdAt <= :createdAt AND (t.createdAt < :createdAt OR t.id < :id) ORDER BY t.createdAt DESC, t.id DESC")
+    Slice<TaskView> findUpcomingPage(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    // Dashboard aggregates, scoped to one owner. Rows are [group key, count].
+    @Query("SELECT t.status, COUNT(t) FROM Task t WHERE t.user.id = :userId GROUP BY t.status")
+    List<Object[]> countByStatusForUser(@Param("userId") Long userId);
+
+    @Query("SELECT t.category, COUNT(t) FROM Task t WHERE t.user.id = :userId GROUP BY t.category")
+    List<Object[]> countByCategoryForUser(@Param("userId") Long userId);
+
+    @Query("SELECT t.priority, COUNT(t) FROM Task t WHERE t.user.id = :userId GROUP BY t.priority")
+    List<Object[]> countByPriorityForUser(@Param("userId") Long userId);
+
+    // Status, category and priority ordinals of one owned task (no row if it
+    // is missing or foreign), locked until the transaction ends so the
+    // TaskStats deltas for the write that follows start from the right values
+    @Query(value = "SELECT status, category, priority FROM task WHERE id = :id AND user_id = :userId FOR UPDATE", nativeQuery = true)
+    List<Object[]> lockCountedFields(@Param("id") Long id, @Param("userId") Long userId);
+
+    // Owner id plus the same ordinals, then id and due date, for each of the
+    // given tasks that still exists, likewise locked; TaskStats.tracking reads
+    // them around a multi-task write
+    @Query(value = "SELECT user_id, status, category, priority, id, due_date FROM task WHERE id IN (:ids) FOR UPDATE", nativeQuery = true)
+    List<Object[]> lockCountedFieldsByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT COUNT(t) FROM Task t WHERE t.user.id = :userId AND t.dueDate > CURRENT_TIMESTAMP AND t.status <> com.taskwell.model.TaskStatus.COMPLETE")
+    long countUpcomingForUser(@Param("userId") Long userId);
+
+    @Query("SELECT t FROM Task t WHERE t.user.id = :userId AND t.dueDate > CURRENT_TIMESTAMP AND t.status <> com.taskwell.model.TaskStatus.COMPLETE ORDER BY t.dueDate ASC, t.id ASC")
+    List<Task> findNextDueForUser(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT t FROM Task t WHERE t.user.id = :userId AND t.status = com.taskwell.model.TaskStatus.OVERDUE ORDER BY t.dueDate ASC, t.id ASC")
+    List<Task> findOldestOverdueForUser(@Param("userId") Long userId, Pageable pageable);
+
+    // Per-day activity since :from for one owner. Rows are [LocalDate, count];
+    // days without activity are absent and filled in by the service.
+    @Query("SELECT CAST(t.createdAt AS LocalDate), COUNT(t) FROM Task t WHERE t.user.id = :userId AND t.createdAt >= :from GROUP BY CAST(t.createdAt AS LocalDate)")
+    List<Object[]> countCreatedPerDayForUser(@Param("userId") Long userId, @Param("from") LocalDateTime from);
+
+    @Query("SELECT CAST(t.completedAt AS LocalDate), COUNT(t) FROM Task t WHERE t.user.id = :userId AND t.completedAt >= :from GROUP BY CAST(t.completedAt AS LocalDate)")
+    List<Object[]> countCompletedPerDayForUser(@Param("userId") Long userId, @Param("from") LocalDateTime from);
+
+    // (id, title) of every task a user owns, to build the autocomplete index
+    @Query("SELECT t.id, t.title FROM Task t WHERE t.user.id = :userId")
+    List<Object[]> findTitlesByUserId(@Param("userId") Long userId);
+
+    // Set-based status transitions for one owner's tasks. Rows already in the
+    // target status are left untouched, so the count is what actually changed.
+    // Bulk updates bypass @UpdateTimestamp and @Version, hence the explicit
+    // updatedAt and version bump.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Task t SET t.status = com.taskwell.model.TaskStatus.COMPLETE, t.completedAt = :now, t.updatedAt = :now, t.version = t.version + 1 WHERE t.user.id = :userId AND t.id IN :ids AND t.status <> com.taskwell.model.TaskStatus.COMPLETE")
+    int completeByIdsForUser(@Param("userId") Long userId, @Param("ids") Collection<Long> ids,
+            @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Task t SET t.status = :status, t.completedAt = NULL, t.updatedAt = :now, t.version = t.version + 1 WHERE t.user.id = :userId AND t.id IN :ids AND t.status <> :status")
+    int updateStatusByIdsForUser(@Param("userId") Long userId, @Param("ids") Collection<Long> ids,
+            @Param("status") TaskStatus status, @Param("now") LocalDateTime now);
+
+    // Unpaged exports in id order, read through a forward-only cursor that
+    // fetches STREAM_FETCH_SIZE rows per round trip. Rows are TaskExportRow
+    // projections, so nothing accumulates in the persistence context. The
+    // stream must be consumed and closed inside a transaction (PostgreSQL only
+    // honours the fetch size with autocommit off).
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    @Query("SELECT new com.taskwell.dto.TaskExportRow(t.id, t.title, t.description, t.status, t.priority, t.category, t.dueDate, t.completedAt, t.createdAt, t.user.id) FROM Task t ORDER BY t.id")
+    Stream<TaskExportRow> streamAll();
+
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    @Query("SELECT new com.taskwell.dto.TaskExportRow(t.id, t.title, t.description, t.status, t.priority, t.category, t.dueDate, t.completedAt, t.createdAt, t.user.id) FROM Task t WHERE t.user.id = :userId ORDER BY t.id")
+    Stream<TaskExportRow> streamByUserId(@Param("userId") Long userId);
+
+    // Overdue sweep, across all owners. Each pass reads up to a page of
+    // [id, owner id, due date] rows, oldest due first, then moves exactly those
+    // ids. The UPDATEs repeat the read's conditions, so a task edited in
+    // between is left alone.
+    @Query("SELECT t.id, t.user.id, t.dueDate FROM Task t WHERE t.status IN :statuses AND t.dueDate < :now ORDER BY t.dueDate ASC")
+    List<Object[]> findDueBefore(@Param("statuses") Collection<TaskStatus> statuses, @Param("now") LocalDateTime now,
+            Pageable pageable);
+
+    @Query("SELECT t.id, t.user.id, t.dueDate FROM Task t WHERE t.status = com.taskwell.model.TaskStatus.OVERDUE AND t.dueDate >= :now ORDER BY t.dueDate ASC")
+    List<Object[]> findOverdueDueFrom(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Task t SET t.status = com.taskwell.model.TaskStatus.OVERDUE, t.updatedAt = :now, t.version = t.version + 1 WHERE t.id IN :ids AND t.status IN :statuses AND t.dueDate < :now")
+    int markOverdue(@Param("ids") Collection<Long> ids, @Param("statuses") Collection<TaskStatus> statuses,
+            @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Task t SET t.status = com.taskwell.model.TaskStatus.PENDING, t.updatedAt = :now, t.version = t.version + 1 WHERE t.id IN :ids AND t.status = com.taskwell.model.TaskStatus.OVERDUE AND t.dueDate >= :now")
+    int clearOverdue(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    // Due-date timers. The window query loads [id, owner id, due date] rows
+    // due before :to in (dueDate, id) order, strictly after the (afterDue,
+    // afterId) cursor; start it at (from, 0). The by-id read re-checks fired
+    // timers against the table.
+    @Query("SELECT t.id, t.user.id, t.dueDate FROM Task t WHERE t.status IN :statuses AND t.dueDate >= :afterDue AND (t.dueDate > :afterDue OR t.id > :afterId) AND t.dueDate < :to ORDER BY t.dueDate ASC, t.id ASC")
+    List<Object[]> findDueWindow(@Param("statuses") Collection<TaskStatus> statuses,
+            @Param("afterDue") LocalDateTime afterDue, @Param("afterId") Long afterId, @Param("to") LocalDateTime to,
+            Pageable pageable);
+
+    @Query("SELECT t.id, t.user.id, t.dueDate FROM Task t WHERE t.id IN :ids AND t.status IN :statuses")
+    List<Object[]> findDueByIds(@Param("ids") Collection<Long> ids,
+            @Param("statuses") Collection<TaskStatus> statuses);
+
+    // Cold-tier candidates as [id, owner id] rows, a page at a time: ARCHIVED
+    // tasks, and COMPLETE tasks completed before the cutoff, oldest first.
+    // TaskSearchRepository.archive re-checks both conditions when it moves them.
+    @Query("SELECT t.id, t.user.id FROM Task t WHERE t.status = com.taskwell.model.TaskStatus.ARCHIVED ORDER BY t.id ASC")
+    List<Object[]> findArchivedStatus(Pageable pageable);
 
-    List<Task> findByUser(User user);
+    @Query("SELECT t.id, t.user.id FROM Task t WHERE t.status = com.taskwell.model.TaskStatus.COMPLETE AND t.completedAt < :before ORDER BY t.completedAt ASC")
+    List<Object[]> findCompletedBefore(@Param("before") LocalDateTime before, Pageable pageable);
 
-    List<Task> findByStatus(TaskStatus status);
+    // Set-based delete and reassign of an explicit id list. Each runs in its
+    // own transaction when called outside one.
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Task t WHERE t.user.id = :userId AND t.id IN :ids")
+    int deleteByIdsForUser(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
 
-    List<Task> findByCategory(TaskCategory category);
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Task t SET t.user = :owner, t.updatedAt = :now, t.version = t.version + 1 WHERE t.user.id = :userId AND t.id IN :ids")
+    int reassignByIdsForUser(@Param("userId") Long userId, @Param("ids") Collection<Long> ids,
+            @Param("owner") User owner, @Param("now") LocalDateTime now);
 
-    List<Task> findByPriority(TaskPriority priority);
+    // Ownership-scoped single-task access. Each is one statement on the
+    // primary key with the owner as an extra condition, so an empty result or
+    // a zero row count means the task is missing or belongs to someone else.
+    // The writes bump the version and, given an expected version, also match
+    // on it, so a stale write changes nothing rather than losing an update.
+    Optional<Task> findByIdAndUserId(Long id, Long userId);
 
-    List<Task> findByDueDate(LocalDateTime dateTime);
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Task t SET t.title = :title, t.description = :description, t.dueDate = :dueDate, t.priority = :priority, t.status = :status, t.updatedAt = :now, t.version = t.version + 1 WHERE t.id = :id AND t.user.id = :userId AND (:version IS NULL OR t.version = :version)")
+    int updateForUser(@Param("id") Long id, @Param("userId") Long userId, @Param("title") String title,
+            @Param("description") String description, @Param("dueDate") LocalDateTime dueDate,
+            @Param("priority") TaskPriority priority, @Param("status") TaskStatus status,
+            @Param("version") Long version, @Param("now") LocalDateTime now);
 
-    @Query("SELECT t FROM Task t WHERE t.dueDate < CURRENT_TIMESTAMP AND t.status <> com.taskwell.model.TaskStatus.COMPLETE")
-    List<Task> findOverdueTasks();
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Task t SET t.status = com.taskwell.model.TaskStatus.COMPLETE, t.completedAt = :now, t.updatedAt = :now, t.version = t.version + 1 WHERE t.id = :id AND t.user.id = :userId AND (:version IS NULL OR t.version = :version)")
+    int completeForUser(@Param("id") Long id, @Param("userId") Long userId, @Param("version") Long version,
+            @Param("now") LocalDateTime now);
 
-    @Query("SELECT t FROM Task t WHERE t.dueDate > CURRENT_TIMESTAMP AND t.status <> com.taskwell.model.TaskStatus.COMPLETE")
-    List<Task> findUpcomingTasks();
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Task t SET t.status = com.taskwell.model.TaskStatus.PENDING, t.completedAt = NULL, t.updatedAt = :now, t.version = t.version + 1 WHERE t.id = :id AND t.user.id = :userId AND (:version IS NULL OR t.version = :version)")
+    int uncompleteForUser(@Param("id") Long id, @Param("userId") Long userId, @Param("version") Long version,
+            @Param("now") LocalDateTime now);
 
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Task t WHERE t.id = :id AND t.user.id = :userId")
+    int deleteByIdForUser(@Param("id") Long id, @Param("userId") Long userId);
 }
@@ -0,0 +1,83 @@
+package com.taskwell.repository;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.query.sqm.function.SqmFunctionRegistry;
+import org.hibernate.type.BasicTypeRegistry;
+import org.hibernate.type.StandardBasicTypes;
+import org.springframework.web.util.HtmlUtils;
+
+/**
+ * Registers the HQL/criteria functions behind task text search. Each takes
+ * (title, description, query):
+ * <ul>
+ * <li>{@code task_text_matches} - true when the task matches the query</li>
+ * <li>{@code task_text_rank} - relevance, higher is better</li>
+ * <li>{@code task_text_headline} - matching text with hits between the
+ * HIT_START and HIT_END control characters; {@link #toHtml} turns it into
+ * escaped HTML with {@code <mark>} tags</li>
+ * </ul>
+ * On PostgreSQL they map onto tsvector / websearch_to_tsquery, and the match
+ * expression is the one indexed by ix_task_search_text. Elsewhere (H2 in
+ * development and tests) they fall back to a case-insensitive substring match
+ * on the whole query, with title hits ranked above description-only hits.
+ */
+public class TaskSearchFunctions implements FunctionContributor {
+
+    private static final String PG_DOCUMENT = "to_tsvector('english', coalesce(?1, '') || ' ' || coalesce(?2, ''))";
+    private static final String PG_QUERY = "websearch_to_tsquery('english', ?3)";
+
+    // Hit delimiters in a headline. The database only marks where hits are;
+    // the markup is added after the text is escaped.
+    static final char HIT_START = '\u0002';
+    static final char HIT_END = '\u0003';
+
+    // '%' and '_' in the query are matched literally
+    private static final String LIKE_PATTERN = "('%' || replace(replace(replace(lower(?3), '\\', '\\\\'), '%', '\\%'), '_', '\\_') || '%')";
+
+    @Override
+    public void contributeFunctions(FunctionContributions contributions) {
+        SqmFunctionRegistry registry = contributions.getFunctionRegistry();
+        BasicTypeRegistry types = contributions.getTypeConfiguration().getBasicTypeRegistry();
+
+        if (contributions.getDialect() instanceof PostgreSQLDialect) {
+            registry.registerPattern("task_text_matches", "(" + PG_DOCUMENT + " @@ " + PG_QUERY + ")",
+                    types.resolve(StandardBasicTypes.BOOLEAN));
+            registry.registerPattern("task_text_rank",
+                    "cast(ts_rank(" + PG_DOCUMENT + ", " + PG_QUERY + ") as double precision)",
+                    types.resolve(StandardBasicTypes.DOUBLE));
+            registry.registerPattern("task_text_headline",
+                    "ts_headline('english', coalesce(?1, '') || ' ' || coalesce(?2, ''), " + PG_QUERY
+                            + ", 'StartSel=' || chr(2) || ', StopSel=' || chr(3)"
+                            + " || ', MaxFragments=2, MaxWords=20, MinWords=5')",
+                    types.resolve(StandardBasicTypes.STRING));
+            return;
+        }
+
+        registry.registerPattern("task_text_matches",
+                "(lower(coalesce(?1, '') || ' ' || coalesce(?2, '')) like " + LIKE_PATTERN + " escape '\\')",
+                types.resolve(StandardBasicTypes.BOOLEAN));
+        registry.registerPattern("task_text_rank",
+                "cast(case when lower(coalesce(?1, '')) like " + LIKE_PATTERN
+                        + " escape '\\' then 2 else 1 end as double precision)",
+                types.resolve(StandardBasicTypes.DOUBLE));
+        // The query is quoted the way Pattern.quote does it, so a "\E" inside
+        // it cannot end the quoting
+        registry.registerPattern("task_text_headline",
+                "regexp_replace(coalesce(?1, '') || ' ' || coalesce(?2, ''), "
+                        + "'\\Q' || replace(?3, '\\E', '\\E\\\\E\\Q') || '\\E', char(2) || '$0' || char(3), 'i')",
+                types.resolve(StandardBasicTypes.STRING));
+    }
+
+    // A task_text_headline result as HTML: the task text escaped, and each
+    // hit wrapped in <mark> tags
+    public static String toHtml(String headline) {
+        if (headline == null) {
+            return null;
+        }
+        return HtmlUtils.htmlEscape(headline)
+                .replace(String.valueOf(HIT_START), "<mark>")
+                .replace(String.valueOf(HIT_END), "</mark>");
+    }
+}
@@ -0,0 +1,38 @@
+package com.taskwell.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.taskwell.dto.TaskSearchHit;
+import com.taskwell.dto.TaskSort;
+import com.taskwell.model.Task;
+
+public interface TaskSearchRepository {
+    // One keyset page of rows matching the specification, ordered by the sort
+    // and then id. Reads size + 1 rows to tell whether more follow. With a text
+    // query each hit also carries its rank and highlighted excerpt; the
+    // specification is expected to filter on that text already.
+    Slice<TaskSearchHit> search(Specification<Task> spec, String text, TaskSort sort, int size);
+
+    // Up to limit ids of tasks matching the specification that are greater
+    // than afterId, ascending. Bulk operations walk their selection with it
+    // one keyset chunk at a time, so sparse ids cost no empty round trips.
+    List<Long> findIdsAfter(Specification<Task> spec, long afterId, int limit);
+
+    // Inserts the tasks for userId as one JDBC batch, bypassing the
+    // persistence context; ids come from the column default on task_seq.
+    // Likewise runs in its own transaction when called outside one, so an
+    // import commits batch by batch. Returns the generated ids in the order
+    // of tasks.
+    List<Long> insertAll(Long userId, List<Task> tasks, LocalDateTime now);
+
+    // Moves the given tasks that are still ARCHIVED, or still COMPLETE with
+    // completedAt before completedBefore, to task_archive: the rows are locked,
+    // copied and deleted in one transaction (its own when called outside one).
+    // Returns the number moved.
+    int archive(Collection<Long> ids, LocalDateTime completedBefore, LocalDateTime now);
+}
@@ -0,0 +1,179 @@
+package com.taskwell.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.taskwell.dto.TaskSearchHit;
+import com.taskwell.dto.TaskSort;
+import com.taskwell.model.ArchivedTask;
+import com.taskwell.model.Task;
+import com.taskwell.model.TaskStatus;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.transaction.Transactional;
+
+class TaskSearchRepositoryImpl implements TaskSearchRepository {
+
+    private static final String INSERT_TASK = "INSERT INTO task (title, description, user_id, status, due_date, "
+            + "created_at, updated_at, completed_at, priority, category) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Native SQL: the copy is an INSERT ... SELECT between two tables, and the
+    // lock must be taken before it
+    private static final String ARCHIVABLE = "id IN (:ids) AND (status = :archived "
+            + "OR (status = :complete AND completed_at < :completedBefore))";
+    private static final String COPY_TO_ARCHIVE = "INSERT INTO task_archive (id, title, description, user_id, "
+            + "status, due_date, created_at, updated_at, completed_at, priority, category, archived_at) "
+            + "SELECT id, title, description, user_id, status, due_date, created_at, updated_at, completed_at, "
+            + "priority, category, :now FROM task WHERE id IN (:ids)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<TaskSearchHit> search(Specification<Task> spec, String text, TaskSort sort, int size) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TaskSearchHit> query = cb.createQuery(TaskSearchHit.class);
+        Root<Task> task = query.from(Task.class);
+        Expression<Double> rank = text == null ? cb.nullLiteral(Double.class)
+                : TaskSpecifications.textFunction(task, cb, "task_text_rank", Double.class, text);
+        Expression<String> highlight = text == null ? cb.nullLiteral(String.class)
+                : TaskSpecifications.textFunction(task, cb, "task_text_headline", String.class, text);
+        query.select(cb.construct(TaskSearchHit.class, task.get("id"), task.get("title"), task.get("status"),
+                task.get("priority"), task.get("category"), task.get("dueDate"), task.get("completedAt"),
+                task.get("createdAt"), task.get("user").get("id"), rank, highlight));
+
+        Predicate where = spec == null ? null : spec.toPredicate(task, query, cb);
+        if (where != null) {
+            query.where(where);
+        }
+
+        Expression<?> key = TaskSpecifications.sortKey(task, cb, sort.getField(), text);
+        List<Order> order = sort.isAscending()
+                ? List.of(cb.asc(key), cb.asc(task.get("id")))
+                : List.of(cb.desc(key), cb.desc(task.get("id")));
+        query.orderBy(order);
+
+        List<TaskSearchHit> rows = entityManager.createQuery(query).setMaxResults(size + 1).getResultList();
+        if (text != null) {
+            rows = rows.stream()
+                    .map(hit -> new TaskSearchHit(hit.task(), hit.rank(), TaskSearchFunctions.toHtml(hit.highlight())))
+                    .toList();
+        }
+        boolean hasNext = rows.size() > size;
+        return new SliceImpl<>(hasNext ? rows.subList(0, size) : rows, PageRequest.of(0, size), hasNext);
+    }
+
+    @Override
+    public List<Long> findIdsAfter(Specification<Task> spec, long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Task> task = query.from(Task.class);
+        query.select(task.get("id"));
+
+        Predicate after = cb.greaterThan(task.<Long>get("id"), afterId);
+        Predicate where = spec == null ? null : spec.toPredicate(task, query, cb);
+        query.where(where == null ? after : cb.and(where, after));
+        query.orderBy(cb.asc(task.get("id")));
+
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    @Transactional
+    public List<Long> insertAll(Long userId, List<Task> tasks, LocalDateTime now) {
+        Timestamp stamp = Timestamp.valueOf(now);
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement insert = connection.prepareStatement(INSERT_TASK, new String[] { "id" })) {
+                for (Task task : tasks) {
+                    insert.setString(1, task.getTitle());
+                    insert.setString(2, task.getDescription());
+                    insert.setLong(3, userId);
+                    setOrdinal(insert, 4, task.getStatus());
+                    insert.setTimestamp(5, task.getDueDate() == null ? null : Timestamp.valueOf(task.getDueDate()));
+                    insert.setTimestamp(6, stamp);
+                    insert.setTimestamp(7, stamp);
+                    insert.setTimestamp(8,
+                            task.getCompletedAt() == null ? null : Timestamp.valueOf(task.getCompletedAt()));
+                    setOrdinal(insert, 9, task.getPriority());
+                    setOrdinal(insert, 10, task.getCategory());
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+                List<Long> ids = new ArrayList<>(tasks.size());
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    while (keys.next()) {
+                        ids.add(keys.getLong(1));
+                    }
+                }
+                return ids;
+            }
+        });
+    }
+
+    // Enums are stored as ordinals, the same as the entity mapping
+    private static void setOrdinal(PreparedStatement statement, int index, Enum<?> value) throws SQLException {
+        if (value == null) {
+            statement.setNull(index, Types.SMALLINT);
+        } else {
+            statement.setShort(index, (short) value.ordinal());
+        }
+    }
+
+    @Override
+    @Transactional
+    public int archive(Collection<Long> ids, LocalDateTime completedBefore, LocalDateTime now) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        entityManager.flush();
+        // Locking first means a task completed, reopened or edited meanwhile
+        // is either skipped here or waits until its row is gone
+        List<?> locked = entityManager.createNativeQuery("SELECT id FROM task WHERE " + ARCHIVABLE + " FOR UPDATE")
+                .setParameter("ids", ids)
+                .setParameter("archived", TaskStatus.ARCHIVED.ordinal())
+                .setParameter("complete", TaskStatus.COMPLETE.ordinal())
+                .setParameter("completedBefore", completedBefore)
+                .getResultList();
+        if (locked.isEmpty()) {
+            return 0;
+        }
+        List<Long> lockedIds = locked.stream().map(id -> ((Number) id).longValue()).toList();
+        // Naming the tables written keeps Hibernate from evicting every
+        // second-level cache region, users included, after native writes
+        entityManager.createNativeQuery(COPY_TO_ARCHIVE)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(ArchivedTask.class)
+                .setParameter("now", now)
+                .setParameter("ids", lockedIds)
+                .executeUpdate();
+        int moved = entityManager.createNativeQuery("DELETE FROM task WHERE id IN (:ids)")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(Task.class)
+                .setParameter("ids", lockedIds)
+                .executeUpdate();
+        entityManager.clear();
+        return moved;
+    }
+}
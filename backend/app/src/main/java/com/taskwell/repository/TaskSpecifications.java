@@ -0,0 +1,101 @@
+package com.taskwell.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.taskwell.dto.TaskSearchCursor;
+import com.taskwell.dto.TaskSort;
+import com.taskwell.model.Task;
+import com.taskwell.model.TaskCategory;
+import com.taskwell.model.TaskPriority;
+import com.taskwell.model.TaskStatus;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * Building blocks for task search. Each filter returns null when its argument
+ * is null, which Specification composition treats as "no restriction", so a
+ * search only carries the predicates the caller actually asked for.
+ */
+public final class TaskSpecifications {
+
+    private TaskSpecifications() {
+    }
+
+    public static Specification<Task> ownedBy(Long userId) {
+        return (root, query, cb) -> cb.equal(root.get("user").get("id"), userId);
+    }
+
+    public static Specification<Task> hasStatus(TaskStatus status) {
+        return status == null ? null : (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Task> hasPriority(TaskPriority priority) {
+        return priority == null ? null : (root, query, cb) -> cb.equal(root.get("priority"), priority);
+    }
+
+    public static Specification<Task> hasCategory(TaskCategory category) {
+        return category == null ? null : (root, query, cb) -> cb.equal(root.get("category"), category);
+    }
+
+    public static Specification<Task> dueOnOrAfter(LocalDateTime from) {
+        return from == null ? null
+                : (root, query, cb) -> cb.greaterThanOrEqualTo(root.<LocalDateTime>get("dueDate"), from);
+    }
+
+    public static Specification<Task> dueOnOrBefore(LocalDateTime to) {
+        return to == null ? null
+                : (root, query, cb) -> cb.lessThanOrEqualTo(root.<LocalDateTime>get("dueDate"), to);
+    }
+
+    // Full-text match on title and description; see TaskSearchFunctions
+    public static Specification<Task> matchesText(String text) {
+        return text == null ? null : (root, query, cb) -> cb.isTrue(textFunction(root, cb, "task_text_matches",
+                Boolean.class, text));
+    }
+
+    // Rows strictly after the cursor in (sort key, id) order. As with the plain
+    // listings, the redundant >= / <= bound gives the planner a range to seek on.
+    // text is the search's text query, needed when sorting by relevance.
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public static Specification<Task> after(TaskSearchCursor cursor, String text) {
+        if (cursor == null) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            TaskSort sort = cursor.getSort();
+            Expression key = sortKey(root, cb, sort.getField(), text);
+            Comparable value = cursor.getKey();
+            Path<Long> id = root.get("id");
+            if (sort.isAscending()) {
+                return cb.and(cb.greaterThanOrEqualTo(key, value),
+                        cb.or(cb.greaterThan(key, value), cb.greaterThan(id, cursor.getId())));
+            }
+            return cb.and(cb.lessThanOrEqualTo(key, value),
+                    cb.or(cb.lessThan(key, value), cb.lessThan(id, cursor.getId())));
+        };
+    }
+
+    // The expression a search is ordered by; must agree with TaskSort.Field#keyOf
+    static Expression<?> sortKey(Root<Task> root, CriteriaBuilder cb, TaskSort.Field field, String text) {
+        if (field == TaskSort.Field.DUE_DATE) {
+            return cb.coalesce(root.<LocalDateTime>get("dueDate"), TaskSort.NO_DUE_DATE);
+        }
+        if (field == TaskSort.Field.RELEVANCE) {
+            if (text == null) {
+                throw new IllegalArgumentException("Sorting by relevance requires a text query");
+            }
+            return textFunction(root, cb, "task_text_rank", Double.class, text);
+        }
+        return root.get(field.getProperty());
+    }
+
+    static <T> Expression<T> textFunction(Root<Task> root, CriteriaBuilder cb, String name, Class<T> type,
+            String text) {
+        return cb.function(name, type, root.get("title"), root.get("description"), cb.literal(text));
+    }
+}
@@ -0,0 +1,46 @@
+package com.taskwell.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.taskwell.model.TaskStat;
+
+import jakarta.transaction.Transactional;
+
+public interface TaskStatRepository extends JpaRepository<TaskStat, TaskStat.Key> {
+
+    // All counters of one user: a primary key range
+    List<TaskStat> findByUserId(Long userId);
+
+    // Delta update of a user's counters, joining the caller's transaction so
+    // it commits or rolls back with the task write. Users whose counters are
+    // not built have no rows and are left alone.
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE TaskStat s SET s.taskCount = s.taskCount + :delta WHERE s.userId = :userId AND s.statKey IN :keys")
+    int addToCounts(@Param("userId") Long userId, @Param("keys") Collection<String> keys,
+            @Param("delta") long delta);
+
+    // One task leaving the from keys for the to keys, as a single statement
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE TaskStat s SET s.taskCount = s.taskCount + CASE WHEN s.statKey IN :to THEN 1 ELSE -1 END WHERE s.userId = :userId AND (s.statKey IN :from OR s.statKey IN :to)")
+    int moveCount(@Param("userId") Long userId, @Param("from") Collection<String> from,
+            @Param("to") Collection<String> to);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM TaskStat s WHERE s.userId = :userId")
+    int deleteByUser(@Param("userId") Long userId);
+
+    // Users with built counters, in id order after a cursor; the reconcile
+    // job walks them a page at a time
+    @Query("SELECT s.userId FROM TaskStat s WHERE s.statKey = 'total' AND s.userId > :afterId ORDER BY s.userId")
+    List<Long> findUserIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+}
@@ -0,0 +1,12 @@
+package com.taskwell.repository;
+
+import java.util.Optional;
+
+import com.taskwell.model.User;
+
+public interface UserLookupRepository {
+    // Loads by the username natural id, so repeat lookups (every authenticated
+    // request resolves its principal this way) are answered from the
+    // second-level cache instead of a query
+    Optional<User> findByUsername(String username);
+}
@@ -0,0 +1,30 @@
+package com.taskwell.repository;
+
+import java.util.Optional;
+
+import org.hibernate.Session;
+
+import com.taskwell.datasource.ReadOnlyTransactional;
+import com.taskwell.model.User;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+class UserLookupRepositoryImpl implements UserLookupRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Fragment methods get no transaction from Spring Data; without one the
+    // shared EntityManager would hand back a session that is already closed
+    @Override
+    @ReadOnlyTransactional
+    public Optional<User> findByUsername(String username) {
+        if (username == null) {
+            return Optional.empty();
+        }
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(username);
+    }
+}
@@ -3,12 +3,22 @@ package com.taskwell.repository;
 import com.taskwell.model.User;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import java.util.Optional;
 
-public interface UserRepository extends JpaRepository<User, Long> {
-    // Custom query methods
-    Optional<User> findByUsername(String username);
+import org.hibernate.jpa.HibernateHints;
+
+import jakarta.persistence.QueryHint;
 
+// findByUsername comes from UserLookupRepository (natural id lookup)
+public interface UserRepository extends JpaRepository<User, Long>, UserLookupRepository {
+    // Custom query methods
+    // Only the username can be the natural id, so email lookups go through
+    // the query cache; any write to users invalidates the cached results
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "users-by-email")
+    })
     Optional<User> findByEmail(String email);
 
     Optional<User> findByVerificationToken(String token);
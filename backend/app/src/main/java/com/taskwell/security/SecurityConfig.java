@@ -25,8 +25,7 @@ import java.io.IOException;
 import jakarta.servlet.ServletException;
 
 import com.taskwell.service.CustomUserDetailsService;
-
-import com.taskwell.repository.UserRepository;
+import com.taskwell.service.UserPrincipalCache;
 
 import org.springframework.http.HttpMethod;
 
@@ -50,6 +49,8 @@ public class SecurityConfig {
                         .requestMatchers("/swagger-ui.html", "/swagger-ui/**", "/v3/api-docs/**").permitAll()
                         .requestMatchers("/api/users/me").authenticated()
                         .requestMatchers("/api/tasks/**").authenticated()
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .anyRequest().authenticated())
                 .formLogin(form -> form
                         .successHandler(jsonAuthenticationSuccessHandler())
@@ -89,8 +90,8 @@ public class SecurityConfig {
     }
 
     @Bean
-    public UserDetailsService userDetailsService(UserRepository userRepository) {
-        return new CustomUserDetailsService(userRepository);
+    public UserDetailsService userDetailsService(UserPrincipalCache principalCache) {
+        return new CustomUserDetailsService(principalCache);
     }
 
     @Bean
@@ -99,6 +100,7 @@ public class SecurityConfig {
         configuration.setAllowedOrigins(java.util.List.of("http://localhost:5173"));
         configuration.setAllowedMethods(java.util.List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(java.util.List.of("*"));
+        configuration.setExposedHeaders(java.util.List.of("X-Next-Cursor"));
         configuration.setAllowCredentials(true);
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
@@ -4,7 +4,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.taskwell.model.User;
-import com.taskwell.repository.UserRepository;
 import com.taskwell.security.CustomUserDetails;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -12,24 +11,28 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
 public class CustomUserDetailsService implements UserDetailsService {
-    private final UserRepository userRepository;
+    private final UserPrincipalCache principalCache;
 
     private static final Logger logger = LoggerFactory.getLogger(CustomUserDetailsService.class);
 
     @Autowired
-    public CustomUserDetailsService(UserRepository userRepository) {
-        this.userRepository = userRepository;
+    public CustomUserDetailsService(UserPrincipalCache principalCache) {
+        this.principalCache = principalCache;
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        logger.info("Attempting to load user by username: {}", username);
-        User user = userRepository.findByUsername(username)
+        // Runs on every sign-in, so only failures are logged above DEBUG
+        logger.debug("Attempting to load user by username: {}", username);
+        // UserPrincipalCache reads from the primary, so a lock, role or
+        // password change made a moment ago is never read back from a lagging
+        // replica
+        User user = principalCache.find(username)
                 .orElseThrow(() -> {
                     logger.warn("User not found: {}", username);
                     return new UsernameNotFoundException("User not found: " + username);
                 });
-        logger.info("User found: {} (enabled: {}, locked: {}, verified: {})", user.getUsername(), !user.isLocked(),
+        logger.debug("User found: {} (enabled: {}, locked: {}, verified: {})", user.getUsername(), !user.isLocked(),
                 user.isLocked(), user.isVerified());
         return new CustomUserDetails(user);
     }
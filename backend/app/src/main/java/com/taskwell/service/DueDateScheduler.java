@@ -0,0 +1,282 @@
+package com.taskwell.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.taskwell.repository.TaskRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Fires reminder and due events for unfinished tasks at their exact time from
+ * an in-memory TimingWheel with one-second ticks. TaskService schedules and
+ * cancels timers as tasks are created, edited, completed and deleted, and
+ * TaskImportService schedules the unfinished tasks it inserts; both are O(1)
+ * and applied after the transaction commits.
+ *
+ * Only tasks due within the horizon (taskwell.due-timers.horizon) are held.
+ * Startup loads that window with a range query and a periodic refill extends
+ * it, so the wheel never holds more than one horizon of timers, and at most
+ * taskwell.due-timers.max of them (roughly 150 bytes each). Each task has one
+ * timer: a REMINDER one reminder-lead before the due date that is replaced by
+ * the DUE one when it fires.
+ *
+ * Fired timers are checked against the table before acting, so a stale timer
+ * (a write on another instance, a lost race with a refill) does nothing.
+ * Timers dropped over the cap and tasks written on other instances are caught
+ * by the next refill or, for the DUE transition, by OverdueSweeper.
+ */
+@Component
+public class DueDateScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(DueDateScheduler.class);
+    // Rows per page of the rehydration query, and ids per check of fired timers
+    public static final int LOAD_PAGE_SIZE = 1000;
+    // 60 one-second slots on 3 levels: 60 hours of reach
+    private static final int WHEEL_SLOTS = 60;
+    private static final int WHEEL_LEVELS = 3;
+
+    private final TaskRepository taskRepository;
+    private final TaskChangeStamps changeStamps;
+    private final TaskStats taskStats;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration reminderLead;
+    private final Duration horizon;
+    private final int maxTimers;
+
+    // Guarded by this
+    private final TimingWheel<DueTimer> wheel;
+    private final Map<Long, TimingWheel.Timer<DueTimer>> timers = new HashMap<>();
+    // Tasks due at or after this are left to the next refill
+    private LocalDateTime loadedUntil;
+    private long dropped;
+
+    private record DueTimer(Long taskId, LocalDateTime dueDate, TaskDueEvent.Kind kind) {
+    }
+
+    @Autowired
+    public DueDateScheduler(TaskRepository taskRepository, TaskChangeStamps changeStamps, TaskStats taskStats,
+            ApplicationEventPublisher eventPublisher, MeterRegistry registry,
+            @Value("${taskwell.due-timers.reminder-lead:15m}") Duration reminderLead,
+            @Value("${taskwell.due-timers.horizon:24h}") Duration horizon,
+            @Value("${taskwell.due-timers.max:1000000}") int maxTimers) {
+        this(taskRepository, changeStamps, taskStats, eventPublisher, registry, reminderLead, horizon, maxTimers,
+                LocalDateTime.now());
+    }
+
+    DueDateScheduler(TaskRepository taskRepository, TaskChangeStamps changeStamps, TaskStats taskStats,
+            ApplicationEventPublisher eventPublisher, MeterRegistry registry, Duration reminderLead,
+            Duration horizon, int maxTimers, LocalDateTime start) {
+        this.taskRepository = taskRepository;
+        this.changeStamps = changeStamps;
+        this.taskStats = taskStats;
+        this.eventPublisher = eventPublisher;
+        this.reminderLead = reminderLead;
+        this.horizon = horizon;
+        this.maxTimers = maxTimers;
+        this.wheel = new TimingWheel<>(WHEEL_SLOTS, WHEEL_LEVELS, toTick(start));
+        // Leave room for the wheel falling behind the clock between ticks
+        if (horizon.toSeconds() > wheel.getReach() / 2) {
+            throw new IllegalArgumentException("taskwell.due-timers.horizon must be at most "
+                    + Duration.ofSeconds(wheel.getReach() / 2));
+        }
+        this.loadedUntil = start;
+        Gauge.builder("taskwell.due-timers.pending", this, DueDateScheduler::size)
+                .description("Reminder and due timers held in memory").register(registry);
+    }
+
+    public synchronized int size() {
+        return timers.size();
+    }
+
+    // Starts or moves the timer of an unfinished task
+    public void schedule(Long taskId, LocalDateTime dueDate) {
+        TaskChangeStamps.afterCommit(() -> {
+            synchronized (this) {
+                put(taskId, dueDate);
+            }
+        });
+    }
+
+    // Stops the timer of a task that was finished or deleted
+    public void cancel(Long taskId) {
+        TaskChangeStamps.afterCommit(() -> {
+            synchronized (this) {
+                remove(taskId);
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rehydrate() {
+        refill(LocalDateTime.now());
+    }
+
+    @Scheduled(fixedDelayString = "${taskwell.due-timers.refill-interval:PT10M}",
+            initialDelayString = "${taskwell.due-timers.refill-interval:PT10M}")
+    public void refill() {
+        refill(LocalDateTime.now());
+    }
+
+    @Scheduled(fixedRate = 1000)
+    public void tick() {
+        tick(LocalDateTime.now());
+    }
+
+    // Loads the unfinished tasks due between the current watermark and
+    // now + horizon; returns the number of timers added
+    int refill(LocalDateTime now) {
+        LocalDateTime from;
+        LocalDateTime to = now.plus(horizon);
+        synchronized (this) {
+            from = loadedUntil;
+            if (!to.isAfter(from)) {
+                return 0;
+            }
+            // Raised first so schedule() covers the window while it loads;
+            // a timer it sets is newer than the rows read here and is kept
+            loadedUntil = to;
+        }
+
+        int added = 0;
+        LocalDateTime afterDue = from;
+        Long afterId = 0L;
+        while (true) {
+            List<Object[]> rows = taskRepository.findDueWindow(OverdueSweeper.UNFINISHED, afterDue, afterId, to,
+                    PageRequest.of(0, LOAD_PAGE_SIZE));
+            synchronized (this) {
+                for (Object[] row : rows) {
+                    if (!timers.containsKey((Long) row[0]) && put((Long) row[0], (LocalDateTime) row[2])) {
+                        added++;
+                    }
+                }
+            }
+            if (rows.size() < LOAD_PAGE_SIZE) {
+                break;
+            }
+            Object[] last = rows.get(rows.size() - 1);
+            afterDue = (LocalDateTime) last[2];
+            afterId = (Long) last[0];
+        }
+
+        synchronized (this) {
+            if (dropped > 0) {
+                logger.warn("Due timers at the limit of {}; {} left to the overdue sweep", maxTimers, dropped);
+                dropped = 0;
+            }
+        }
+        logger.info("Loaded due timers until {}: added={}, pending={}", to, added, size());
+        return added;
+    }
+
+    // Advances the wheel to now and acts on the timers that fired
+    void tick(LocalDateTime now) {
+        List<DueTimer> fired = new ArrayList<>();
+        synchronized (this) {
+            wheel.advanceTo(toTick(now), fired);
+            for (DueTimer timer : fired) {
+                timers.remove(timer.taskId());
+                if (timer.kind() == TaskDueEvent.Kind.REMINDER) {
+                    DueTimer due = new DueTimer(timer.taskId(), timer.dueDate(), TaskDueEvent.Kind.DUE);
+                    timers.put(timer.taskId(), wheel.add(deadline(timer.dueDate()), due));
+                }
+            }
+        }
+        for (int i = 0; i < fired.size(); i += LOAD_PAGE_SIZE) {
+            fire(fired.subList(i, Math.min(i + LOAD_PAGE_SIZE, fired.size())), now);
+        }
+    }
+
+    private void fire(List<DueTimer> fired, LocalDateTime now) {
+        List<Long> ids = new ArrayList<>(fired.size());
+        for (DueTimer timer : fired) {
+            ids.add(timer.taskId());
+        }
+        Map<Long, Object[]> current = new HashMap<>();
+        for (Object[] row : taskRepository.findDueByIds(ids, OverdueSweeper.UNFINISHED)) {
+            current.put((Long) row[0], row);
+        }
+
+        List<TaskDueEvent> events = new ArrayList<>();
+        List<Long> overdue = new ArrayList<>();
+        Set<Long> owners = new HashSet<>();
+        for (DueTimer timer : fired) {
+            Object[] row = current.get(timer.taskId());
+            // Finished, deleted or given a new due date since the timer was set.
+            // Compared to the second, as the column may be less precise.
+            if (row == null || toTick(timer.dueDate()) != toTick((LocalDateTime) row[2])) {
+                continue;
+            }
+            if (timer.kind() == TaskDueEvent.Kind.DUE) {
+                overdue.add(timer.taskId());
+                owners.add((Long) row[1]);
+            }
+            events.add(new TaskDueEvent(timer.taskId(), (Long) row[1], timer.dueDate(), timer.kind()));
+        }
+        if (!overdue.isEmpty()) {
+            int marked = taskStats.tracking(overdue,
+                    () -> taskRepository.markOverdue(overdue, OverdueSweeper.UNFINISHED, now));
+            owners.forEach(changeStamps::touch);
+            logger.info("Due timers marked {} task(s) overdue", marked);
+        }
+        for (TaskDueEvent event : events) {
+            logger.debug("Task due event: {}", event);
+            eventPublisher.publishEvent(event);
+        }
+    }
+
+    // Returns false if the timer was not set: the task is due beyond the
+    // loaded window, or the wheel is full
+    private boolean put(Long taskId, LocalDateTime dueDate) {
+        remove(taskId);
+        if (dueDate == null || !dueDate.isBefore(loadedUntil)) {
+            return false;
+        }
+        if (timers.size() >= maxTimers) {
+            dropped++;
+            return false;
+        }
+        // No reminder once the task is already within the lead of its due date
+        long remindAt = deadline(dueDate.minus(reminderLead));
+        TimingWheel.Timer<DueTimer> timer = remindAt > wheel.getCurrentTick()
+                ? wheel.add(remindAt, new DueTimer(taskId, dueDate, TaskDueEvent.Kind.REMINDER))
+                : wheel.add(deadline(dueDate), new DueTimer(taskId, dueDate, TaskDueEvent.Kind.DUE));
+        timers.put(taskId, timer);
+        return true;
+    }
+
+    private void remove(Long taskId) {
+        TimingWheel.Timer<DueTimer> timer = timers.remove(taskId);
+        if (timer != null) {
+            wheel.cancel(timer);
+        }
+    }
+
+    private static long toTick(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toEpochSecond();
+    }
+
+    // First tick strictly after time, so the due date has passed when it fires
+    private static long deadline(LocalDateTime time) {
+        return toTick(time) + 1;
+    }
+}
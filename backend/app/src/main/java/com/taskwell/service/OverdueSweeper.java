@@ -0,0 +1,146 @@
+package com.taskwell.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.taskwell.model.TaskStatus;
+import com.taskwell.repository.TaskRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Keeps TaskStatus.OVERDUE in step with due dates, so overdue listings and
+ * counts are status lookups instead of time comparisons. Each run moves
+ * unfinished (PENDING or IN_PROGRESS) tasks whose due date has passed to
+ * OVERDUE, and OVERDUE tasks whose due date was moved into the future back to
+ * PENDING, SWEEP_CHUNK_SIZE rows per statement and transaction.
+ * DueDateScheduler makes the forward transition on time for the tasks it
+ * holds timers for, so this is the safety net and runs far less often.
+ *
+ * Every transition is guarded by the same conditions as the read that found
+ * it, so runs on several instances at once only repeat each other's work.
+ *
+ * Metrics: taskwell.overdue.sweep.rows (counter, tagged transition=marked or
+ * cleared), taskwell.overdue.sweep.lag (seconds the most overdue task marked
+ * by the last run had been past due, roughly the sweep interval when keeping
+ * up) and taskwell.overdue.sweep.duration.
+ */
+@Component
+public class OverdueSweeper {
+
+    private static final Logger logger = LoggerFactory.getLogger(OverdueSweeper.class);
+    // Rows moved per UPDATE, each in its own short transaction
+    public static final int SWEEP_CHUNK_SIZE = 1000;
+    // Statuses that become OVERDUE once their due date passes
+    static final Set<TaskStatus> UNFINISHED = EnumSet.of(TaskStatus.PENDING, TaskStatus.IN_PROGRESS);
+
+    private final TaskRepository taskRepository;
+    private final TaskChangeStamps changeStamps;
+    private final TaskStats taskStats;
+    private final Counter marked;
+    private final Counter cleared;
+    private final Timer duration;
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    public OverdueSweeper(TaskRepository taskRepository, TaskChangeStamps changeStamps, TaskStats taskStats,
+            MeterRegistry registry) {
+        this.taskRepository = taskRepository;
+        this.changeStamps = changeStamps;
+        this.taskStats = taskStats;
+        this.marked = Counter.builder("taskwell.overdue.sweep.rows").tag("transition", "marked")
+                .description("Tasks moved to OVERDUE").register(registry);
+        this.cleared = Counter.builder("taskwell.overdue.sweep.rows").tag("transition", "cleared")
+                .description("OVERDUE tasks moved back to PENDING").register(registry);
+        this.duration = Timer.builder("taskwell.overdue.sweep.duration")
+                .description("Time taken by one overdue sweep").register(registry);
+        Gauge.builder("taskwell.overdue.sweep.lag", lagSeconds, AtomicLong::get).baseUnit("seconds")
+                .description("How long the most overdue task marked by the last sweep had been past due")
+                .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${taskwell.overdue.sweep.interval:PT10M}",
+            initialDelayString = "${taskwell.overdue.sweep.initial-delay:PT10S}")
+    public void sweep() {
+        duration.record(() -> {
+            sweep(LocalDateTime.now());
+        });
+    }
+
+    // One run against a fixed "now"; returns the number of tasks moved
+    int sweep(LocalDateTime now) {
+        long maxLag = 0;
+        int markedCount = 0;
+        while (true) {
+            List<Object[]> rows = taskRepository.findDueBefore(UNFINISHED, now, PageRequest.of(0, SWEEP_CHUNK_SIZE));
+            if (rows.isEmpty()) {
+                break;
+            }
+            List<Long> ids = ids(rows);
+            int moved = taskStats.tracking(ids, () -> taskRepository.markOverdue(ids, UNFINISHED, now));
+            markedCount += moved;
+            marked.increment(moved);
+            touchOwners(rows);
+            // Oldest due first, so the first row is the one that waited longest
+            maxLag = Math.max(maxLag, Duration.between((LocalDateTime) rows.get(0)[2], now).toSeconds());
+            // Nothing moved means the rows changed under us; leave them to the next run
+            if (moved == 0 || rows.size() < SWEEP_CHUNK_SIZE) {
+                break;
+            }
+        }
+
+        int clearedCount = 0;
+        while (true) {
+            List<Object[]> rows = taskRepository.findOverdueDueFrom(now, PageRequest.of(0, SWEEP_CHUNK_SIZE));
+            if (rows.isEmpty()) {
+                break;
+            }
+            List<Long> ids = ids(rows);
+            int moved = taskStats.tracking(ids, () -> taskRepository.clearOverdue(ids, now));
+            clearedCount += moved;
+            cleared.increment(moved);
+            touchOwners(rows);
+            if (moved == 0 || rows.size() < SWEEP_CHUNK_SIZE) {
+                break;
+            }
+        }
+
+        lagSeconds.set(maxLag);
+        if (markedCount > 0 || clearedCount > 0) {
+            logger.info("Overdue sweep: marked={}, cleared={}, lagSeconds={}", markedCount, clearedCount, maxLag);
+        }
+        return markedCount + clearedCount;
+    }
+
+    private static List<Long> ids(List<Object[]> rows) {
+        List<Long> ids = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            ids.add((Long) row[0]);
+        }
+        return ids;
+    }
+
+    // Listings cached under the owners' change stamps are now stale
+    private void touchOwners(List<Object[]> rows) {
+        Set<Long> owners = new HashSet<>();
+        for (Object[] row : rows) {
+            if (row[1] != null && owners.add((Long) row[1])) {
+                changeStamps.touch((Long) row[1]);
+            }
+        }
+    }
+}
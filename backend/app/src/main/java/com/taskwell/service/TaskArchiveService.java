@@ -0,0 +1,204 @@
+package com.taskwell.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.taskwell.datasource.ReadOnlyTransactional;
+import com.taskwell.dto.CursorPage;
+import com.taskwell.dto.TaskCursor;
+import com.taskwell.dto.TaskView;
+import com.taskwell.model.ArchivedTask;
+import com.taskwell.repository.ArchivedTaskRepository;
+import com.taskwell.repository.TaskRepository;
+import com.taskwell.security.CustomUserDetails;
+import com.taskwell.utils.SecurityUtils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Cold tier for tasks nobody works on any more. The archive job moves ARCHIVED
+ * tasks, and COMPLETE tasks completed longer than completed-after ago, from
+ * task to task_archive, ARCHIVE_CHUNK_SIZE rows per transaction, so the hot
+ * table and its indexes only hold live work. Archived tasks drop out of every
+ * task listing, search and count and are read through the archive endpoints.
+ *
+ * Archive rows older than the retention period are purged PURGE_BATCH_SIZE
+ * rows per short transaction, so a large backlog never holds locks for long.
+ *
+ * Metrics: taskwell.archive.rows (counter, tagged action=archived or purged).
+ */
+@Service
+public class TaskArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskArchiveService.class);
+    // Tasks moved per transaction
+    public static final int ARCHIVE_CHUNK_SIZE = 500;
+    // Archive rows deleted per transaction by the retention purge
+    public static final int PURGE_BATCH_SIZE = 200;
+    // getProductivity counts completions from the hot table only, over at most
+    // MAX_PRODUCTIVITY_DAYS widened to the start of a week; completed-after
+    // must keep every task in that window out of the archive
+    static final Duration MIN_COMPLETED_AFTER = Duration.ofDays(TaskService.MAX_PRODUCTIVITY_DAYS + 7);
+
+    private final TaskRepository taskRepository;
+    private final ArchivedTaskRepository archivedTaskRepository;
+    private final TaskTitleIndex titleIndex;
+    private final TaskChangeStamps changeStamps;
+    private final TaskStats taskStats;
+    private final Duration completedAfter;
+    private final Duration retention;
+    private final Counter archived;
+    private final Counter purged;
+
+    public TaskArchiveService(TaskRepository taskRepository, ArchivedTaskRepository archivedTaskRepository,
+            TaskTitleIndex titleIndex, TaskChangeStamps changeStamps, TaskStats taskStats, MeterRegistry registry,
+            @Value("${taskwell.archive.completed-after:400d}") Duration completedAfter,
+            @Value("${taskwell.archive.retention:3650d}") Duration retention) {
+        this.taskRepository = taskRepository;
+        this.archivedTaskRepository = archivedTaskRepository;
+        this.titleIndex = titleIndex;
+        this.changeStamps = changeStamps;
+        this.taskStats = taskStats;
+        if (completedAfter.compareTo(MIN_COMPLETED_AFTER) < 0) {
+            throw new IllegalArgumentException("taskwell.archive.completed-after must be at least "
+                    + MIN_COMPLETED_AFTER);
+        }
+        this.completedAfter = completedAfter;
+        this.retention = retention;
+        this.archived = Counter.builder("taskwell.archive.rows").tag("action", "archived")
+                .description("Tasks moved to the archive").register(registry);
+        this.purged = Counter.builder("taskwell.archive.rows").tag("action", "purged")
+                .description("Archived tasks deleted after the retention period").register(registry);
+    }
+
+    // One keyset page of the current user's archived tasks, newest first; the
+    // cursor format is the same as the live listings'
+    @ReadOnlyTransactional
+    public CursorPage<TaskView> findArchivedTasks(String cursor, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        CustomUserDetails currentUser = SecurityUtils.getCurrentUser();
+        TaskCursor position = TaskCursor.decode(cursor);
+        logger.info("Listing archived tasks page for user: {}, size={}", currentUser.getId(), size);
+        Slice<TaskView> slice = archivedTaskRepository.findPageByUserId(currentUser.getId(),
+                position.getCreatedAt(), position.getId(), PageRequest.of(0, size));
+        List<TaskView> items = slice.getContent();
+        String next = null;
+        if (slice.hasNext() && !items.isEmpty()) {
+            next = TaskCursor.of(items.get(items.size() - 1)).encode();
+        }
+        return new CursorPage<>(items, next);
+    }
+
+    // One of the current user's archived tasks; 404 if it is missing or
+    // belongs to someone else
+    @ReadOnlyTransactional
+    public ArchivedTask findArchivedTask(Long id) {
+        CustomUserDetails currentUser = SecurityUtils.getCurrentUser();
+        logger.info("Finding archived task {} for user: {}", id, currentUser.getId());
+        return archivedTaskRepository.findByIdAndUserId(id, currentUser.getId())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Archived task not found"));
+    }
+
+    @Scheduled(fixedDelayString = "${taskwell.archive.interval:PT6H}",
+            initialDelayString = "${taskwell.archive.initial-delay:PT5M}")
+    public void archiveAndPurge() {
+        LocalDateTime now = LocalDateTime.now();
+        archive(now);
+        purge(now);
+    }
+
+    // One archive run against a fixed "now"; returns the number of tasks moved
+    int archive(LocalDateTime now) {
+        LocalDateTime completedBefore = now.minus(completedAfter);
+        int moved = 0;
+        while (true) {
+            List<Object[]> rows = taskRepository.findArchivedStatus(PageRequest.of(0, ARCHIVE_CHUNK_SIZE));
+            int chunk = moveChunk(rows, completedBefore, now);
+            moved += chunk;
+            // Nothing moved means the rows changed under us; leave them to the next run
+            if (chunk == 0 || rows.size() < ARCHIVE_CHUNK_SIZE) {
+                break;
+            }
+        }
+        while (true) {
+            List<Object[]> rows = taskRepository.findCompletedBefore(completedBefore,
+                    PageRequest.of(0, ARCHIVE_CHUNK_SIZE));
+            int chunk = moveChunk(rows, completedBefore, now);
+            moved += chunk;
+            if (chunk == 0 || rows.size() < ARCHIVE_CHUNK_SIZE) {
+                break;
+            }
+        }
+        if (moved > 0) {
+            logger.info("Archived {} tasks", moved);
+        }
+        return moved;
+    }
+
+    private int moveChunk(List<Object[]> rows, LocalDateTime completedBefore, LocalDateTime now) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            ids.add((Long) row[0]);
+        }
+        int moved = taskStats.tracking(ids, () -> taskRepository.archive(ids, completedBefore, now));
+        archived.increment(moved);
+        if (moved > 0) {
+            invalidateOwners(rows);
+        }
+        return moved;
+    }
+
+    // Title suggestions and cached listings of the owners both still include
+    // the moved tasks
+    private void invalidateOwners(List<Object[]> rows) {
+        Set<Long> owners = new HashSet<>();
+        for (Object[] row : rows) {
+            if (row[1] != null && owners.add((Long) row[1])) {
+                titleIndex.invalidate((Long) row[1]);
+                changeStamps.touch((Long) row[1]);
+            }
+        }
+    }
+
+    // Deletes archive rows past the retention period; returns the number removed
+    int purge(LocalDateTime now) {
+        LocalDateTime before = now.minus(retention);
+        int removed = 0;
+        while (true) {
+            List<Long> ids = archivedTaskRepository.findIdsArchivedBefore(before, PageRequest.of(0, PURGE_BATCH_SIZE));
+            if (ids.isEmpty()) {
+                break;
+            }
+            int deleted = archivedTaskRepository.deleteByIds(ids);
+            removed += deleted;
+            purged.increment(deleted);
+            if (deleted == 0 || ids.size() < PURGE_BATCH_SIZE) {
+                break;
+            }
+        }
+        if (removed > 0) {
+            logger.info("Purged {} archived tasks older than {}", removed, before);
+        }
+        return removed;
+    }
+}
@@ -0,0 +1,73 @@
+package com.taskwell.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Monotonic change stamps for task data, one per user plus one across all
+ * users, used as weak ETags so unchanged task reads can be answered with 304
+ * without querying the task table. TaskService touches the owner's stamp on
+ * every mutation.
+ *
+ * Stamps are drawn from one counter seeded from the boot time, so a stamp
+ * never repeats across users or restarts. They live in memory, which assumes
+ * every write goes through this instance, the same as TaskTitleIndex.
+ */
+@Component
+public class TaskChangeStamps {
+
+    private final long base = System.currentTimeMillis() * 1000;
+    private final AtomicLong clock = new AtomicLong(base);
+    private final Map<Long, Long> byUser = new ConcurrentHashMap<>();
+
+    public long userStamp(Long userId) {
+        return byUser.getOrDefault(userId, base);
+    }
+
+    public long globalStamp() {
+        return clock.get();
+    }
+
+    // Weak ETags. The user id is part of the tag so two users who share a
+    // stamp (neither has written since boot) never validate each other's copy.
+
+    public String userTag(Long userId) {
+        return "W/\"u" + userId + "-" + userStamp(userId) + "\"";
+    }
+
+    public String globalTag() {
+        return "W/\"all-" + globalStamp() + "\"";
+    }
+
+    // For responses that also depend on the clock, such as overdue counts:
+    // the tag additionally changes every minute
+    public String userMinuteTag(Long userId) {
+        return "W/\"u" + userId + "-" + userStamp(userId) + "-m" + System.currentTimeMillis() / 60_000 + "\"";
+    }
+
+    // Records that a user's tasks changed. Applied after the surrounding
+    // transaction commits: a reader that sees the new stamp then also sees
+    // the new rows, and a rolled-back write changes nothing.
+    public void touch(Long userId) {
+        afterCommit(() -> byUser.merge(userId, clock.incrementAndGet(), Math::max));
+    }
+
+    // Runs action once the surrounding transaction commits, or now if there is none
+    static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
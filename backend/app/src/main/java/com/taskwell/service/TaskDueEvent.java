@@ -0,0 +1,52 @@
+package com.taskwell.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by DueDateScheduler when an unfinished task reaches its reminder
+ * time or its due date. Listeners run on the scheduler's thread, so anything
+ * slow (mail, push) should hand off to its own executor.
+ */
+public class TaskDueEvent {
+
+    public enum Kind {
+        // The due date is taskwell.due-timers.reminder-lead away
+        REMINDER,
+        // The due date has passed and the task has been marked OVERDUE
+        DUE
+    }
+
+    private final Long taskId;
+    private final Long userId;
+    private final LocalDateTime dueDate;
+    private final Kind kind;
+
+    public TaskDueEvent(Long taskId, Long userId, LocalDateTime dueDate, Kind kind) {
+        this.taskId = taskId;
+        this.userId = userId;
+        this.dueDate = dueDate;
+        this.kind = kind;
+    }
+
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public LocalDateTime getDueDate() {
+        return dueDate;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskDueEvent{taskId=" + taskId + ", userId=" + userId + ", dueDate=" + dueDate + ", kind=" + kind
+                + "}";
+    }
+}
@@ -0,0 +1,181 @@
+package com.taskwell.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.taskwell.datasource.ReadOnlyTransactional;
+import com.taskwell.dto.TaskExportFormat;
+import com.taskwell.dto.TaskExportRow;
+import com.taskwell.repository.TaskRepository;
+
+/**
+ * Writes unpaged task listings straight from a repository cursor to an output
+ * stream, one row at a time, so memory use does not grow with the number of
+ * tasks. Callers resolve access rules before handing over the stream.
+ *
+ * Each write reads its rows with a single SELECT, so on PostgreSQL it sees
+ * one snapshot even under READ COMMITTED, on the replica as on the primary:
+ * tasks changed mid-export appear as they were when the export started. The transaction, and with it a pool
+ * connection, is held until the last row is written, so a write that runs
+ * past the export timeout is aborted rather than left to a slow client.
+ */
+@Service
+public class TaskExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskExportService.class);
+    // Compressed bytes buffered before each write to the response
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+    private static final String CSV_HEADER = "id,title,description,status,priority,category,dueDate,completedAt,createdAt,ownerId";
+    private final TaskRepository taskRepository;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter rowWriter;
+    private final Duration exportTimeout;
+
+    public TaskExportService(TaskRepository taskRepository, ObjectMapper objectMapper,
+            @Value("${taskwell.tasks.export.timeout:5m}") Duration exportTimeout) {
+        this.taskRepository = taskRepository;
+        this.objectMapper = objectMapper;
+        // Flushing after every row would turn each one into its own network write
+        this.rowWriter = objectMapper.writerFor(TaskExportRow.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.exportTimeout = exportTimeout;
+    }
+
+    /**
+     * Writes the tasks as one JSON array in id order, in the paged listings'
+     * row shape plus the description. ownerId limits the export to one user's tasks; null
+     * exports every task. The output stream is flushed but left open.
+     *
+     * @return number of tasks written
+     */
+    @ReadOnlyTransactional
+    public long writeJson(Long ownerId, OutputStream out) throws IOException {
+        long deadline = deadline();
+        long count = 0;
+        try (Stream<TaskExportRow> rows = rows(ownerId);
+                JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartArray();
+            Iterator<TaskExportRow> it = rows.iterator();
+            while (it.hasNext()) {
+                checkDeadline(deadline, count);
+                rowWriter.writeValue(generator, it.next());
+                count++;
+            }
+            generator.writeEndArray();
+        }
+        logger.info("Streamed tasks as JSON, ownerId={}, count={}", ownerId, count);
+        return count;
+    }
+
+    /**
+     * Writes the tasks in id order in the given format, gzip-compressed as they
+     * are written. The gzip stream is finished but the output stream is left
+     * open.
+     *
+     * @return number of tasks written
+     */
+    @ReadOnlyTransactional
+    public long export(Long ownerId, TaskExportFormat format, OutputStream out) throws IOException {
+        long deadline = deadline();
+        long count = 0;
+        GZIPOutputStream gzip = new GZIPOutputStream(out, GZIP_BUFFER_SIZE);
+        try (Stream<TaskExportRow> rows = rows(ownerId)) {
+            Iterator<TaskExportRow> it = rows.iterator();
+            if (format == TaskExportFormat.NDJSON) {
+                try (JsonGenerator generator = objectMapper.getFactory().createGenerator(gzip)) {
+                    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                    while (it.hasNext()) {
+                        checkDeadline(deadline, count);
+                        rowWriter.writeValue(generator, it.next());
+                        generator.writeRaw('\n');
+                        count++;
+                    }
+                }
+            } else {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8));
+                writer.write(CSV_HEADER);
+                writer.write("\r\n");
+                while (it.hasNext()) {
+                    checkDeadline(deadline, count);
+                    writeCsvRow(writer, it.next());
+                    count++;
+                }
+                writer.flush();
+            }
+        }
+        gzip.finish();
+        logger.info("Exported tasks, ownerId={}, format={}, count={}", ownerId, format, count);
+        return count;
+    }
+
+    private Stream<TaskExportRow> rows(Long ownerId) {
+        return ownerId == null ? taskRepository.streamAll() : taskRepository.streamByUserId(ownerId);
+    }
+
+    private long deadline() {
+        return System.nanoTime() + exportTimeout.toNanos();
+    }
+
+    // Fails the export once it has run past the timeout. The response is
+    // already committed by then, so the client sees a truncated body.
+    private void checkDeadline(long deadline, long written) throws IOException {
+        if (System.nanoTime() - deadline >= 0) {
+            logger.warn("Task export timed out after {} rows", written);
+            throw new IOException("Task export exceeded " + exportTimeout);
+        }
+    }
+
+    private static void writeCsvRow(Writer writer, TaskExportRow task) throws IOException {
+        writer.write(String.valueOf(task.id()));
+        writer.write(',');
+        writer.write(csvField(task.title()));
+        writer.write(',');
+        writer.write(csvField(task.description()));
+        writer.write(',');
+        writer.write(csvField(task.status()));
+        writer.write(',');
+        writer.write(csvField(task.priority()));
+        writer.write(',');
+        writer.write(csvField(task.category()));
+        writer.write(',');
+        writer.write(csvField(task.dueDate()));
+        writer.write(',');
+        writer.write(csvField(task.completedAt()));
+        writer.write(',');
+        writer.write(csvField(task.createdAt()));
+        writer.write(',');
+        writer.write(csvField(task.ownerId()));
+        writer.write("\r\n");
+    }
+
+    // Empty for null; quoted, with quotes doubled, when the value contains a
+    // delimiter, quote or line break
+    static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,357 @@
+package com.taskwell.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskwell.dto.TaskExportFormat;
+import com.taskwell.dto.TaskImportResponse;
+import com.taskwell.model.Task;
+import com.taskwell.model.TaskCategory;
+import com.taskwell.model.TaskPriority;
+import com.taskwell.model.TaskStatus;
+import com.taskwell.model.User;
+import com.taskwell.repository.TaskRepository;
+import com.taskwell.repository.UserRepository;
+import com.taskwell.security.CustomUserDetails;
+import com.taskwell.utils.SecurityUtils;
+
+/**
+ * Imports tasks for the current user from an NDJSON or CSV stream in the
+ * shape the export writes. The stream is read IMPORT_BATCH_SIZE rows at a
+ * time: each batch is parsed and validated in parallel, checked against the
+ * user's titles in memory (titles are unique per user) and inserted as one
+ * JDBC batch in its own transaction, so memory use does not grow with the
+ * file and a late failure keeps the batches before it.
+ */
+@Service
+public class TaskImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskImportService.class);
+    // Rows read, validated and inserted together
+    public static final int IMPORT_BATCH_SIZE = 500;
+    private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+    private final TaskTitleIndex titleIndex;
+    private final TaskChangeStamps changeStamps;
+    private final TaskStats taskStats;
+    private final DueDateScheduler dueDates;
+    private final ObjectMapper objectMapper;
+
+    public TaskImportService(TaskRepository taskRepository, UserRepository userRepository,
+            TaskTitleIndex titleIndex, TaskChangeStamps changeStamps, TaskStats taskStats,
+            DueDateScheduler dueDates, ObjectMapper objectMapper) {
+        this.taskRepository = taskRepository;
+        this.userRepository = userRepository;
+        this.titleIndex = titleIndex;
+        this.changeStamps = changeStamps;
+        this.taskStats = taskStats;
+        this.dueDates = dueDates;
+        this.objectMapper = objectMapper;
+    }
+
+    // One row as read from the file: its fields by lower-case name, or the
+    // reason it could not be read
+    private record RawRow(long row, Map<String, String> fields, String error) {
+    }
+
+    // One row after parsing and validation: a task ready to insert, or an error
+    private record ParsedRow(long row, Task task, String error) {
+    }
+
+    public TaskImportResponse importTasks(TaskExportFormat format, InputStream in) throws IOException {
+        if (format == null || in == null) {
+            throw new NullPointerException("Format and input must not be null");
+        }
+        CustomUserDetails currentUser = SecurityUtils.getCurrentUser();
+        if (currentUser == null || !currentUser.isVerified()) {
+            throw new AccessDeniedException("User must be verified to create tasks");
+        }
+        User userEntity = userRepository.findById(currentUser.getId())
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        Long userId = userEntity.getId();
+
+        Set<String> titles = new HashSet<>();
+        for (Object[] row : taskRepository.findTitlesByUserId(userId)) {
+            titles.add((String) row[1]);
+        }
+
+        long start = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        TaskImportResponse response = new TaskImportResponse();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        RowReader rows = format == TaskExportFormat.CSV ? new CsvRowReader(reader) : new NdjsonRowReader(reader);
+        List<RawRow> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+        RawRow next;
+        while ((next = rows.next()) != null) {
+            batch.add(next);
+            if (batch.size() == IMPORT_BATCH_SIZE) {
+                importBatch(userId, batch, titles, now, response);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            importBatch(userId, batch, titles, now, response);
+        }
+
+        if (response.getImported() > 0) {
+            titleIndex.invalidate(userId);
+            changeStamps.touch(userId);
+        }
+        response.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        logger.info("Imported tasks for user: {}, format={}, rows={}, imported={}, rejected={}, rowsPerSecond={}",
+                userId, format, response.getRows(), response.getImported(), response.getRejected(),
+                Math.round(response.getRowsPerSecond()));
+        return response;
+    }
+
+    private void importBatch(Long userId, List<RawRow> batch, Set<String> titles, LocalDateTime now,
+            TaskImportResponse response) {
+        response.addRows(batch.size());
+        // Parsing and field validation are independent per row; the title
+        // check below is not, so it runs afterwards in file order
+        List<ParsedRow> parsed = batch.parallelStream().map(TaskImportService::parse).toList();
+
+        List<Task> accepted = new ArrayList<>();
+        List<Long> acceptedRows = new ArrayList<>();
+        for (ParsedRow row : parsed) {
+            if (row.error() != null) {
+                response.addError(row.row(), row.error());
+            } else if (!titles.add(row.task().getTitle())) {
+                response.addError(row.row(), "A task with this title already exists");
+            } else {
+                accepted.add(row.task());
+                acceptedRows.add(row.row());
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        try {
+            response.addImported(insert(userId, accepted, now));
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent write took one of the titles; retry row by row so
+            // only the conflicting rows are rejected
+            for (int i = 0; i < accepted.size(); i++) {
+                try {
+                    response.addImported(insert(userId, List.of(accepted.get(i)), now));
+                } catch (DataIntegrityViolationException conflict) {
+                    response.addError(acceptedRows.get(i), "A task with this title already exists");
+                }
+            }
+        }
+    }
+
+    // One batch insert and its counter deltas, committed together. Unfinished
+    // tasks get due timers the way TaskService.createTasks sets them, once the
+    // batch commits; the timer refill only loads windows it has not loaded yet.
+    private int insert(Long userId, List<Task> tasks, LocalDateTime now) {
+        return taskStats.adding(userId, tasks.stream().map(TaskStats.Counted::of).toList(), () -> {
+            List<Long> ids = taskRepository.insertAll(userId, tasks, now);
+            for (int i = 0; i < ids.size(); i++) {
+                if (OverdueSweeper.UNFINISHED.contains(tasks.get(i).getStatus())) {
+                    dueDates.schedule(ids.get(i), tasks.get(i).getDueDate());
+                }
+            }
+            return ids.size();
+        });
+    }
+
+    private static ParsedRow parse(RawRow raw) {
+        if (raw.error() != null) {
+            return new ParsedRow(raw.row(), null, raw.error());
+        }
+        Map<String, String> fields = raw.fields();
+        Task task = new Task(fields.get("title"), blankToNull(fields.get("description")));
+        try {
+            task.setStatus(parseEnum(TaskStatus.class, fields.get("status"), TaskStatus.PENDING));
+            task.setPriority(parseEnum(TaskPriority.class, fields.get("priority"), TaskPriority.MEDIUM));
+            task.setCategory(parseEnum(TaskCategory.class, fields.get("category"), null));
+            task.setDueDate(parseDateTime(fields.get("duedate")));
+            LocalDateTime completedAt = parseDateTime(fields.get("completedat"));
+            if (task.getStatus() == TaskStatus.COMPLETE) {
+                task.setCompletedAt(completedAt != null ? completedAt : LocalDateTime.now());
+            }
+        } catch (IllegalArgumentException e) {
+            return new ParsedRow(raw.row(), null, e.getMessage());
+        }
+        String error = TaskService.validateTaskFields(task);
+        return new ParsedRow(raw.row(), error == null ? task : null, error);
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, E fallback) {
+        if (blankToNull(value) == null) {
+            return fallback;
+        }
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid " + type.getSimpleName() + ": " + value);
+        }
+    }
+
+    // ISO date-time, or a plain ISO date meaning the start of that day
+    private static LocalDateTime parseDateTime(String value) {
+        if (blankToNull(value) == null) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            try {
+                return LocalDate.parse(value.trim()).atStartOfDay();
+            } catch (DateTimeParseException notADate) {
+                throw new IllegalArgumentException("Invalid date: " + value);
+            }
+        }
+    }
+
+    private interface RowReader {
+        // The next row, or null at the end of the input
+        RawRow next() throws IOException;
+    }
+
+    // One JSON object per line; blank lines are skipped. A line that is not a
+    // JSON object is rejected on its own and reading carries on.
+    private class NdjsonRowReader implements RowReader {
+        private final BufferedReader reader;
+        private long row;
+
+        NdjsonRowReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public RawRow next() throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+                if (line == null) {
+                    return null;
+                }
+            } while (line.isBlank());
+            row++;
+            try {
+                JsonNode node = objectMapper.readTree(line);
+                if (!node.isObject()) {
+                    return new RawRow(row, null, "Expected a JSON object");
+                }
+                Map<String, String> fields = new HashMap<>();
+                node.fields().forEachRemaining(field -> fields.put(field.getKey().toLowerCase(Locale.ROOT),
+                        field.getValue().isNull() ? null : field.getValue().asText()));
+                return new RawRow(row, fields, null);
+            } catch (JsonProcessingException e) {
+                return new RawRow(row, null, "Malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    // RFC 4180 with a header row naming the columns. Quoted fields may hold
+    // delimiters, doubled quotes and line breaks.
+    private static class CsvRowReader implements RowReader {
+        private final BufferedReader reader;
+        private List<String> header;
+        private long row;
+
+        CsvRowReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public RawRow next() throws IOException {
+            if (header == null) {
+                header = readRecord();
+                if (header == null) {
+                    return null;
+                }
+                header.replaceAll(name -> name.trim().toLowerCase(Locale.ROOT));
+            }
+            List<String> values;
+            do {
+                values = readRecord();
+                if (values == null) {
+                    return null;
+                }
+            } while (values.size() == 1 && values.get(0).isEmpty());
+            row++;
+            if (values.size() != header.size()) {
+                return new RawRow(row, null, "Expected " + header.size() + " columns but found " + values.size());
+            }
+            Map<String, String> fields = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                fields.put(header.get(i), values.get(i));
+            }
+            return new RawRow(row, fields, null);
+        }
+
+        // The fields of the next record, or null at the end of the input
+        private List<String> readRecord() throws IOException {
+            int c = reader.read();
+            if (c < 0) {
+                return null;
+            }
+            List<String> values = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (c >= 0) {
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        if (reader.read() == '"') {
+                            field.append('"');
+                        } else {
+                            reader.reset();
+                            quoted = false;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (c == ',') {
+                    values.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    break;
+                } else if (c == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                    break;
+                } else {
+                    field.append((char) c);
+                }
+                c = reader.read();
+            }
+            values.add(field.toString());
+            return values;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.taskwell.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Keeps the monthly task_archive partitions of the optional partitioned
+ * PostgreSQL schema (the "partitioned" profile) in step with the calendar:
+ * the current month and months-ahead after it always exist, so archive
+ * inserts never miss a partition, and months that ended before the archive
+ * retention cutoff are detached and dropped whole instead of being deleted row
+ * by row. TaskArchiveService's purge only has the month straddling the cutoff
+ * left to delete.
+ *
+ * The task table is hashed on user_id and needs no upkeep. Statements are
+ * idempotent, so several instances running this at once is harmless.
+ *
+ * Metrics: taskwell.partitions.dropped (counter).
+ */
+@Component
+@ConditionalOnProperty(name = "taskwell.partitions.enabled", havingValue = "true")
+public class TaskPartitionMaintainer {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskPartitionMaintainer.class);
+    // Partition names are this prefix and the month, as the V9_1 migration creates them
+    static final String ARCHIVE_PARTITION_PREFIX = "task_archive_p";
+    private static final DateTimeFormatter MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final String ARCHIVE_PARTITIONS = "SELECT child.relname FROM pg_inherits "
+            + "JOIN pg_class parent ON parent.oid = pg_inherits.inhparent "
+            + "JOIN pg_class child ON child.oid = pg_inherits.inhrelid WHERE parent.relname = 'task_archive'";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int monthsAhead;
+    private final Duration retention;
+    private final Counter dropped;
+
+    public TaskPartitionMaintainer(JdbcTemplate jdbcTemplate, MeterRegistry registry,
+            @Value("${taskwell.partitions.months-ahead:3}") int monthsAhead,
+            @Value("${taskwell.archive.retention:3650d}") Duration retention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.monthsAhead = monthsAhead;
+        this.retention = retention;
+        this.dropped = Counter.builder("taskwell.partitions.dropped")
+                .description("Expired task_archive partitions detached and dropped").register(registry);
+    }
+
+    // Before the first archive run can need this month's partition
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    @Scheduled(fixedDelayString = "${taskwell.partitions.interval:PT12H}",
+            initialDelayString = "${taskwell.partitions.interval:PT12H}")
+    public void maintain() {
+        LocalDateTime now = LocalDateTime.now();
+        createAhead(YearMonth.from(now));
+        dropExpired(now);
+    }
+
+    void createAhead(YearMonth current) {
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(month)
+                    + " PARTITION OF task_archive FOR VALUES FROM ('" + month.atDay(1) + "') TO ('"
+                    + month.plusMonths(1).atDay(1) + "')");
+        }
+    }
+
+    // Returns the number of partitions dropped
+    int dropExpired(LocalDateTime now) {
+        LocalDate cutoff = now.minus(retention).toLocalDate();
+        List<String> partitions = jdbcTemplate.queryForList(ARCHIVE_PARTITIONS, String.class);
+        int count = 0;
+        for (String partition : partitions) {
+            YearMonth month = monthOf(partition);
+            // Only months that ended on or before the cutoff hold nothing newer
+            if (month == null || month.plusMonths(1).atDay(1).isAfter(cutoff)) {
+                continue;
+            }
+            // Detached first so the parent is only locked for the catalog
+            // change, not while the partition's files are removed
+            jdbcTemplate.execute("ALTER TABLE task_archive DETACH PARTITION " + partition);
+            jdbcTemplate.execute("DROP TABLE " + partition);
+            dropped.increment();
+            count++;
+            logger.info("Dropped expired archive partition {}", partition);
+        }
+        return count;
+    }
+
+    static String partitionName(YearMonth month) {
+        return ARCHIVE_PARTITION_PREFIX + month.format(MONTH);
+    }
+
+    // The month of a partition named by partitionName, or null for any other table
+    static YearMonth monthOf(String partition) {
+        if (!partition.startsWith(ARCHIVE_PARTITION_PREFIX)) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(partition.substring(ARCHIVE_PARTITION_PREFIX.length()), MONTH);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -2,11 +2,32 @@ package com.taskwell.service;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.http.HttpStatus;
 
+import com.taskwell.datasource.ReadOnlyTransactional;
+import com.taskwell.dto.BatchCreateResponse;
+import com.taskwell.dto.BulkReassignRequest;
+import com.taskwell.dto.BulkTaskSelection;
+import com.taskwell.dto.CursorPage;
+import com.taskwell.dto.ProductivityBucket;
+import com.taskwell.dto.ProductivityPoint;
+import com.taskwell.dto.TaskCursor;
+import com.taskwell.dto.TaskFilter;
+import com.taskwell.dto.TaskSearchCriteria;
+import com.taskwell.dto.TaskSearchCursor;
+import com.taskwell.dto.TaskSearchHit;
+import com.taskwell.dto.TaskSort;
+import com.taskwell.dto.TaskSummaryResponse;
+import com.taskwell.dto.TaskView;
+import com.taskwell.dto.TitleSuggestion;
 import com.taskwell.repository.TaskRepository;
+import com.taskwell.repository.TaskSpecifications;
 import com.taskwell.repository.UserRepository;
 import com.taskwell.utils.ValidationUtils;
 
@@ -17,9 +38,19 @@ import com.taskwell.model.User;
 import com.taskwell.model.TaskStatus;
 import com.taskwell.model.TaskPriority;
 import com.taskwell.model.TaskCategory;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
 
 import org.springframework.security.access.AccessDeniedException;
 import com.taskwell.security.CustomUserDetails;
@@ -29,12 +60,35 @@ import com.taskwell.utils.SecurityUtils;
 public class TaskService {
 
     private static final Logger logger = LoggerFactory.getLogger(TaskService.class);
+    // Upper bound for the next-due / overdue lists in the dashboard summary
+    public static final int MAX_SUMMARY_LIST_SIZE = 20;
+    // Longest window the productivity chart may request
+    public static final int MAX_PRODUCTIVITY_DAYS = 366;
+    // Longest accepted text query for task search
+    public static final int MAX_SEARCH_TEXT_LENGTH = 200;
+    // Upper bound for title autocomplete results
+    public static final int MAX_SUGGESTIONS = 20;
+    // Largest number of tasks accepted by one batch create
+    public static final int MAX_BATCH_SIZE = 2000;
+    // Largest id list accepted by one bulk operation
+    public static final int MAX_BULK_IDS = 1000;
+    // Most ids each chunk of a bulk delete / reassign reads and then changes
+    public static final int BULK_CHUNK_SIZE = 1000;
     private final TaskRepository taskRepository;
     private final UserRepository userRepository;
+    private final TaskTitleIndex titleIndex;
+    private final TaskChangeStamps changeStamps;
+    private final DueDateScheduler dueDates;
+    private final TaskStats taskStats;
 
-    public TaskService(TaskRepository taskRepository, UserRepository userRepository) {
+    public TaskService(TaskRepository taskRepository, UserRepository userRepository, TaskTitleIndex titleIndex,
+            TaskChangeStamps changeStamps, DueDateScheduler dueDates, TaskStats taskStats) {
         this.taskRepository = taskRepository;
         this.userRepository = userRepository;
+        this.titleIndex = titleIndex;
+        this.changeStamps = changeStamps;
+        this.dueDates = dueDates;
+        this.taskStats = taskStats;
     }
 
     // Create new task (and assign to user)
@@ -62,141 +116,738 @@ public class TaskService {
         task.setUser(userEntity);
 
         logger.info("Created task: {}", task.getTitle());
-        return taskRepository.save(task);
+        Task savedTask = taskRepository.save(task);
+        titleIndex.taskSaved(userEntity.getId(), savedTask.getId(), savedTask.getTitle());
+        changeStamps.touch(userEntity.getId());
+        taskStats.added(userEntity.getId(), TaskStats.Counted.of(savedTask));
+        scheduleDueDate(savedTask.getId(), savedTask.getStatus(), savedTask.getDueDate());
+        return savedTask;
+    }
+
+    // Create many tasks for the current user in one transaction. Items are
+    // validated up front and invalid ones are reported by index instead of
+    // failing the request; the rest are inserted in JDBC batches.
+    @Transactional
+    public BatchCreateResponse createTasks(List<Task> tasks) {
+        if (tasks == null) {
+            throw new NullPointerException("Tasks must not be null");
+        }
+        if (tasks.isEmpty() || tasks.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("A batch must hold between 1 and " + MAX_BATCH_SIZE + " tasks");
+        }
+
+        CustomUserDetails currentUser = SecurityUtils.getCurrentUser();
+        if (currentUser == null || !currentUser.isVerified()) {
+            throw new AccessDeniedException("User must be verified to create tasks");
+        }
+        User userEntity = userRepository.findById(currentUser.getId())
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+
+        // Titles are unique per user; checking here keeps one duplicate from
+        // failing the whole insert
+        Set<String> titles = new HashSet<>();
+        for (Object[] row : taskRepository.findTitlesByUserId(userEntity.getId())) {
+            titles.add((String) row[1]);
+        }
+
+        BatchCreateResponse response = new BatchCreateResponse();
+        List<Task> accepted = new ArrayList<>();
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            String error = validateBatchItem(task, titles);
+            if (error != null) {
+                response.addError(i, error);
+                continue;
+            }
+            task.setId(null);
+            task.setUser(userEntity);
+            titles.add(task.getTitle());
+            accepted.add(task);
+            acceptedIndexes.add(i);
+        }
+
+        List<Task> saved = taskStats.adding(userEntity.getId(), accepted.stream().map(TaskStats.Counted::of).toList(),
+                () -> taskRepository.saveAll(accepted));
+        for (int i = 0; i < saved.size(); i++) {
+            response.addCreated(acceptedIndexes.get(i), saved.get(i).getId());
+            scheduleDueDate(saved.get(i).getId(), saved.get(i).getStatus(), saved.get(i).getDueDate());
+        }
+        if (!saved.isEmpty()) {
+            titleIndex.invalidate(userEntity.getId());
+            changeStamps.touch(userEntity.getId());
+        }
+        logger.info("Batch created tasks for user: {}, created={}, rejected={}", userEntity.getId(), saved.size(),
+                response.getErrors().size());
+        return response;
+    }
+
+    // Mirrors the checks a single create goes through; null means valid
+    private static String validateBatchItem(Task task, Set<String> titles) {
+        String error = validateTaskFields(task);
+        if (error != null) {
+            return error;
+        }
+        if (titles.contains(task.getTitle())) {
+            return "A task with this title already exists";
+        }
+        return null;
+    }
+
+    // The field checks of a single create, without the title uniqueness check;
+    // null means valid. Shared with TaskImportService.
+    static String validateTaskFields(Task task) {
+        if (task == null) {
+            return "Task must not be null";
+        }
+        if (!ValidationUtils.isValidTaskName(task.getTitle())) {
+            return "Invalid task name";
+        }
+        if (!ValidationUtils.isValidDueDate(task.getDueDate())) {
+            return "Due date cannot be in the past";
+        }
+        if (task.getStatus() == null) {
+            return "Status is required";
+        }
+        if (task.getPriority() == null) {
+            return "Priority is required";
+        }
+        if (task.getDescription() != null && task.getDescription().length() > 500) {
+            return "Description must be at most 500 characters";
+        }
+        return null;
     }
 
     // Update an existing task
     @Transactional
     public Task updateTask(Long id, Task updatedTask) {
+        return updateTask(id, updatedTask, null);
+    }
+
+    // Update an existing task only if it is still at expectedVersion (null
+    // skips the check); a stale version fails with 412
+    @Transactional
+    public Task updateTask(Long id, Task updatedTask, Long expectedVersion) {
         if (updatedTask == null) {
             throw new IllegalArgumentException("Updated task must not be null");
         }
         if (!ValidationUtils.isValidTaskName(updatedTask.getTitle())) {
             throw new IllegalArgumentException("Invalid task name");
         }
+        if (updatedTask.getDueDate() == null) {
+            throw new IllegalArgumentException("Due date is required");
+        }
         if (!ValidationUtils.isValidDueDate(updatedTask.getDueDate())) {
             throw new IllegalArgumentException("Due date cannot be in the past");
         }
         CustomUserDetails currentUser = SecurityUtils.getCurrentUser();
-        Task existingTask = findTaskById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found"));
-        if (!existingTask.getUser().getId().equals(currentUser.getId())) {
-            throw new AccessDeniedException("You do not own this task");
-        }
-
-        existingTask.setTitle(updatedTask.getTitle());
-        existingTask.setDescription(updatedTask.getDescription());
-        existingTask.setDueDate(updatedTask.getDueDate());
-        existingTask.setPriority(updatedTask.getPriority());
-        existingTask.setStatus(updatedTask.getStatus());
-        // Optionally: do not allow changing user/ID here
+        LocalDateTime now = LocalDateTime.now();
+        // Moving an overdue task's due date into the future makes it pending
+        // again; the reverse is left to the due timers and OverdueSweeper
+        TaskStatus status = updatedTask.getStatus();
+        if (status == TaskStatus.OVERDUE && updatedTask.getDueDate() != null
+                && !updatedTask.getDueDate().isBefore(now)) {
+            status = TaskStatus.PENDING;
+        }
+        TaskStats.Counted before = taskStats.lock(id, currentUser.getId());
+        // Owner, id and the new values in one UPDATE; user and id never change here
+        int updated = taskRepository.updateForUser(id, currentUser.getId(), updatedTask.getTitle(),
+                updatedTask.getDescription(), updatedTask.getDueDate(), updatedTask.getPriority(),
+                status, expectedVersion, now);
+        if (updated == 0) {
+            if (expectedVersion != null && taskRepository.findByIdAndUserId(id, currentUser.getId()).isPresent()) {
+                throw staleVersion(id);
+            }
+            throw missingOrForeign(id);
+        }
         logger.info("Updated task: {}", id);
-        return taskRepository.save(existingTask);
+        titleIndex.taskSaved(currentUser.getId(), id, updatedTask.getTitle());
+        changeStamps.touch(currentUser.getId());
+        if (before != null) {
+            taskStats.changed(currentUser.getId(), before,
+                    before.withStatus(status).withPriority(updatedTask.getPriority()));
+        }
+        scheduleDueDate(id, status, updatedTask.getDueDate());
+        return loadOwnedTask(id, currentUser.getId());
+    }
+
+    // Keeps the task's reminder and due timers in step with a write; only
+    // unfinished tasks have them
+    private void scheduleDueDate(Long id, TaskStatus status, LocalDateTime dueDate) {
+        if (OverdueSweeper.UNFINISHED.contains(status)) {
+            dueDates.schedule(id, dueDate);
+        } else {
+            dueDates.cancel(id);
+        }
     }
 
     // Find task by ID
+    @ReadOnlyTransactional
     public Optional<Task> findTaskById(Long id) {
         logger.info("Finding task by ID: {}", id);
         return taskRepository.findById(id);
     }
 
-    // List all tasks, or filter by user, status, category, etc...
-    public List<Task> findAllTasks() {
-        logger.info("Listing all tasks");
-        return taskRepository.findAll();
+    // One of the current user's tasks; 404 if it does not exist, 403 if it
+    // belongs to someone else
+    @ReadOnlyTransactional
+    public Task findOwnedTask(Long id) {
+        CustomUserDetails currentUser = SecurityUtils.getCurrentUser();
+        logger.info("Finding task {} for user: {}", id, currentUser.getId());
+        return loadOwnedTask(id, currentUser.getId());
+    }
+
+    private Task loadOwnedTask(Long id, Long userId) {
+        return taskRepository.findByIdAndUserId(id, userId).orElseThrow(() -> missingOrForeign(id));
+    }
+
+    // An ownership-scoped statement matched nothing. Only on this failure path
+    // does a primary key probe tell a missing task from another user's.
+    private RuntimeException missingOrForeign(Long id) {
+        if (taskRepository.existsById(id)) {
+            return new AccessDeniedException("You do not own this task");
+        }
+        return new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found");
+    }
+
+    private static ResponseStatusException staleVersion(Long id) {
+        logger.info("Rejected stale write to task {}", id);
+        return new ResponseStatusException(HttpStatus.PRECONDITION_FAILED,
+                "Task was changed by someone else; reload it and try again");
+    }
+
+    // A complete / uncomplete matched no row. Both transitions are idempotent,
+    // so when only the version was stale and the task already has the target
+    // status, the outcome the caller asked for holds: return the task rather
+    // than failing. Any other stale write is a 412.
+    private Task staleTransition(Long id, Long userId, Long expectedVersion, TaskStatus target) {
+        Task current = expectedVersion == null ? null
+                : taskRepository.findByIdAndUserId(id, userId).orElse(null);
+        if (current == null) {
+            throw missingOrForeign(id);
+        }
+        if (current.getStatus() != target) {
+            throw staleVersion(id);
+        }
+        logger.info("Task {} already {}; ignoring stale version {}", id, target, expectedVersion);
+        return current;
+    }
+
+    // Keyset-paginated listings. The cursor is the opaque token handed out with the
+    // previous page (null for the first one), so every page costs the same
+    @ReadOnlyTransactional
+    public CursorPage<TaskView> findAllTasks(String cursor, int size) {
+        TaskCursor position = TaskCursor.decode(cursor);
+        logger.info("Listing tasks page, size={}", size);
+        return toPage(taskRepository.findPage(position.getCreatedAt(), position.getId(), pageOf(size)));
     }
 
-    public List<Task> findTasksByUser(User user) {
-        logger.info("Listing tasks for user: {}", user);
-        return taskRepository.findByUser(user);
+    @ReadOnlyTransactional
+    public CursorPage<TaskView> findTasksByUser(Long userId, String cursor, int size) {
+        TaskCursor position = TaskCursor.decode(cursor);
+        logger.info("Listing tasks page for user: {}, size={}", userId, size);
+        return toPage(taskRepository.findPageByUserId(userId, position.getCreatedAt(), position.getId(),
+                pageOf(size)));
     }
 
-    public List<Task> findTasksByStatus(TaskStatus status) {
+    @ReadOnlyTransactional
+    public CursorPage<TaskView> findTasksByStatus(TaskStatus status, String cursor, int size) {
         if (status == null) {
             throw new NullPointerException("Task status must not be null");
         }
-        logger.info("Listing tasks with status: {}", status);
-        return taskRepository.findByStatus(status);
+        TaskCursor position = TaskCursor.decode(cursor);
+        logger.info("Listing tasks page with status: {}, size={}", status, size);
+        return toPage(taskRepository.findPageByStatus(status, position.getCreatedAt(), position.getId(),
+                pageOf(size)));
     }
 
-    public List<Task> findTasksByCategory(TaskCategory category) {
+    @ReadOnlyTransactional
+    public CursorPage<TaskView> findTasksByCategory(TaskCategory category, String cursor, int size) {
         if (category == null) {
             throw new NullPointerException("Category must not be null");
         }
-        logger.info("Listing tasks in category: {}", category);
-        return taskRepository.findByCategory(category);
+        TaskCursor position = TaskCursor.decode(cursor);
+        logger.info("Listing tasks page in category: {}, size={}", category, size);
+        return toPage(taskRepository.findPageByCategory(category, position.getCreatedAt(), position.getId(),
+                pageOf(size)));
     }
 
-    public List<Task> findTasksByPriority(TaskPriority priority) {
+    @ReadOnlyTransactional
+    public CursorPage<TaskView> findTasksByPriority(TaskPriority priority, String cursor, int size) {
         if (priority == null) {
             throw new NullPointerException("Task priority must not be null");
         }
-        logger.info("Listing tasks with priority: {}", priority);
-        return taskRepository.findByPriority(priority);
+        TaskCursor position = TaskCursor.decode(cursor);
+        logger.info("Listing tasks page with priority: {}, size={}", priority, size);
+        return toPage(taskRepository.findPageByPriority(priority, position.getCreatedAt(), position.getId(),
+                pageOf(size)));
+    }
+
+    @ReadOnlyTransactional
+    public CursorPage<TaskView> findTasksByDueDate(LocalDateTime dueDate, String cursor, int size) {
+        TaskCursor position = TaskCursor.decode(cursor);
+        logger.info("Listing tasks page with due date: {}, size={}", dueDate, size);
+        return toPage(taskRepository.findPageByDueDate(dueDate, position.getCreatedAt(), position.getId(),
+                pageOf(size)));
+    }
+
+    @ReadOnlyTransactional
+    public CursorPage<TaskView> findOverdueTasks(String cursor, int size) {
+        TaskCursor position = TaskCursor.decode(cursor);
+        logger.info("Listing overdue tasks page, size={}", size);
+        return toPage(taskRepository.findOverduePage(position.getCreatedAt(), position.getId(), pageOf(size)));
+    }
+
+    @ReadOnlyTransactional
+    public CursorPage<TaskView> findUpcomingTasks(String cursor, int size) {
+        TaskCursor position = TaskCursor.decode(cursor);
+        logger.info("Listing upcoming tasks page, size={}", size);
+        return toPage(taskRepository.findUpcomingPage(position.getCreatedAt(), position.getId(), pageOf(size)));
+    }
+
+    // Multi-criteria search over the current user's tasks. All filters are
+    // optional and run as a single query; paging works like the listings above
+    // but the cursor follows the requested sort. A text query matches title and
+    // description and adds a rank and highlighted excerpt to every hit.
+    @ReadOnlyTransactional
+    public CursorPage<TaskSearchHit> searchTasks(TaskSearchCriteria criteria, String cursor, int size) {
+        if (criteria == null) {
+            throw new NullPointerException("Search criteria must not be null");
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        checkDueRange(criteria);
+        String text = normalizeSearchText(criteria.getText());
+        TaskSort sort = criteria.getSort();
+        if (sort == null) {
+            sort = text == null ? TaskSort.defaultSort() : TaskSort.relevance();
+        } else if (sort.getField() == TaskSort.Field.RELEVANCE && text == null) {
+            throw new IllegalArgumentException("Sorting by relevance requires a text query");
+        }
+        CustomUserDetails currentUser = SecurityUtils.getCurrentUser();
+        if (currentUser == null) {
+            throw new AccessDeniedException("Authentication required");
+        }
+        TaskSearchCursor position = TaskSearchCursor.decode(cursor, sort);
+
+        Specification<Task> spec = filterSpec(currentUser.getId(), criteria, text)
+                .and(TaskSpecifications.after(position, text));
+        logger.info("Searching tasks for user: {}, hasText={}, sort={}, size={}", currentUser.getId(), text != null,
+                sort, size);
+
+        Slice<TaskSearchHit> slice = taskRepository.search(spec, text, sort, size);
+        List<TaskSearchHit> items = slice.getContent();
+        String next = null;
+        if (slice.hasNext() && !items.isEmpty()) {
+            next = TaskSearchCursor.of(sort, items.get(items.size() - 1)).encode();
+        }
+        return new CursorPage<>(items, next);
+    }
+
+    // The current user's tasks matching every set filter
+    private static Specification<Task> filterSpec(Long userId, TaskSearchCriteria criteria, String text) {
+        return Specification.where(TaskSpecifications.ownedBy(userId))
+                .and(TaskSpecifications.matchesText(text))
+                .and(TaskSpecifications.hasStatus(criteria.getStatus()))
+                .and(TaskSpecifications.hasPriority(criteria.getPriority()))
+                .and(TaskSpecifications.hasCategory(criteria.getCategory()))
+                .and(TaskSpecifications.dueOnOrAfter(criteria.getDueFrom()))
+                .and(TaskSpecifications.dueOnOrBefore(criteria.getDueTo()));
+    }
+
+    private static String normalizeSearchText(String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        String trimmed = text.trim();
+        if (trimmed.length() > MAX_SEARCH_TEXT_LENGTH) {
+            throw new IllegalArgumentException("Search text must be at most " + MAX_SEARCH_TEXT_LENGTH
+                    + " characters");
+        }
+        return trimmed;
+    }
+
+    private static void checkDueRange(TaskSearchCriteria criteria) {
+        if (criteria.getDueFrom() != null && criteria.getDueTo() != null
+                && criteria.getDueFrom().isAfter(criteria.getDueTo())) {
+            throw new IllegalArgumentException("dueFrom must not be after dueTo");
+        }
+    }
+
+    // Moves many of the current user's tasks to one status, chosen either by
+    // id (one UPDATE) or by filter (one UPDATE per keyset chunk of matching
+    // ids). Ownership is part of the statement, so ids the user does not own
+    // are silently skipped.
+    @Transactional
+    public long bulkUpdateStatus(List<Long> ids, TaskFilter filter, TaskStatus status) {
+        if (status == null) {
+            throw new NullPointerException("Task status must not be null");
+        }
+        if ((ids == null) == (filter == null)) {
+            throw new IllegalArgumentException("Give either ids or a filter");
+        }
+        if (ids != null) {
+            checkBulkIds(ids);
+        }
+        CustomUserDetails currentUser = SecurityUtils.getCurrentUser();
+        if (currentUser == null) {
+            throw new AccessDeniedException("Authentication required");
+        }
+        LocalDateTime now = LocalDateTime.now();
+
+        if (ids != null) {
+            int updated = updateStatusByIds(currentUser.getId(), ids, status, now);
+            logger.info("Bulk status {} by id for user: {}, requested={}, updated={}", status, currentUser.getId(),
+                    ids.size(), updated);
+            changeStamps.touch(currentUser.getId());
+            return updated;
+        }
+
+        // An empty filter would match every task the user has
+        if (filter.isEmpty()) {
+            throw new IllegalArgumentException("Filter must set at least one field");
+        }
+        TaskSearchCriteria criteria = filter.toCriteria();
+        checkDueRange(criteria);
+        long updated = forEachChunk(filterSpec(currentUser.getId(), criteria, normalizeSearchText(criteria.getText())),
+                chunk -> updateStatusByIds(currentUser.getId(), chunk, status, now));
+        logger.info("Bulk status {} by filter for user: {}, updated={}", status, currentUser.getId(), updated);
+        changeStamps.touch(currentUser.getId());
+        return updated;
+    }
+
+    // Tasks the chunk moved get their due timer set or stopped the way the
+    // single-task transitions do it; a reopened task due inside the window the
+    // wheel already loaded would otherwise never get one
+    private int updateStatusByIds(Long ownerId, List<Long> ids, TaskStatus status, LocalDateTime now) {
+        return taskStats.tracking(ids, () -> status == TaskStatus.COMPLETE
+                ? taskRepository.completeByIdsForUser(ownerId, ids, now)
+                : taskRepository.updateStatusByIdsForUser(ownerId, ids, status, now),
+                change -> scheduleDueDate(change.taskId(), change.status(), change.dueDate()));
+    }
+
+    // Deletes the selected tasks of one owner. Whole-account and filter
+    // selections run as one DELETE per keyset chunk of matching ids, each
+    // committed on its own, so deprovisioning a large account never holds
+    // locks on all of its rows at once. Deliberately not @Transactional for
+    // that reason.
+    public long bulkDelete(BulkTaskSelection selection) {
+        checkSelection(selection);
+        Long ownerId = bulkOwner(selection);
+        long deleted;
+        if (selection.getIds() != null) {
+            deleted = deleteByIds(ownerId, selection.getIds());
+        } else {
+            deleted = forEachChunk(selectionSpec(ownerId, selection), chunk -> deleteByIds(ownerId, chunk));
+        }
+        titleIndex.invalidate(ownerId);
+        changeStamps.touch(ownerId);
+        logger.info("Bulk deleted tasks of user: {}, deleted={}", ownerId, deleted);
+        return deleted;
+    }
+
+    private int deleteByIds(Long ownerId, List<Long> ids) {
+        int deleted = taskStats.tracking(ids, () -> taskRepository.deleteByIdsForUser(ownerId, ids));
+        ids.forEach(dueDates::cancel);
+        return deleted;
+    }
+
+    // Moves the selected tasks of one owner to another user, chunked the same
+    // way as bulkDelete
+    public long bulkReassign(BulkReassignRequest request) {
+        checkSelection(request);
+        if (request.getToUserId() == null) {
+            throw new IllegalArgumentException("Target user is required");
+        }
+        Long ownerId = bulkOwner(request);
+        if (ownerId.equals(request.getToUserId())) {
+            throw new IllegalArgumentException("Tasks already belong to that user");
+        }
+        if (!userRepository.existsById(request.getToUserId())) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
+        }
+        User target = userRepository.getReferenceById(request.getToUserId());
+        LocalDateTime now = LocalDateTime.now();
+        long moved;
+        if (request.getIds() != null) {
+            moved = reassignByIds(ownerId, request.getIds(), target, now);
+        } else {
+            moved = forEachChunk(selectionSpec(ownerId, request), chunk -> reassignByIds(ownerId, chunk, target, now));
+        }
+        titleIndex.invalidate(ownerId);
+        titleIndex.invalidate(request.getToUserId());
+        changeStamps.touch(ownerId);
+        changeStamps.touch(request.getToUserId());
+        logger.info("Bulk reassigned tasks of user: {} to user: {}, moved={}", ownerId, request.getToUserId(),
+                moved);
+        return moved;
+    }
+
+    private int reassignByIds(Long ownerId, List<Long> ids, User target, LocalDateTime now) {
+        return taskStats.tracking(ids, () -> taskRepository.reassignByIdsForUser(ownerId, ids, target, now));
+    }
+
+    private static void checkSelection(BulkTaskSelection selection) {
+        int given = (selection.getIds() != null ? 1 : 0) + (selection.getFilter() != null ? 1 : 0)
+                + (selection.isAll() ? 1 : 0);
+        if (given != 1) {
+            throw new IllegalArgumentException("Give exactly one of ids, filter or all");
+        }
+        if (selection.getIds() != null) {
+            checkBulkIds(selection.getIds());
+        }
+        if (selection.getFilter() != null) {
+            if (selection.getFilter().isEmpty()) {
+                throw new IllegalArgumentException("Filter must set at least one field");
+            }
+            checkDueRange(selection.getFilter().toCriteria());
+        }
+    }
+
+    // The caller, or for admins any user named in the selection
+    private static Long bulkOwner(BulkTaskSelection selection) {
+        CustomUserDetails currentUser = SecurityUtils.getCurrentUser();
+        if (currentUser == null) {
+            throw new AccessDeniedException("Authentication required");
+        }
+        Long ownerId = selection.getOwnerId() == null ? currentUser.getId() : selection.getOwnerId();
+        if (!ownerId.equals(currentUser.getId()) && !SecurityUtils.isAdmin()) {
+            throw new AccessDeniedException("You do not own these tasks");
+        }
+        return ownerId;
+    }
+
+    private static Specification<Task> selectionSpec(Long ownerId, BulkTaskSelection selection) {
+        if (selection.getFilter() == null) {
+            return Specification.where(TaskSpecifications.ownedBy(ownerId));
+        }
+        TaskSearchCriteria criteria = selection.getFilter().toCriteria();
+        return filterSpec(ownerId, criteria, normalizeSearchText(criteria.getText()));
+    }
+
+    // Applies chunk to the ids matching spec, at most BULK_CHUNK_SIZE at a
+    // time in ascending order, and sums the row counts it returns. Each chunk
+    // starts after the last id of the one before, so rows the previous chunk
+    // moved away or deleted are never read again.
+    private long forEachChunk(Specification<Task> spec, Function<List<Long>, Integer> chunk) {
+        long total = 0;
+        long after = 0;
+        while (true) {
+            List<Long> ids = taskRepository.findIdsAfter(spec, after, BULK_CHUNK_SIZE);
+            if (ids.isEmpty()) {
+                return total;
+            }
+            total += chunk.apply(ids);
+            after = ids.get(ids.size() - 1);
+        }
+    }
+
+    private static void checkBulkIds(List<Long> ids) {
+        if (ids.isEmpty() || ids.size() > MAX_BULK_IDS) {
+            throw new IllegalArgumentException("Between 1 and " + MAX_BULK_IDS + " ids are required");
+        }
+        if (ids.contains(null)) {
+            throw new IllegalArgumentException("Ids must not be null");
+        }
+    }
+
+    // Typo-tolerant title autocomplete for the current user, answered from the
+    // in-memory title index rather than the database
+    @ReadOnlyTransactional
+    public List<TitleSuggestion> suggestTitles(String query, int limit) {
+        if (query == null) {
+            throw new NullPointerException("Query must not be null");
+        }
+        if (query.length() > TaskTitleIndex.MAX_QUERY_LENGTH) {
+            throw new IllegalArgumentException("Query must be at most " + TaskTitleIndex.MAX_QUERY_LENGTH
+                    + " characters");
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        CustomUserDetails currentUser = SecurityUtils.getCurrentUser();
+        if (currentUser == null) {
+            throw new AccessDeniedException("Authentication required");
+        }
+        return titleIndex.suggest(currentUser.getId(), query, Math.min(limit, MAX_SUGGESTIONS));
+    }
+
+    private static Pageable pageOf(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        return PageRequest.of(0, size);
+    }
+
+    private static CursorPage<TaskView> toPage(Slice<TaskView> slice) {
+        List<TaskView> items = slice.getContent();
+        String next = null;
+        if (slice.hasNext() && !items.isEmpty()) {
+            next = TaskCursor.of(items.get(items.size() - 1)).encode();
+        }
+        return new CursorPage<>(items, next);
+    }
+
+    // Dashboard summary for the current user. Counts by status, category and
+    // priority are read from TaskStats; the due-date figures and lists are
+    // still queried, as they depend on the clock. Not read-only: the first
+    // read for a user stores their counters.
+    public TaskSummaryResponse getTaskSummary(int listSize) {
+        if (listSize < 1) {
+            throw new IllegalArgumentException("List size must be positive");
+        }
+        CustomUserDetails currentUser = SecurityUtils.getCurrentUser();
+        if (currentUser == null) {
+            throw new AccessDeniedException("Authentication required");
+        }
+        Long userId = currentUser.getId();
+        Pageable top = PageRequest.of(0, Math.min(listSize, MAX_SUMMARY_LIST_SIZE));
+
+        Map<String, Long> counts = taskStats.counts(userId);
+        TaskSummaryResponse summary = new TaskSummaryResponse();
+        long total = counts.getOrDefault(TaskStats.TOTAL, 0L);
+        summary.setTotal(total);
+        Map<TaskStatus, Long> byStatus = counted(TaskStatus.class, TaskStats.STATUS, counts);
+        summary.setByStatus(byStatus);
+        summary.setByCategory(counted(TaskCategory.class, TaskStats.CATEGORY, counts));
+        summary.setUncategorized(counts.getOrDefault(TaskStats.key(TaskStats.CATEGORY, null), 0L));
+        summary.setByPriority(counted(TaskPriority.class, TaskStats.PRIORITY, counts));
+
+        summary.setOverdue(byStatus.get(TaskStatus.OVERDUE));
+        summary.setUpcoming(taskRepository.countUpcomingForUser(userId));
+        summary.setNextDue(toDueTasks(taskRepository.findNextDueForUser(userId, top)));
+        summary.setOverdueTasks(toDueTasks(taskRepository.findOldestOverdueForUser(userId, top)));
+        logger.info("Built task summary for user {}: total={}", userId, total);
+        return summary;
+    }
+
+    private static <E extends Enum<E>> Map<E, Long> counted(Class<E> type, String dimension,
+            Map<String, Long> counts) {
+        Map<E, Long> byValue = new EnumMap<>(type);
+        for (E value : type.getEnumConstants()) {
+            byValue.put(value, counts.getOrDefault(TaskStats.key(dimension, value), 0L));
+        }
+        return byValue;
+    }
+
+    private static List<TaskSummaryResponse.DueTask> toDueTasks(List<Task> tasks) {
+        return tasks.stream()
+                .map(task -> new TaskSummaryResponse.DueTask(task.getId(), task.getTitle(), task.getDueDate()))
+                .toList();
+    }
+
+    // Created/completed counts per day or week over the last `days` days
+    // (today included) for the current user. The database returns one row per
+    // active day; empty buckets are filled in here.
+    @ReadOnlyTransactional
+    public List<ProductivityPoint> getProductivity(int days, ProductivityBucket bucket) {
+        if (days < 1 || days > MAX_PRODUCTIVITY_DAYS) {
+            throw new IllegalArgumentException("Days must be between 1 and " + MAX_PRODUCTIVITY_DAYS);
+        }
+        if (bucket == null) {
+            throw new NullPointerException("Bucket must not be null");
+        }
+        CustomUserDetails currentUser = SecurityUtils.getCurrentUser();
+        if (currentUser == null) {
+            throw new AccessDeniedException("Authentication required");
+        }
+
+        LocalDate today = LocalDate.now();
+        LocalDate start = today.minusDays(days - 1L);
+        if (bucket == ProductivityBucket.WEEK) {
+            // Widen to the start of the week so the first bucket is complete
+            start = start.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        }
+        LocalDateTime from = start.atStartOfDay();
+        Map<LocalDate, Long> created = perBucket(
+                taskRepository.countCreatedPerDayForUser(currentUser.getId(), from), bucket);
+        Map<LocalDate, Long> completed = perBucket(
+                taskRepository.countCompletedPerDayForUser(currentUser.getId(), from), bucket);
+
+        List<ProductivityPoint> points = new ArrayList<>();
+        int step = bucket == ProductivityBucket.WEEK ? 7 : 1;
+        for (LocalDate date = start; !date.isAfter(today); date = date.plusDays(step)) {
+            points.add(new ProductivityPoint(date, created.getOrDefault(date, 0L),
+                    completed.getOrDefault(date, 0L)));
+        }
+        logger.info("Built productivity stats for user {}: days={}, bucket={}", currentUser.getId(), days, bucket);
+        return points;
+    }
+
+    private static Map<LocalDate, Long> perBucket(List<Object[]> rows, ProductivityBucket bucket) {
+        Map<LocalDate, Long> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            LocalDate day = (LocalDate) row[0];
+            if (bucket == ProductivityBucket.WEEK) {
+                day = day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            }
+            counts.merge(day, (Long) row[1], Long::sum);
+        }
+        return counts;
     }
 
     // Mark task as completed
     @Transactional
     public Task markTaskAsCompleted(Long id) {
+        return markTaskAsCompleted(id, null);
+    }
+
+    @Transactional
+    public Task markTaskAsCompleted(Long id, Long expectedVersion) {
         CustomUserDetails currentUser = SecurityUtils.getCurrentUser();
-        Task existingTask = findTaskById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found"));
-        if (!existingTask.getUser().getId().equals(currentUser.getId())) {
-            throw new AccessDeniedException("You do not own this task");
-        }
         logger.info("Marking task {} as completed", id);
-        existingTask.setStatus(TaskStatus.COMPLETE);
-        existingTask.setCompletedAt(LocalDateTime.now());
-        return taskRepository.save(existingTask);
+        TaskStats.Counted before = taskStats.lock(id, currentUser.getId());
+        if (taskRepository.completeForUser(id, currentUser.getId(), expectedVersion, LocalDateTime.now()) == 0) {
+            return staleTransition(id, currentUser.getId(), expectedVersion, TaskStatus.COMPLETE);
+        }
+        changeStamps.touch(currentUser.getId());
+        if (before != null) {
+            taskStats.changed(currentUser.getId(), before, before.withStatus(TaskStatus.COMPLETE));
+        }
+        dueDates.cancel(id);
+        return loadOwnedTask(id, currentUser.getId());
     }
 
     // Mark task as uncompleted
     @Transactional
     public Task markTaskAsUncompleted(Long id) {
+        return markTaskAsUncompleted(id, null);
+    }
+
+    @Transactional
+    public Task markTaskAsUncompleted(Long id, Long expectedVersion) {
         CustomUserDetails currentUser = SecurityUtils.getCurrentUser();
-        Task existingTask = findTaskById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found"));
-        if (!existingTask.getUser().getId().equals(currentUser.getId())) {
-            throw new AccessDeniedException("You do not own this task");
-        }
         logger.info("Marking task {} as uncompleted", id);
-        existingTask.setStatus(TaskStatus.PENDING);
-        existingTask.setCompletedAt(null);
-        return taskRepository.save(existingTask);
+        TaskStats.Counted before = taskStats.lock(id, currentUser.getId());
+        if (taskRepository.uncompleteForUser(id, currentUser.getId(), expectedVersion, LocalDateTime.now()) == 0) {
+            return staleTransition(id, currentUser.getId(), expectedVersion, TaskStatus.PENDING);
+        }
+        changeStamps.touch(currentUser.getId());
+        if (before != null) {
+            taskStats.changed(currentUser.getId(), before, before.withStatus(TaskStatus.PENDING));
+        }
+        Task task = loadOwnedTask(id, currentUser.getId());
+        scheduleDueDate(id, task.getStatus(), task.getDueDate());
+        return task;
     }
 
     // Delete task
     @Transactional
     public boolean deleteTask(Long id) {
-
         CustomUserDetails currentUser = SecurityUtils.getCurrentUser();
-        Task existingTask = findTaskById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Task not found"));
-        if (!existingTask.getUser().getId().equals(currentUser.getId())) {
-            throw new AccessDeniedException("You do not own this task");
+        TaskStats.Counted before = taskStats.lock(id, currentUser.getId());
+        if (taskRepository.deleteByIdForUser(id, currentUser.getId()) == 0) {
+            throw missingOrForeign(id);
         }
         logger.info("Deleted task: {}", id);
-        taskRepository.deleteById(id);
+        titleIndex.taskRemoved(currentUser.getId(), id);
+        changeStamps.touch(currentUser.getId());
+        taskStats.removed(currentUser.getId(), before);
+        dueDates.cancel(id);
         return true;
     }
 
-    // List tasks by due date
-    public List<Task> findTasksByDueDate(LocalDateTime dueDate) {
-        logger.info("Listing tasks with due date: {}", dueDate);
-        return taskRepository.findByDueDate(dueDate);
-    }
-
-    // List overdue or upcoming tasks
-    public List<Task> findOverdueTasks() {
-        logger.info("Listing overdue tasks");
-        return taskRepository.findOverdueTasks();
-    }
-
-    public List<Task> findUpcomingTasks() {
-        logger.info("Listing upcoming tasks");
-        return taskRepository.findUpcomingTasks();
-    }
-
     // Assign / reassign task to a user
     @Transactional
     public Task assignTaskToUser(Long taskId, User user) {
@@ -206,8 +857,19 @@ public class TaskService {
         User userEntity = userRepository.findById(user.getId())
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
         Task task = findTaskById(taskId).orElseThrow(() -> new IllegalArgumentException("Task not found"));
-        task.setUser(userEntity);
+        User previousOwner = task.getUser();
         logger.info("Assigned task {} to user {}", taskId, userEntity.getId());
-        return taskRepository.save(task);
+        // The owner changes inside tracking, after the row is counted
+        Task savedTask = taskStats.tracking(List.of(taskId), () -> {
+            task.setUser(userEntity);
+            return taskRepository.saveAndFlush(task);
+        });
+        if (previousOwner != null) {
+            titleIndex.taskRemoved(previousOwner.getId(), taskId);
+            changeStamps.touch(previousOwner.getId());
+        }
+        titleIndex.taskSaved(userEntity.getId(), taskId, task.getTitle());
+        changeStamps.touch(userEntity.getId());
+        return savedTask;
     }
 }
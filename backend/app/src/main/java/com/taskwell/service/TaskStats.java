@@ -0,0 +1,337 @@
+package com.taskwell.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.taskwell.model.Task;
+import com.taskwell.model.TaskCategory;
+import com.taskwell.model.TaskPriority;
+import com.taskwell.model.TaskStat;
+import com.taskwell.model.TaskStatus;
+import com.taskwell.repository.TaskRepository;
+import com.taskwell.repository.TaskStatRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.transaction.Transactional;
+
+/**
+ * Per-user task counts by status, category and priority, stored in task_stats
+ * so the dashboard summary reads a handful of rows instead of grouping the
+ * user's tasks. A user's counters are built from the task table on first
+ * read; after that every write applies deltas in its own transaction, so the
+ * summary stays a primary-key read.
+ *
+ * Single-task writes in TaskService lock the task row first so the delta
+ * starts from the values it replaces, and move the task between keys with one
+ * counter UPDATE. Writes that change many tasks at once (bulk operations, the
+ * overdue transitions, archiving) go through tracking: the chunk's rows are
+ * locked and counted before and after the write, one SELECT each, which costs
+ * far less than the full recount a dropped counter set needs on its next read.
+ * Inserts (batch create, import) add the new tasks' keys directly.
+ *
+ * A rebuild that races a write, or a write that bypasses these paths, can
+ * leave counts off; the reconcile job recounts every user with counters and
+ * drops the ones that drifted.
+ */
+@Component
+public class TaskStats {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskStats.class);
+    // Users recounted per page of the reconcile job
+    public static final int RECONCILE_PAGE_SIZE = 500;
+
+    public static final String TOTAL = "total";
+    static final String STATUS = "status";
+    static final String CATEGORY = "category";
+    static final String PRIORITY = "priority";
+    // Bucket for an unset category (or status / priority)
+    static final String NONE = "none";
+
+    private final TaskRepository taskRepository;
+    private final TaskStatRepository taskStatRepository;
+    private final Counter drift;
+
+    // The values a task is counted under
+    public record Counted(TaskStatus status, TaskCategory category, TaskPriority priority) {
+
+        public static Counted of(Task task) {
+            return new Counted(task.getStatus(), task.getCategory(), task.getPriority());
+        }
+
+        Counted withStatus(TaskStatus newStatus) {
+            return new Counted(newStatus, category, priority);
+        }
+
+        Counted withPriority(TaskPriority newPriority) {
+            return new Counted(status, category, newPriority);
+        }
+
+        List<String> keys() {
+            return List.of(TOTAL, key(STATUS, status), key(CATEGORY, category), key(PRIORITY, priority));
+        }
+    }
+
+    public TaskStats(TaskRepository taskRepository, TaskStatRepository taskStatRepository, MeterRegistry registry) {
+        this.taskRepository = taskRepository;
+        this.taskStatRepository = taskStatRepository;
+        this.drift = Counter.builder("taskwell.task-stats.drift")
+                .description("Users whose stored task counts did not match a recount").register(registry);
+    }
+
+    public static String key(String dimension, Enum<?> value) {
+        return dimension + ":" + (value == null ? NONE : value.name());
+    }
+
+    // Locks an owned task's row for the rest of the transaction and returns
+    // what it is counted under, or null if it is missing or foreign
+    public Counted lock(Long taskId, Long userId) {
+        List<Object[]> rows = taskRepository.lockCountedFields(taskId, userId);
+        return rows.isEmpty() ? null : counted(rows.get(0), 0);
+    }
+
+    // The status, category and priority ordinals at row[from..from+2]
+    private static Counted counted(Object[] row, int from) {
+        return new Counted(ordinal(TaskStatus.values(), row[from]), ordinal(TaskCategory.values(), row[from + 1]),
+                ordinal(TaskPriority.values(), row[from + 2]));
+    }
+
+    private static <E extends Enum<E>> E ordinal(E[] values, Object value) {
+        return value == null ? null : values[((Number) value).intValue()];
+    }
+
+    public void added(Long userId, Counted task) {
+        taskStatRepository.addToCounts(userId, task.keys(), 1);
+    }
+
+    public void removed(Long userId, Counted task) {
+        if (task != null) {
+            taskStatRepository.addToCounts(userId, task.keys(), -1);
+        }
+    }
+
+    public void changed(Long userId, Counted before, Counted after) {
+        if (before == null || before.equals(after)) {
+            return;
+        }
+        Set<String> from = new LinkedHashSet<>(before.keys());
+        Set<String> to = new LinkedHashSet<>(after.keys());
+        from.removeAll(after.keys());
+        to.removeAll(before.keys());
+        taskStatRepository.moveCount(userId, from, to);
+    }
+
+    // Runs a write that inserts tasks for one user and counts them in the
+    // same transaction
+    @Transactional
+    public <T> T adding(Long userId, Collection<Counted> tasks, Supplier<T> insert) {
+        T result = insert.get();
+        Map<String, Long> delta = new HashMap<>();
+        for (Counted task : tasks) {
+            for (String key : task.keys()) {
+                delta.merge(key, 1L, Long::sum);
+            }
+        }
+        apply(userId, delta);
+        return result;
+    }
+
+    // A task whose status a tracked write changed, as it stands afterwards
+    public record StatusChange(Long taskId, TaskStatus status, LocalDateTime dueDate) {
+    }
+
+    // Runs a write over the given tasks and applies what it did to their
+    // owners' counters in the same transaction. The rows are locked and
+    // counted before the write and counted again after it, so the deltas are
+    // exact whichever rows the write's own conditions skipped, and cover
+    // deletes and moves to another owner too.
+    @Transactional
+    public <T> T tracking(Collection<Long> taskIds, Supplier<T> write) {
+        return tracking(taskIds, write, change -> {
+        });
+    }
+
+    // The same, also handing each task whose status the write changed to
+    // statusChanged, read from the same locked rows
+    @Transactional
+    public <T> T tracking(Collection<Long> taskIds, Supplier<T> write, Consumer<StatusChange> statusChanged) {
+        Map<Long, Map<String, Long>> deltas = new TreeMap<>();
+        List<Object[]> before = taskRepository.lockCountedFieldsByIds(taskIds);
+        tally(deltas, before, -1);
+        T result = write.get();
+        List<Object[]> after = taskRepository.lockCountedFieldsByIds(taskIds);
+        tally(deltas, after, 1);
+        // Owners in id order, so concurrent chunks lock counters in the same order
+        deltas.forEach(this::apply);
+
+        Map<Long, Object> statusBefore = new HashMap<>();
+        for (Object[] row : before) {
+            statusBefore.put(((Number) row[4]).longValue(), row[1]);
+        }
+        for (Object[] row : after) {
+            Long taskId = ((Number) row[4]).longValue();
+            if (statusBefore.containsKey(taskId) && !Objects.equals(statusBefore.get(taskId), row[1])) {
+                statusChanged.accept(new StatusChange(taskId, ordinal(TaskStatus.values(), row[1]),
+                        toLocalDateTime(row[5])));
+            }
+        }
+        return result;
+    }
+
+    // Native queries hand timestamps back as java.sql.Timestamp or
+    // LocalDateTime depending on the driver
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return value instanceof Timestamp stamp ? stamp.toLocalDateTime() : (LocalDateTime) value;
+    }
+
+    private static void tally(Map<Long, Map<String, Long>> deltas, List<Object[]> rows, long sign) {
+        for (Object[] row : rows) {
+            Map<String, Long> delta = deltas.computeIfAbsent(((Number) row[0]).longValue(),
+                    owner -> new HashMap<>());
+            for (String key : counted(row, 1).keys()) {
+                delta.merge(key, sign, Long::sum);
+            }
+        }
+    }
+
+    // One UPDATE per distinct delta; keys whose changes cancelled out are
+    // left alone
+    private void apply(Long userId, Map<String, Long> delta) {
+        Map<Long, List<String>> keysByDelta = new TreeMap<>();
+        delta.forEach((key, change) -> {
+            if (change != 0) {
+                keysByDelta.computeIfAbsent(change, c -> new ArrayList<>()).add(key);
+            }
+        });
+        keysByDelta.forEach((change, keys) -> taskStatRepository.addToCounts(userId, keys, change));
+    }
+
+    // Drops a user's counters; the next read rebuilds them
+    void invalidate(Long userId) {
+        taskStatRepository.deleteByUser(userId);
+    }
+
+    // The user's counts by key; keys with no tasks may be missing
+    public Map<String, Long> counts(Long userId) {
+        Map<String, Long> counts = new HashMap<>();
+        for (TaskStat stat : taskStatRepository.findByUserId(userId)) {
+            counts.put(stat.getStatKey(), stat.getTaskCount());
+        }
+        if (counts.containsKey(TOTAL)) {
+            return counts;
+        }
+        counts = recount(userId);
+        try {
+            taskStatRepository.saveAll(toRows(userId, counts));
+        } catch (DataIntegrityViolationException e) {
+            // Another request built them first; the recount is still correct
+            logger.debug("Task counters for user {} were built concurrently", userId);
+        }
+        return counts;
+    }
+
+    @Scheduled(fixedDelayString = "${taskwell.task-stats.reconcile-interval:PT1H}",
+            initialDelayString = "${taskwell.task-stats.reconcile-interval:PT1H}")
+    public void reconcile() {
+        Long afterId = 0L;
+        int checked = 0;
+        int repaired = 0;
+        while (true) {
+            List<Long> userIds = taskStatRepository.findUserIdsAfter(afterId,
+                    PageRequest.of(0, RECONCILE_PAGE_SIZE));
+            for (Long userId : userIds) {
+                checked++;
+                if (reconcile(userId)) {
+                    repaired++;
+                }
+            }
+            if (userIds.size() < RECONCILE_PAGE_SIZE) {
+                break;
+            }
+            afterId = userIds.get(userIds.size() - 1);
+        }
+        logger.info("Reconciled task counters: users={}, repaired={}", checked, repaired);
+    }
+
+    // Returns true if the user's counters had drifted and were dropped
+    boolean reconcile(Long userId) {
+        Map<String, Long> stored = new HashMap<>();
+        for (TaskStat stat : taskStatRepository.findByUserId(userId)) {
+            if (stat.getTaskCount() != 0) {
+                stored.put(stat.getStatKey(), stat.getTaskCount());
+            }
+        }
+        if (stored.isEmpty()) {
+            return false;
+        }
+        Map<String, Long> actual = recount(userId);
+        actual.values().removeIf(count -> count == 0);
+        if (Objects.equals(stored, actual)) {
+            return false;
+        }
+        // A write between the two reads can look like drift; dropping the
+        // counters is safe either way
+        logger.warn("Task counters for user {} drifted: stored={}, actual={}", userId, stored, actual);
+        drift.increment();
+        invalidate(userId);
+        return true;
+    }
+
+    private Map<String, Long> recount(Long userId) {
+        Map<String, Long> counts = new HashMap<>();
+        long total = 0;
+        for (Object[] row : taskRepository.countByStatusForUser(userId)) {
+            counts.put(key(STATUS, (TaskStatus) row[0]), (Long) row[1]);
+            total += (Long) row[1];
+        }
+        for (Object[] row : taskRepository.countByCategoryForUser(userId)) {
+            counts.put(key(CATEGORY, (TaskCategory) row[0]), (Long) row[1]);
+        }
+        for (Object[] row : taskRepository.countByPriorityForUser(userId)) {
+            counts.put(key(PRIORITY, (TaskPriority) row[0]), (Long) row[1]);
+        }
+        counts.put(TOTAL, total);
+        return counts;
+    }
+
+    // A row for every possible key, zeros included, so later deltas are plain
+    // UPDATEs that never need to insert
+    private static List<TaskStat> toRows(Long userId, Map<String, Long> counts) {
+        List<String> keys = new ArrayList<>();
+        keys.add(TOTAL);
+        addKeys(keys, STATUS, TaskStatus.values());
+        addKeys(keys, CATEGORY, TaskCategory.values());
+        addKeys(keys, PRIORITY, TaskPriority.values());
+        List<TaskStat> rows = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            rows.add(new TaskStat(userId, key, counts.getOrDefault(key, 0L)));
+        }
+        return rows;
+    }
+
+    private static void addKeys(List<String> keys, String dimension, Enum<?>[] values) {
+        keys.add(key(dimension, null));
+        for (Enum<?> value : values) {
+            keys.add(key(dimension, value));
+        }
+    }
+}
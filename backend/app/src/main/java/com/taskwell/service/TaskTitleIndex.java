@@ -0,0 +1,316 @@
+package com.taskwell.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.taskwell.dto.TitleSuggestion;
+import com.taskwell.repository.TaskRepository;
+
+/**
+ * In-memory, per-user trigram index over task titles for typo-tolerant
+ * autocomplete. A user's index is built from the database on first use and
+ * then kept current by TaskService; indexes of users who have not searched
+ * for a while are evicted (least recently used first) once the estimated
+ * memory use exceeds the configured budget.
+ *
+ * Matching is by prefix of any word in the title, allowing up to two edits
+ * (fewer for short queries). Trigram overlap narrows the candidates, and each
+ * candidate is confirmed with an edit distance check.
+ */
+@Component
+public class TaskTitleIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskTitleIndex.class);
+
+    public static final int MAX_QUERY_LENGTH = 100;
+
+    // Rough per-entry costs, used only to enforce the memory budget
+    private static final long TITLE_OVERHEAD_BYTES = 80;
+    private static final long POSTING_BYTES = 40;
+
+    private final TaskRepository taskRepository;
+    private final long maxBytes;
+
+    // Access-ordered, so iteration starts at the least recently used user
+    private final LinkedHashMap<Long, UserIndex> indexes = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+    // Bumped on every applied change; a rebuild is only cached if none raced it
+    private final AtomicLong changes = new AtomicLong();
+
+    public TaskTitleIndex(TaskRepository taskRepository,
+            @Value("${taskwell.autocomplete.max-bytes:16777216}") long maxBytes) {
+        this.taskRepository = taskRepository;
+        this.maxBytes = maxBytes;
+    }
+
+    public List<TitleSuggestion> suggest(Long userId, String query, int limit) {
+        String normalized = query.trim().toLowerCase(Locale.ROOT);
+        if (normalized.isEmpty() || limit < 1) {
+            return List.of();
+        }
+        synchronized (this) {
+            UserIndex index = indexes.get(userId);
+            if (index != null) {
+                return index.suggest(normalized, limit);
+            }
+        }
+        return loadIndex(userId).suggest(normalized, limit);
+    }
+
+    // The index methods below apply once the surrounding transaction commits,
+    // so a rolled-back write never shows up in suggestions
+
+    public void taskSaved(Long userId, Long taskId, String title) {
+        afterCommit(() -> update(userId, index -> index.put(taskId, title)));
+    }
+
+    public void taskRemoved(Long userId, Long taskId) {
+        afterCommit(() -> update(userId, index -> index.remove(taskId)));
+    }
+
+    // Drops a user's index; it is rebuilt from the database on the next query
+    public void invalidate(Long userId) {
+        afterCommit(() -> {
+            changes.incrementAndGet();
+            synchronized (this) {
+                UserIndex removed = indexes.remove(userId);
+                if (removed != null) {
+                    totalBytes -= removed.bytes;
+                }
+            }
+        });
+    }
+
+    synchronized long estimatedBytes() {
+        return totalBytes;
+    }
+
+    synchronized int cachedUsers() {
+        return indexes.size();
+    }
+
+    private UserIndex loadIndex(Long userId) {
+        long seen = changes.get();
+        UserIndex index = new UserIndex();
+        for (Object[] row : taskRepository.findTitlesByUserId(userId)) {
+            index.put((Long) row[0], (String) row[1]);
+        }
+        synchronized (this) {
+            if (changes.get() == seen && !indexes.containsKey(userId)) {
+                indexes.put(userId, index);
+                totalBytes += index.bytes;
+                evict();
+                logger.debug("Built title index for user {}: {} titles", userId, index.titles.size());
+            }
+        }
+        return index;
+    }
+
+    private void update(Long userId, Consumer<UserIndex> change) {
+        changes.incrementAndGet();
+        synchronized (this) {
+            UserIndex index = indexes.get(userId);
+            if (index == null) {
+                return;
+            }
+            long before = index.bytes;
+            change.accept(index);
+            totalBytes += index.bytes - before;
+            evict();
+        }
+    }
+
+    // Keeps the most recently used index even if it alone exceeds the budget
+    private void evict() {
+        Iterator<Map.Entry<Long, UserIndex>> eldest = indexes.entrySet().iterator();
+        while (totalBytes > maxBytes && indexes.size() > 1 && eldest.hasNext()) {
+            UserIndex removed = eldest.next().getValue();
+            eldest.remove();
+            totalBytes -= removed.bytes;
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    // Edits allowed for a query: none below 4 characters, one below 7, else two
+    static int maxEdits(int queryLength) {
+        return queryLength < 4 ? 0 : queryLength < 7 ? 1 : 2;
+    }
+
+    // Trigrams of each word, padded at the start only so they describe prefixes
+    static Set<String> trigrams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String padded = "$$" + word;
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                grams.add(padded.substring(i, i + 3));
+            }
+        }
+        return grams;
+    }
+
+    // Smallest edit distance between query and any prefix of text, or
+    // limit + 1 once it is certain to exceed limit
+    static int prefixDistance(String query, String text, int limit) {
+        int[] previous = new int[text.length() + 1];
+        int[] current = new int[text.length() + 1];
+        for (int j = 0; j <= text.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= query.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= text.length(); j++) {
+                int cost = query.charAt(i - 1) == text.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > limit) {
+                return limit + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        int best = Integer.MAX_VALUE;
+        for (int value : previous) {
+            best = Math.min(best, value);
+        }
+        return best;
+    }
+
+    private static final class UserIndex {
+        private final Map<Long, String> titles = new HashMap<>();
+        private final Map<String, Set<Long>> postings = new HashMap<>();
+        private long bytes;
+
+        void put(Long taskId, String title) {
+            remove(taskId);
+            if (title == null) {
+                return;
+            }
+            titles.put(taskId, title);
+            Set<String> grams = trigrams(title);
+            for (String gram : grams) {
+                postings.computeIfAbsent(gram, key -> new HashSet<>()).add(taskId);
+            }
+            bytes += weight(title, grams.size());
+        }
+
+        void remove(Long taskId) {
+            String title = titles.remove(taskId);
+            if (title == null) {
+                return;
+            }
+            Set<String> grams = trigrams(title);
+            for (String gram : grams) {
+                Set<Long> ids = postings.get(gram);
+                if (ids != null) {
+                    ids.remove(taskId);
+                    if (ids.isEmpty()) {
+                        postings.remove(gram);
+                    }
+                }
+            }
+            bytes -= weight(title, grams.size());
+        }
+
+        List<TitleSuggestion> suggest(String query, int limit) {
+            int edits = maxEdits(query.length());
+            Set<String> queryGrams = trigrams(query);
+            // Each edit can break at most three trigrams (q-gram lemma); when
+            // that leaves no lower bound every title is a candidate
+            int required = queryGrams.size() - 3 * edits;
+            Iterable<Long> candidates;
+            if (required <= 0) {
+                candidates = titles.keySet();
+            } else {
+                Map<Long, Integer> shared = new HashMap<>();
+                for (String gram : queryGrams) {
+                    for (Long id : postings.getOrDefault(gram, Set.of())) {
+                        shared.merge(id, 1, Integer::sum);
+                    }
+                }
+                List<Long> matching = new ArrayList<>();
+                shared.forEach((id, count) -> {
+                    if (count >= required) {
+                        matching.add(id);
+                    }
+                });
+                candidates = matching;
+            }
+
+            List<Match> matches = new ArrayList<>();
+            for (Long id : candidates) {
+                String title = titles.get(id);
+                Match match = bestMatch(id, title, query, edits);
+                if (match != null) {
+                    matches.add(match);
+                }
+            }
+            matches.sort(Comparator.comparingInt(Match::distance)
+                    .thenComparingInt(Match::position)
+                    .thenComparingInt(match -> match.title().length())
+                    .thenComparingLong(Match::id));
+            return matches.stream()
+                    .limit(limit)
+                    .map(match -> new TitleSuggestion(match.id(), match.title()))
+                    .toList();
+        }
+
+        private static Match bestMatch(Long id, String title, String query, int edits) {
+            String lower = title.toLowerCase(Locale.ROOT);
+            Match best = null;
+            for (int start = 0; start < lower.length(); start++) {
+                boolean wordStart = Character.isLetterOrDigit(lower.charAt(start))
+                        && (start == 0 || !Character.isLetterOrDigit(lower.charAt(start - 1)));
+                if (!wordStart) {
+                    continue;
+                }
+                int distance = prefixDistance(query, lower.substring(start), edits);
+                if (distance <= edits && (best == null || distance < best.distance())) {
+                    best = new Match(id, title, distance, start);
+                }
+            }
+            return best;
+        }
+
+        private static long weight(String title, int gramCount) {
+            return TITLE_OVERHEAD_BYTES + 2L * title.length() + POSTING_BYTES * gramCount;
+        }
+    }
+
+    private record Match(Long id, String title, int distance, int position) {
+    }
+}
@@ -0,0 +1,185 @@
+package com.taskwell.service;
+
+import java.util.List;
+
+/**
+ * Hierarchical hashed timing wheel. Time is counted in whole ticks; level k
+ * has {@code slots} buckets of slots^k ticks each, so the wheel holds
+ * deadlines up to slots^levels ticks past the current tick. A timer sits in
+ * the lowest level whose span covers its distance and moves down a level each
+ * time the wheel reaches the start of its bucket.
+ *
+ * Adding and cancelling a timer are O(1): buckets are intrusive doubly linked
+ * lists. Advancing one tick costs only the timers that expire or move down in
+ * it. Not thread-safe; callers synchronize.
+ */
+public final class TimingWheel<T> {
+
+    public static final class Timer<T> {
+        private final long deadline;
+        private final T payload;
+        private Timer<T> prev;
+        private Timer<T> next;
+        private Bucket<T> bucket;
+
+        private Timer(long deadline, T payload) {
+            this.deadline = deadline;
+            this.payload = payload;
+        }
+
+        public long getDeadline() {
+            return deadline;
+        }
+
+        public T getPayload() {
+            return payload;
+        }
+
+        public boolean isPending() {
+            return bucket != null;
+        }
+    }
+
+    private static final class Bucket<T> {
+        private Timer<T> head;
+
+        void add(Timer<T> timer) {
+            timer.bucket = this;
+            timer.prev = null;
+            timer.next = head;
+            if (head != null) {
+                head.prev = timer;
+            }
+            head = timer;
+        }
+
+        void remove(Timer<T> timer) {
+            if (timer.prev != null) {
+                timer.prev.next = timer.next;
+            } else {
+                head = timer.next;
+            }
+            if (timer.next != null) {
+                timer.next.prev = timer.prev;
+            }
+            timer.prev = null;
+            timer.next = null;
+            timer.bucket = null;
+        }
+
+        // Unlinks and returns the whole list; the timers keep their next links
+        Timer<T> drain() {
+            Timer<T> first = head;
+            head = null;
+            return first;
+        }
+    }
+
+    private final int slots;
+    private final int levels;
+    // spans[k] = slots^k ticks; spans[levels] is the reach of the whole wheel
+    private final long[] spans;
+    private final Bucket<T>[][] buckets;
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(int slots, int levels, long startTick) {
+        if (slots < 2 || levels < 1) {
+            throw new IllegalArgumentException("A timing wheel needs at least 2 slots and 1 level");
+        }
+        this.slots = slots;
+        this.levels = levels;
+        this.spans = new long[levels + 1];
+        spans[0] = 1;
+        for (int k = 1; k <= levels; k++) {
+            spans[k] = Math.multiplyExact(spans[k - 1], slots);
+        }
+        this.buckets = new Bucket[levels][slots];
+        for (int k = 0; k < levels; k++) {
+            for (int i = 0; i < slots; i++) {
+                buckets[k][i] = new Bucket<>();
+            }
+        }
+        this.currentTick = startTick;
+    }
+
+    public long getCurrentTick() {
+        return currentTick;
+    }
+
+    // Number of ticks ahead of the current one the wheel can hold
+    public long getReach() {
+        return spans[levels];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds a timer. A deadline at or before the current tick fires on the next
+     * advance; one at or beyond the reach is rejected.
+     */
+    public Timer<T> add(long deadlineTick, T payload) {
+        if (deadlineTick - currentTick >= spans[levels]) {
+            throw new IllegalArgumentException("Deadline is beyond the wheel's reach");
+        }
+        Timer<T> timer = new Timer<>(deadlineTick, payload);
+        place(timer, Math.max(deadlineTick, currentTick + 1));
+        size++;
+        return timer;
+    }
+
+    // Returns false if the timer already fired or was cancelled
+    public boolean cancel(Timer<T> timer) {
+        if (timer.bucket == null) {
+            return false;
+        }
+        timer.bucket.remove(timer);
+        size--;
+        return true;
+    }
+
+    // Moves the wheel forward to tick, adding the payloads of the timers that
+    // expire on the way to expired, tick by tick
+    public void advanceTo(long tick, List<T> expired) {
+        while (currentTick < tick) {
+            currentTick++;
+            // Highest level first, so a timer can fall through several levels
+            // in one step
+            for (int k = levels - 1; k >= 1; k--) {
+                if (currentTick % spans[k] == 0) {
+                    Timer<T> timer = buckets[k][(int) ((currentTick / spans[k]) % slots)].drain();
+                    while (timer != null) {
+                        Timer<T> next = timer.next;
+                        place(timer, timer.deadline);
+                        timer = next;
+                    }
+                }
+            }
+            Timer<T> timer = buckets[0][(int) (currentTick % slots)].drain();
+            while (timer != null) {
+                Timer<T> next = timer.next;
+                timer.bucket = null;
+                timer.prev = null;
+                timer.next = null;
+                size--;
+                expired.add(timer.payload);
+                timer = next;
+            }
+        }
+    }
+
+    // Puts the timer in the lowest level that covers its distance. Only called
+    // with tick >= currentTick, and tick == currentTick only while cascading,
+    // where level 0's current bucket is drained right after.
+    private void place(Timer<T> timer, long tick) {
+        long distance = tick - currentTick;
+        int level = 0;
+        while (level < levels - 1 && distance >= spans[level + 1]) {
+            level++;
+        }
+        buckets[level][(int) ((tick / spans[level]) % slots)].add(timer);
+    }
+}
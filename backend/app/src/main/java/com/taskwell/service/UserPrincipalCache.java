@@ -0,0 +1,67 @@
+package com.taskwell.service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.taskwell.datasource.ReadWriteRoutingDataSource;
+import com.taskwell.model.User;
+import com.taskwell.repository.UserRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Users by username for authentication and /api/users/me, so signing in and
+ * reading the current user do not query the users table each time. Entries
+ * expire ttl after they are loaded and at most max-size are kept; unknown
+ * usernames are not cached.
+ *
+ * UserService evicts a user whenever something the principal carries changes
+ * (username, role, lock, password, email, verification, deletion): at once,
+ * and again after the transaction commits so a load that raced the write
+ * cannot keep the old state. Misses are always loaded from the primary, so the
+ * reload after an eviction never caches a row a lagging replica still holds
+ * for the whole ttl. Like TaskChangeStamps this assumes writes go
+ * through this instance; other instances pick a change up within the ttl.
+ *
+ * Metrics: cache.gets, cache.puts, cache.evictions (tagged cache=principals).
+ */
+@Component
+public class UserPrincipalCache {
+
+    private final UserRepository userRepository;
+    private final Cache<String, User> users;
+
+    public UserPrincipalCache(UserRepository userRepository, MeterRegistry registry,
+            @Value("${taskwell.principal-cache.ttl:5m}") Duration ttl,
+            @Value("${taskwell.principal-cache.max-size:10000}") long maxSize) {
+        this.userRepository = userRepository;
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, users, "principals");
+    }
+
+    public Optional<User> find(String username) {
+        if (username == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(users.get(username, key -> ReadWriteRoutingDataSource.onPrimary(
+                () -> userRepository.findByUsername(key).orElse(null))));
+    }
+
+    public void evict(String username) {
+        if (username == null) {
+            return;
+        }
+        users.invalidate(username);
+        TaskChangeStamps.afterCommit(() -> users.invalidate(username));
+    }
+}
@@ -1,5 +1,6 @@
 package com.taskwell.service;
 
+import com.taskwell.datasource.ReadOnlyTransactional;
 import com.taskwell.repository.UserRepository;
 import com.taskwell.utils.SecurityUtils;
 import com.taskwell.utils.ValidationUtils;
@@ -31,9 +32,11 @@ public class UserService {
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserPrincipalCache principalCache;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, UserPrincipalCache principalCache) {
         this.userRepository = userRepository;
+        this.principalCache = principalCache;
         this.passwordEncoder = new BCryptPasswordEncoder();
     }
 
@@ -102,6 +105,7 @@ public class UserService {
             user.setVerified(true);
             user.setVerificationToken(null);
             userRepository.save(user);
+            principalCache.evict(user.getUsername());
             logger.info("User {} verified successfully", user.getUsername());
             return true;
         }
@@ -114,22 +118,34 @@ public class UserService {
         User user = userRepository.findById(userId).orElseThrow();
         user.setVerified(verified);
         userRepository.save(user);
+        principalCache.evict(user.getUsername());
     }
 
+    @ReadOnlyTransactional
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
 
     // Find user by ID, username, or email
+    @ReadOnlyTransactional
     public User findByID(Long id) {
         return userRepository.findById(id).orElseThrow(() -> new UsernameNotFoundException("User not found"));
     }
 
+    @ReadOnlyTransactional
     public User findByUsername(String username) {
         return userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
     }
 
+    // The signed-in user, through the principal cache; the methods below that
+    // change what a principal carries evict it
+    public User findPrincipal(String username) {
+        return principalCache.find(username)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+    }
+
+    @ReadOnlyTransactional
     public User findByEmail(String email) {
         if (!SecurityUtils.isVerifiedUser() && !SecurityUtils.isAdmin()) {
             throw new AccessDeniedException("User must be verified");
@@ -156,6 +172,7 @@ public class UserService {
         User user = findByID(id);
         if (ValidationUtils.isValidUsername(newUsername)) {
             if (!isUsernameTaken(newUsername, id)) {
+                principalCache.evict(user.getUsername());
                 user.setUsername(newUsername);
                 logger.info("Username changed for user ID: {} to new username: {}", id, newUsername);
                 return userRepository.save(user);
@@ -184,6 +201,7 @@ public class UserService {
         User user = findByID(id);
         if (ValidationUtils.isValidEmail(newEmail)) {
             if (!isEmailTaken(newEmail)) {
+                principalCache.evict(user.getUsername());
                 user.setEmail(newEmail);
                 logger.info("Email changed for user: {} to new email: {}", user.getUsername(), newEmail);
                 return userRepository.save(user);
@@ -199,6 +217,7 @@ public class UserService {
     public User changeRole(Long id, UserRole newRole) {
         User user = findByID(id);
         user.setRole(newRole);
+        principalCache.evict(user.getUsername());
         logger.info("Set role {} for user: {}", newRole, user.getUsername());
         return userRepository.save(user);
     }
@@ -216,6 +235,7 @@ public class UserService {
         }
         User user = findByID(id); // Throws if not found
         userRepository.delete(user);
+        principalCache.evict(user.getUsername());
         logger.info("User deleted: {}", user.getUsername());
         return true;
     }
@@ -225,6 +245,7 @@ public class UserService {
     public void toggleUserLocked(Long id) {
         User user = findByID(id); // Throws if not found
         user.setLocked(!user.isLocked());
+        principalCache.evict(user.getUsername());
         logger.info("User {} {}", user.isLocked() ? "locked:" : "unlocked:", user.getUsername());
         userRepository.save(user);
     }
@@ -264,6 +285,7 @@ public class UserService {
                     "Password must have at least 8 characters, one uppercase letter, one lowercase letter, one digit, and one special character");
         }
         user.setPassword(passwordEncoder.encode(newPassword));
+        principalCache.evict(user.getUsername());
         logger.info("Password changed for user: {}", user.getUsername());
         return userRepository.save(user);
     }
@@ -0,0 +1,33 @@
+-- Schema as previously generated by Hibernate from the User and Task entities
+
+CREATE TABLE users (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username VARCHAR(255) NOT NULL,
+    password VARCHAR(255),
+    email VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    role VARCHAR(255) NOT NULL,
+    locked BOOLEAN NOT NULL,
+    verified BOOLEAN NOT NULL,
+    verification_token VARCHAR(255),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+-- status, priority and category hold enum ordinals
+CREATE TABLE task (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title VARCHAR(255),
+    description VARCHAR(500),
+    user_id BIGINT,
+    status SMALLINT,
+    due_date TIMESTAMP(6),
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6) NOT NULL,
+    completed_at TIMESTAMP(6),
+    priority SMALLINT,
+    category SMALLINT,
+    CONSTRAINT uk_task_user_title UNIQUE (user_id, title),
+    CONSTRAINT fk_task_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
@@ -0,0 +1,20 @@
+-- Indexes matched to the TaskRepository / UserRepository queries
+
+-- Keyset pagination over (created_at DESC, id DESC), globally and per filter
+CREATE INDEX ix_task_created_at_id ON task (created_at, id);
+CREATE INDEX ix_task_user_created_at_id ON task (user_id, created_at, id);
+CREATE INDEX ix_task_status_created_at_id ON task (status, created_at, id);
+CREATE INDEX ix_task_category_created_at_id ON task (category, created_at, id);
+CREATE INDEX ix_task_priority_created_at_id ON task (priority, created_at, id);
+
+-- Per-user dashboard counts and next due / overdue lists
+CREATE INDEX ix_task_user_status_due_date ON task (user_id, status, due_date);
+
+-- Per-user completions for the productivity chart
+CREATE INDEX ix_task_user_completed_at ON task (user_id, completed_at);
+
+-- Exact due-date lookups and the global overdue / upcoming listings
+CREATE INDEX ix_task_due_date ON task (due_date);
+
+-- Email verification
+CREATE INDEX ix_users_verification_token ON users (verification_token);
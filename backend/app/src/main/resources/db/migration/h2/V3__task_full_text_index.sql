@@ -0,0 +1,3 @@
+-- H2 has no tsvector/GIN; text search falls back to a case-insensitive
+-- substring match (see TaskSearchFunctions), which runs inside the per-user
+-- range of ix_task_user_created_at_id. Kept so both vendors share versions.
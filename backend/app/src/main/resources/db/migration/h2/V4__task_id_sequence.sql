@@ -0,0 +1,9 @@
+-- Task ids come from a sequence so Hibernate can batch inserts (IDENTITY ids
+-- force one round trip per row). The step matches allocationSize on Task.id:
+-- each value hands Hibernate the block of 50 ids ending at it.
+-- H2 databases here are in-memory and start empty, so no resync is needed.
+CREATE SEQUENCE task_seq START WITH 50 INCREMENT BY 50;
+
+-- Plain SQL inserts draw from the same sequence
+ALTER TABLE task ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE task ALTER COLUMN id SET DEFAULT NEXT VALUE FOR task_seq;
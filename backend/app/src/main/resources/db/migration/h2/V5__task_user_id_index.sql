@@ -0,0 +1,2 @@
+-- Bulk delete / reassign walk one owner's tasks in id ranges
+CREATE INDEX ix_task_user_id ON task (user_id, id);
@@ -0,0 +1,2 @@
+-- The overdue sweeper finds tasks by status and due date, across all owners
+CREATE INDEX ix_task_status_due_date ON task (status, due_date);
@@ -0,0 +1,10 @@
+-- Per-user task counters kept by TaskStats: one row per status, category and
+-- priority value ('status:PENDING', 'category:none', ...) plus 'total'. A
+-- user without a 'total' row has no counters yet; they are built on first read.
+CREATE TABLE task_stats (
+    user_id BIGINT NOT NULL,
+    stat_key VARCHAR(40) NOT NULL,
+    task_count BIGINT NOT NULL,
+    CONSTRAINT pk_task_stats PRIMARY KEY (user_id, stat_key),
+    CONSTRAINT fk_task_stats_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
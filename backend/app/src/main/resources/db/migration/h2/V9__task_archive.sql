@@ -0,0 +1,25 @@
+-- Cold tier for ARCHIVED and long-completed tasks, moved here by TaskArchiveService.
+-- Rows keep their task id and are only inserted and, past the retention
+-- period, purged; they are never updated.
+CREATE TABLE task_archive (
+    id BIGINT PRIMARY KEY,
+    title VARCHAR(255),
+    description VARCHAR(500),
+    user_id BIGINT NOT NULL,
+    status SMALLINT,
+    due_date TIMESTAMP(6),
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6) NOT NULL,
+    completed_at TIMESTAMP(6),
+    priority SMALLINT,
+    category SMALLINT,
+    archived_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT fk_task_archive_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+-- Per-user archive listing, newest first, and the retention purge
+CREATE INDEX ix_task_archive_user_created ON task_archive (user_id, created_at, id);
+CREATE INDEX ix_task_archive_archived_at ON task_archive (archived_at);
+
+-- TaskArchiveService looks up completed tasks by completion time
+CREATE INDEX ix_task_status_completed_at ON task (status, completed_at);
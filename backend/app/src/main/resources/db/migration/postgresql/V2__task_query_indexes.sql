@@ -0,0 +1,24 @@
+-- Indexes matched to the TaskRepository / UserRepository queries
+
+-- Keyset pagination over (created_at DESC, id DESC), globally and per filter
+CREATE INDEX IF NOT EXISTS ix_task_created_at_id ON task (created_at, id);
+CREATE INDEX IF NOT EXISTS ix_task_user_created_at_id ON task (user_id, created_at, id);
+CREATE INDEX IF NOT EXISTS ix_task_status_created_at_id ON task (status, created_at, id);
+CREATE INDEX IF NOT EXISTS ix_task_category_created_at_id ON task (category, created_at, id);
+CREATE INDEX IF NOT EXISTS ix_task_priority_created_at_id ON task (priority, created_at, id);
+
+-- Per-user dashboard counts by status
+CREATE INDEX IF NOT EXISTS ix_task_user_status_due_date ON task (user_id, status, due_date);
+
+-- Per-user next due / overdue lists only ever look at unfinished tasks.
+-- 2 is the ordinal of TaskStatus.COMPLETE.
+CREATE INDEX IF NOT EXISTS ix_task_open_user_due_date ON task (user_id, due_date) WHERE status <> 2;
+
+-- Per-user completions for the productivity chart
+CREATE INDEX IF NOT EXISTS ix_task_user_completed_at ON task (user_id, completed_at);
+
+-- Exact due-date lookups and the global overdue / upcoming listings
+CREATE INDEX IF NOT EXISTS ix_task_due_date ON task (due_date);
+
+-- Email verification
+CREATE INDEX IF NOT EXISTS ix_users_verification_token ON users (verification_token);
@@ -0,0 +1,5 @@
+-- Full-text search over task title and description. The expression must stay
+-- identical to the one TaskSearchFunctions renders, or the planner will not
+-- match it to this index.
+CREATE INDEX IF NOT EXISTS ix_task_search_text ON task
+    USING GIN (to_tsvector('english', coalesce(title, '') || ' ' || coalesce(description, '')));
@@ -0,0 +1,10 @@
+-- Task ids come from a sequence so Hibernate can batch inserts (IDENTITY ids
+-- force one round trip per row). The step matches allocationSize on Task.id:
+-- each value hands Hibernate the block of 50 ids ending at it, so the first
+-- value must be at least 50 above the highest existing id.
+CREATE SEQUENCE IF NOT EXISTS task_seq INCREMENT BY 50;
+SELECT setval('task_seq', COALESCE((SELECT MAX(id) FROM task), 0) + 50, false);
+
+-- Plain SQL inserts draw from the same sequence
+ALTER TABLE task ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE task ALTER COLUMN id SET DEFAULT nextval('task_seq');
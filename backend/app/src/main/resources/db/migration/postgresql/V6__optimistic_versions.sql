@@ -0,0 +1,4 @@
+-- Optimistic locking versions for Task and User (@Version). Existing rows
+-- start at 0; conditional task writes compare against and bump this column.
+ALTER TABLE task ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE users ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
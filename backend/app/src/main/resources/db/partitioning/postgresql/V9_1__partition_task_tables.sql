@@ -0,0 +1,118 @@
+-- Optional partitioned schema, applied only with the "partitioned" profile
+-- (see application-partitioned.properties). Rebuilds task and task_archive as
+-- partitioned tables, copies their rows over and recreates every constraint
+-- and index they had up to V9.
+--
+-- task is hashed on user_id into 16 partitions. Nearly every query is scoped
+-- to one owner and prunes to a single partition, and the (user_id, title)
+-- unique constraint can stay, which a created_at range would not allow. The
+-- primary key becomes (id, user_id); ids still come from task_seq.
+--
+-- task_archive is ranged on archived_at by month. TaskPartitionMaintainer
+-- creates the months ahead and detaches and drops the ones past retention.
+
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM task WHERE user_id IS NULL) THEN
+        RAISE EXCEPTION 'task rows without user_id must be removed before partitioning';
+    END IF;
+END $$;
+
+ALTER TABLE task RENAME TO task_unpartitioned;
+
+CREATE TABLE task (
+    id BIGINT NOT NULL DEFAULT nextval('task_seq'),
+    title VARCHAR(255),
+    description VARCHAR(500),
+    user_id BIGINT NOT NULL,
+    status SMALLINT,
+    due_date TIMESTAMP(6),
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6) NOT NULL,
+    completed_at TIMESTAMP(6),
+    priority SMALLINT,
+    category SMALLINT,
+    version BIGINT DEFAULT 0 NOT NULL
+) PARTITION BY HASH (user_id);
+
+DO $$
+BEGIN
+    FOR i IN 0..15 LOOP
+        EXECUTE format('CREATE TABLE task_p%s PARTITION OF task FOR VALUES WITH (MODULUS 16, REMAINDER %s)', i, i);
+    END LOOP;
+END $$;
+
+INSERT INTO task (id, title, description, user_id, status, due_date, created_at, updated_at, completed_at,
+        priority, category, version)
+    SELECT id, title, description, user_id, status, due_date, created_at, updated_at, completed_at,
+        priority, category, version
+    FROM task_unpartitioned;
+
+-- Frees the constraint and index names for the partitioned table. task_seq is
+-- not owned by the column, so it survives.
+DROP TABLE task_unpartitioned;
+
+ALTER TABLE task ADD CONSTRAINT task_pkey PRIMARY KEY (id, user_id);
+ALTER TABLE task ADD CONSTRAINT uk_task_user_title UNIQUE (user_id, title);
+ALTER TABLE task ADD CONSTRAINT fk_task_user FOREIGN KEY (user_id) REFERENCES users (id);
+
+-- V2, V3, V5, V7 and V9 indexes, now created on every partition
+CREATE INDEX ix_task_created_at_id ON task (created_at, id);
+CREATE INDEX ix_task_user_created_at_id ON task (user_id, created_at, id);
+CREATE INDEX ix_task_status_created_at_id ON task (status, created_at, id);
+CREATE INDEX ix_task_category_created_at_id ON task (category, created_at, id);
+CREATE INDEX ix_task_priority_created_at_id ON task (priority, created_at, id);
+CREATE INDEX ix_task_user_status_due_date ON task (user_id, status, due_date);
+CREATE INDEX ix_task_open_user_due_date ON task (user_id, due_date) WHERE status <> 2;
+CREATE INDEX ix_task_user_completed_at ON task (user_id, completed_at);
+CREATE INDEX ix_task_due_date ON task (due_date);
+CREATE INDEX ix_task_search_text ON task
+    USING GIN (to_tsvector('english', coalesce(title, '') || ' ' || coalesce(description, '')));
+CREATE INDEX ix_task_user_id ON task (user_id, id);
+CREATE INDEX ix_task_status_due_date ON task (status, due_date);
+CREATE INDEX ix_task_status_completed_at ON task (status, completed_at);
+
+ALTER TABLE task_archive RENAME TO task_archive_unpartitioned;
+
+CREATE TABLE task_archive (
+    id BIGINT NOT NULL,
+    title VARCHAR(255),
+    description VARCHAR(500),
+    user_id BIGINT NOT NULL,
+    status SMALLINT,
+    due_date TIMESTAMP(6),
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6) NOT NULL,
+    completed_at TIMESTAMP(6),
+    priority SMALLINT,
+    category SMALLINT,
+    archived_at TIMESTAMP(6) NOT NULL
+) PARTITION BY RANGE (archived_at);
+
+-- Months holding existing rows through three months ahead; named the way
+-- TaskPartitionMaintainer names them (task_archive_pYYYYMM)
+DO $$
+DECLARE
+    first_day DATE := date_trunc('month', LEAST(
+        COALESCE((SELECT MIN(archived_at) FROM task_archive_unpartitioned), LOCALTIMESTAMP), LOCALTIMESTAMP))::date;
+BEGIN
+    WHILE first_day <= (date_trunc('month', LOCALTIMESTAMP) + INTERVAL '3 months')::date LOOP
+        EXECUTE format('CREATE TABLE task_archive_p%s PARTITION OF task_archive FOR VALUES FROM (%L) TO (%L)',
+            to_char(first_day, 'YYYYMM'), first_day, (first_day + INTERVAL '1 month')::date);
+        first_day := (first_day + INTERVAL '1 month')::date;
+    END LOOP;
+END $$;
+
+INSERT INTO task_archive (id, title, description, user_id, status, due_date, created_at, updated_at,
+        completed_at, priority, category, archived_at)
+    SELECT id, title, description, user_id, status, due_date, created_at, updated_at, completed_at,
+        priority, category, archived_at
+    FROM task_archive_unpartitioned;
+
+DROP TABLE task_archive_unpartitioned;
+
+ALTER TABLE task_archive ADD CONSTRAINT task_archive_pkey PRIMARY KEY (id, archived_at);
+ALTER TABLE task_archive ADD CONSTRAINT fk_task_archive_user
+    FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE;
+CREATE INDEX ix_task_archive_user_created ON task_archive (user_id, created_at, id);
+CREATE INDEX ix_task_archive_archived_at ON task_archive (archived_at);
@@ -7,6 +7,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -14,6 +15,8 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 import java.time.LocalDateTime;
 
@@ -24,6 +27,7 @@ import com.taskwell.security.CustomUserDetails;
 
 import com.taskwell.model.Task;
 import com.taskwell.repository.TaskRepository;
+import com.taskwell.service.TaskArchiveService;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -38,6 +42,9 @@ class TaskControllerIntegrationTest {
     @Autowired
     private TaskRepository taskRepository;
 
+    @Autowired
+    private TaskArchiveService archiveService;
+
     @Test
     void createTask_VerifiedUser_Success() throws Exception {
         String userJson = """
@@ -422,6 +429,165 @@ class TaskControllerIntegrationTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void updateTask_IfMatch_RejectsStaleVersion() throws Exception {
+        User owner = new User("versionuser", "versionuser@example.com", "GoodPassword1!");
+        owner.setRole(com.taskwell.model.UserRole.USER);
+        owner.setVerified(true);
+        owner = userRepository.save(owner);
+        Task task = new Task("Versioned Task", null);
+        task.setUser(owner);
+        task.setStatus(com.taskwell.model.TaskStatus.PENDING);
+        task.setPriority(com.taskwell.model.TaskPriority.MEDIUM);
+        task.setDueDate(LocalDateTime.now().plusDays(1));
+        Long taskId = taskRepository.saveAndFlush(task).getId();
+        CustomUserDetails principal = new CustomUserDetails(owner);
+        String taskJson = """
+                {
+                    "title": "Edited Task",
+                    "dueDate": "%s",
+                    "priority": "HIGH",
+                    "status": "PENDING"
+                }
+                """.formatted(LocalDateTime.now().plusDays(2).toString());
+
+        mockMvc.perform(get("/api/tasks/{id}", taskId)
+                .with(authentication(
+                        new UsernamePasswordAuthenticationToken(principal, null,
+                                principal.getAuthorities()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(0));
+
+        mockMvc.perform(put("/api/tasks/{id}", taskId)
+                .with(authentication(
+                        new UsernamePasswordAuthenticationToken(principal, null,
+                                principal.getAuthorities())))
+                .header("If-Match", "\"0\"")
+                .contentType("application/json")
+                .content(taskJson))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(jsonPath("$.version").value(1));
+
+        // A second tab still holding version 0
+        mockMvc.perform(put("/api/tasks/{id}", taskId)
+                .with(authentication(
+                        new UsernamePasswordAuthenticationToken(principal, null,
+                                principal.getAuthorities())))
+                .header("If-Match", "\"0\"")
+                .contentType("application/json")
+                .content(taskJson.replace("Edited Task", "Other Edit")))
+                .andExpect(status().isPreconditionFailed());
+
+        assertEquals("Edited Task", taskRepository.findById(taskId).get().getTitle());
+    }
+
+    @Test
+    void getTaskById_IfNoneMatch_NotModified() throws Exception {
+        User owner = new User("etaguser", "etaguser@example.com", "GoodPassword1!");
+        owner.setRole(com.taskwell.model.UserRole.USER);
+        owner.setVerified(true);
+        owner = userRepository.save(owner);
+        Task task = new Task("Cached Task", null);
+        task.setUser(owner);
+        task.setStatus(com.taskwell.model.TaskStatus.PENDING);
+        task.setPriority(com.taskwell.model.TaskPriority.MEDIUM);
+        task.setDueDate(LocalDateTime.now().plusDays(1));
+        Long taskId = taskRepository.saveAndFlush(task).getId();
+        CustomUserDetails principal = new CustomUserDetails(owner);
+
+        String etag = mockMvc.perform(get("/api/tasks/{id}", taskId)
+                .with(authentication(
+                        new UsernamePasswordAuthenticationToken(principal, null,
+                                principal.getAuthorities()))))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-cache, private"))
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotNull(etag);
+
+        mockMvc.perform(get("/api/tasks/{id}", taskId)
+                .with(authentication(
+                        new UsernamePasswordAuthenticationToken(principal, null,
+                                principal.getAuthorities())))
+                .header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag));
+
+        // The same tag is a valid If-Match for a write
+        mockMvc.perform(put("/api/tasks/{id}", taskId)
+                .with(authentication(
+                        new UsernamePasswordAuthenticationToken(principal, null,
+                                principal.getAuthorities())))
+                .header("If-Match", etag)
+                .contentType("application/json")
+                .content("""
+                        {
+                            "title": "Cached Task",
+                            "dueDate": "%s",
+                            "priority": "HIGH",
+                            "status": "PENDING"
+                        }
+                        """.formatted(LocalDateTime.now().plusDays(2).toString())))
+                .andExpect(status().isOk());
+
+        // ...after which the cached copy is stale
+        mockMvc.perform(get("/api/tasks/{id}", taskId)
+                .with(authentication(
+                        new UsernamePasswordAuthenticationToken(principal, null,
+                                principal.getAuthorities())))
+                .header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.priority").value("HIGH"));
+    }
+
+    @Test
+    void getTaskById_IfNoneMatchOnAnotherUsersTask_NotFoundOrForbidden() throws Exception {
+        User owner = new User("etagowner", "etagowner@example.com", "GoodPassword1!");
+        owner.setRole(com.taskwell.model.UserRole.USER);
+        owner.setVerified(true);
+        owner = userRepository.save(owner);
+        User other = new User("etagother", "etagother@example.com", "GoodPassword1!");
+        other.setRole(com.taskwell.model.UserRole.USER);
+        other.setVerified(true);
+        other = userRepository.save(other);
+        Task task = new Task("Private Task", null);
+        task.setUser(owner);
+        task.setStatus(com.taskwell.model.TaskStatus.PENDING);
+        task.setPriority(com.taskwell.model.TaskPriority.MEDIUM);
+        Long taskId = taskRepository.saveAndFlush(task).getId();
+        CustomUserDetails principal = new CustomUserDetails(other);
+
+        mockMvc.perform(get("/api/tasks/{id}", taskId)
+                .with(authentication(
+                        new UsernamePasswordAuthenticationToken(principal, null,
+                                principal.getAuthorities())))
+                .header("If-None-Match", "*"))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(get("/api/tasks/{id}", taskId + 1000)
+                .with(authentication(
+                        new UsernamePasswordAuthenticationToken(principal, null,
+                                principal.getAuthorities())))
+                .header("If-None-Match", "*"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void exportTasks_UnknownFormat_BadRequest() throws Exception {
+        User owner = new User("exportuser", "exportuser@example.com", "GoodPassword1!");
+        owner.setRole(com.taskwell.model.UserRole.USER);
+        owner.setVerified(true);
+        owner = userRepository.save(owner);
+        CustomUserDetails principal = new CustomUserDetails(owner);
+
+        mockMvc.perform(get("/api/tasks/export")
+                .with(authentication(
+                        new UsernamePasswordAuthenticationToken(principal, null,
+                                principal.getAuthorities())))
+                .param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void updateTask_InvalidData_BadRequest() throws Exception {
         String userJson = """
@@ -801,4 +967,608 @@ class TaskControllerIntegrationTest {
                                 principal.getAuthorities()))))
                 .andExpect(status().isNotFound());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAllTasks_Paginated_FollowsCursorToLastPage() throws Exception {
+        String userJson = """
+                {
+                    "username": "pageuser",
+                    "email": "pageuser@example.com",
+                    "password": "GoodPassword1!"
+                }
+                """;
+
+        // Register the user
+        String response = mockMvc.perform(post("/api/users")
+                .contentType("application/json")
+                .content(userJson))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+
+        String token = JsonPath.read(response, "$.token");
+
+        // Verify the user
+        mockMvc.perform(get("/api/users/verify")
+                .param("token", token))
+                .andExpect(status().isOk());
+
+        User pageUser = userRepository.findByUsername("pageuser").get();
+        CustomUserDetails principal = new CustomUserDetails(pageUser);
+
+        // Create three tasks
+        for (int i = 1; i <= 3; i++) {
+            String taskJson = """
+                    {
+                        "title": "Paged Task %d",
+                        "description": "Task description",
+                        "dueDate": "%s",
+                        "priority": "MEDIUM",
+                        "status": "PENDING"
+                    }
+                    """.formatted(i, LocalDateTime.now().plusDays(3).toString());
+
+            mockMvc.perform(post("/api/tasks")
+                    .with(authentication(
+                            new UsernamePasswordAuthenticationToken(principal, null,
+                                    principal.getAuthorities())))
+                    .contentType("application/json")
+                    .content(taskJson))
+                    .andExpect(status().isCreated());
+        }
+
+        // First page holds two tasks and a cursor
+        String cursor = mockMvc.perform(get("/api/tasks")
+                .param("size", "2")
+                .with(authentication(
+                        new UsernamePasswordAuthenticationToken(principal, null,
+                                principal.getAuthorities()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(header().exists("X-Next-Cursor"))
+                .andReturn().getResponse().getHeader("X-Next-Cursor");
+
+        // Second page holds the remaining task and no cursor
+        mockMvc.perform(get("/api/tasks")
+                .param("size", "2")
+                .param("cursor", cursor)
+                .with(authentication(
+                        new UsernamePasswordAuthenticationToken(principal, null,
+                                principal.getAuthorities()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].title").value("Paged Task 1"))
+                .andExpect(jsonPath("$[0].ownerId").value(pageUser.getId()))
+                .andExpect(jsonPath("$[0].user").doesNotExist())
+                .andExpect(jsonPath("$[0].description").doesNotExist())
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    void getAllTasks_InvalidCursor_BadRequest() throws Exception {
+        User user = new User("badcursoruser", "badcursoruser@example.com", "GoodPassword1!");
+        user.setRole(com.taskwell.model.UserRole.USER);
+        user = userRepository.save(user);
+        CustomUserDetails principal = new CustomUserDetails(user);
+
+        mockMvc.perform(get("/api/tasks")
+                .param("cursor", "not-a-cursor")
+                .with(authentication(
+                        new UsernamePasswordAuthenticationToken(principal, null,
+                                principal.getAuthorities()))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getTaskSummary_CountsOnlyCurrentUsersTasks() throws Exception {
+        User owner = new User("summaryuser", "summaryuser@example.com", "GoodPassword1!");
+        owner.setRole(com.taskwell.model.UserRole.USER);
+        owner.setVerified(true);
+        owner = userRepository.save(owner);
+        User other = new User("summaryother", "summaryother@example.com", "GoodPassword1!");
+        other.setRole(com.taskwell.model.UserRole.USER);
+        other.setVerified(true);
+        other = userRepository.save(other);
+
+        Task first = new Task("Summary Task 1", "First");
+        first.setUser(owner);
+        first.setStatus(com.taskwell.model.TaskStatus.PENDING);
+        first.setPriority(com.taskwell.model.TaskPriority.HIGH);
+        first.setCategory(com.taskwell.model.TaskCategory.WORK);
+        first.setDueDate(LocalDateTime.now().plusDays(2));
+        taskRepository.save(first);
+
+        Task second = new Task("Summary Task 2", "Second");
+        second.setUser(owner);
+        second.setStatus(com.taskwell.model.TaskStatus.COMPLETE);
+        second.setPriority(com.taskwell.model.TaskPriority.LOW);
+        second.setDueDate(LocalDateTime.now().plusDays(1));
+        taskRepository.save(second);
+
+        Task foreign = new Task("Other Task", "Not mine");
+        foreign.setUser(other);
+        foreign.setStatus(com.taskwell.model.TaskStatus.PENDING);
+        foreign.setPriority(com.taskwell.model.TaskPriority.HIGH);
+        foreign.setDueDate(LocalDateTime.now().plusDays(1));
+        taskRepository.save(foreign);
+
+        CustomUserDetails principal = new CustomUserDetails(owner);
+
+        mockMvc.perform(get("/api/tasks/summary")
+                .with(authentication(
+                        new UsernamePasswordAuthenticationToken(principal, null,
+                                principal.getAuthorities()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.byStatus.PENDING").value(1))
+                .andExpect(jsonPath("$.byStatus.COMPLETE").value(1))
+                .andExpect(jsonPath("$.byCategory.WORK").value(1))
+                .andExpect(jsonPath("$.uncategorized").value(1))
+                .andExpect(jsonPath("$.byPriority.HIGH").value(1))
+                .andExpect(jsonPath("$.upcoming").value(1))
+                .andExpect(jsonPath("$.overdue").value(0))
+                .andExpect(jsonPath("$.nextDue.length()").value(1))
+                .andExpect(jsonPath("$.nextDue[0].title").value("Summary Task 1"));
+    }
+
+    @Test
+    void getTaskSummary_CountersFollowCompletionAndDeletion() throws Exception {
+        User owner = new User("counteruser", "counteruser@example.com", "GoodPassword1!");
+        owner.setRole(com.taskwell.model.UserRole.USER);
+        owner.setVerified(true);
+        owner = userRepository.save(owner);
+        Task done = searchTask(owner, "Counter Task 1", com.taskwell.model.TaskPriority.HIGH,
+                LocalDateTime.now().plusDays(2));
+        Task gone = searchTask(owner, "Counter Task 2", com.taskwell.model.TaskPriority.LOW,
+                LocalDateTime.now().plusDays(3));
+        CustomUserDetails principal = new CustomUserDetails(owner);
+        UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(principal, null,
+                principal.getAuthorities());
+
+        // The first read builds the counters
+        mockMvc.perform(get("/api/tasks/summary").with(authentication(auth)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.byStatus.PENDING").value(2));
+
+        mockMvc.perform(post("/api/tasks/{id}/complete", done.getId()).with(authentication(auth)))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/tasks/{id}", gone.getId()).with(authentication(auth)))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/tasks/summary").with(authentication(auth)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.byStatus.PENDING").value(0))
+                .andExpect(jsonPath("$.byStatus.COMPLETE").value(1))
+                .andExpect(jsonPath("$.byCategory.WORK").value(1))
+                .andExpect(jsonPath("$.byPriority.HIGH").value(1))
+                .andExpect(jsonPath("$.byPriority.LOW").value(0));
+    }
+
+    @Test
+    void archivedTasks_MovedOutOfTaskListingsAndReadFromArchive() throws Exception {
+        User owner = new User("archiveuser", "archiveuser@example.com", "GoodPassword1!");
+        owner.setRole(com.taskwell.model.UserRole.USER);
+        owner.setVerified(true);
+        owner = userRepository.save(owner);
+        Task kept = searchTask(owner, "Live Task", com.taskwell.model.TaskPriority.LOW, null);
+        Task old = searchTask(owner, "Shelved Task", com.taskwell.model.TaskPriority.HIGH, null);
+        old.setStatus(com.taskwell.model.TaskStatus.ARCHIVED);
+        taskRepository.save(old);
+        CustomUserDetails principal = new CustomUserDetails(owner);
+        UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(principal, null,
+                principal.getAuthorities());
+
+        archiveService.archiveAndPurge();
+
+        mockMvc.perform(get("/api/tasks/user/{userId}", owner.getId()).with(authentication(auth)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(kept.getId()));
+        mockMvc.perform(get("/api/tasks/archive").with(authentication(auth)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(old.getId()))
+                .andExpect(jsonPath("$[0].status").value("ARCHIVED"));
+        mockMvc.perform(get("/api/tasks/archive/{id}", old.getId()).with(authentication(auth)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Shelved Task"))
+                .andExpect(jsonPath("$.ownerId").value(owner.getId()));
+        mockMvc.perform(get("/api/tasks/archive/{id}", kept.getId()).with(authentication(auth)))
+                .andExpect(status().isNotFound());
+    }
+
+    private Task searchTask(User owner, String title, com.taskwell.model.TaskPriority priority,
+            LocalDateTime dueDate) {
+        Task task = new Task(title, null);
+        task.setUser(owner);
+        task.setStatus(com.taskwell.model.TaskStatus.PENDING);
+        task.setPriority(priority);
+        task.setCategory(com.taskwell.model.TaskCategory.WORK);
+        task.setDueDate(dueDate);
+        return taskRepository.save(task);
+    }
+
+    @Test
+    void searchTasks_CombinesFiltersAndPagesInSortOrder() throws Exception {
+        User owner = new User("searchuser", "searchuser@example.com", "GoodPassword1!");
+        owner.setRole(com.taskwell.model.UserRole.USER);
+        owner.setVerified(true);
+        owner = userRepository.save(owner);
+        User other = new User("searchother", "searchother@example.com", "GoodPassword1!");
+        other.setRole(com.taskwell.model.UserRole.USER);
+        other.setVerified(true);
+        other = userRepository.save(other);
+
+        LocalDateTime now = LocalDateTime.now();
+        searchTask(owner, "Due soon", com.taskwell.model.TaskPriority.HIGH, now.plusDays(1));
+        searchTask(owner, "Due later", com.taskwell.model.TaskPriority.HIGH, now.plusDays(5));
+        searchTask(owner, "Low priority", com.taskwell.model.TaskPriority.LOW, now.plusDays(2));
+        searchTask(owner, "No due date", com.taskwell.model.TaskPriority.HIGH, null);
+        searchTask(other, "Not mine", com.taskwell.model.TaskPriority.HIGH, now.plusDays(1));
+
+        CustomUserDetails principal = new CustomUserDetails(owner);
+
+        String cursor = mockMvc.perform(get("/api/tasks/search")
+                .param("status", "pending")
+                .param("priority", "HIGH")
+                .param("sort", "dueDate,asc")
+                .param("size", "2")
+                .with(authentication(
+                        new UsernamePasswordAuthenticationToken(principal, null,
+                                principal.getAuthorities()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].title").value("Due soon"))
+                .andExpect(jsonPath("$[0].rank").doesNotExist())
+                .andExpect(jsonPath("$[1].title").value("Due later"))
+                .andExpect(header().exists("X-Next-Cursor"))
+                .andReturn().getResponse().getHeader("X-Next-Cursor");
+
+        // Tasks without a due date come last
+        mockMvc.perform(get("/api/tasks/search")
+                .param("status", "pending")
+                .param("priority", "HIGH")
+                .param("sort", "dueDate,asc")
+                .param("size", "2")
+                .param("cursor", cursor)
+                .with(authentication(
+                        new UsernamePasswordAuthenticationToken(principal, null,
+                                principal.getAuthorities()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].title").value("No due date"))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+
+        mockMvc.perform(get("/api/tasks/search")
+                .param("category", "WORK")
+                .param("dueFrom", now.toString())
+                .param("dueTo", now.plusDays(3).toString())
+                .param("sort", "title")
+                .with(authentication(
+                        new UsernamePasswordAuthenticationToken(principal, null,
+                                principal.getAuthorities()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].title").value("Due soon"))
+                .andExpect(jsonPath("$[1].title").value("Low priority"));
+    }
+
+    @Test
+    void searchTasks_TextQuery_RanksTitleMatchesFirstAndHighlights() throws Exception {
+        User owner = new User("textuser", "textuser@example.com", "GoodPassword1!");
+        owner.setRole(com.taskwell.model.UserRole.USER);
+        owner.setVerified(true);
+        owner = userRepository.save(owner);
+
+        Task inDescription = searchTask(owner, "Weekly shop", com.taskwell.model.TaskPriority.LOW, null);
+        inDescription.setDescription("Remember the groceries list");
+        taskRepository.save(inDescription);
+        searchTask(owner, "Groceries", com.taskwell.model.TaskPriority.LOW, null);
+        searchTask(owner, "Pay rent", com.taskwell.model.TaskPriority.LOW, null);
+
+        CustomUserDetails principal = new CustomUserDetails(owner);
+
+        mockMvc.perform(get("/api/tasks/search")
+                .param("q", "groceries")
+                .with(authentication(
+                        new UsernamePasswordAuthenticationToken(principal, null,
+                                principal.getAuthorities()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].title").value("Groceries"))
+                .andExpect(jsonPath("$[0].rank").isNumber())
+                .andExpect(jsonPath("$[0].highlight").value(org.hamcrest.Matchers.containsString("<mark>")))
+                .andExpect(jsonPath("$[1].title").value("Weekly shop"))
+                .andExpect(jsonPath("$[1].highlight").value(
+                        org.hamcrest.Matchers.containsString("<mark>groceries</mark>")));
+    }
+
+    @Test
+    void searchTasks_TextQuery_EscapesTaskTextInHighlight() throws Exception {
+        User owner = new User("escapeuser", "escapeuser@example.com", "GoodPassword1!");
+        owner.setRole(com.taskwell.model.UserRole.USER);
+        owner.setVerified(true);
+        owner = userRepository.save(owner);
+
+        Task task = searchTask(owner, "Groceries", com.taskwell.model.TaskPriority.LOW, null);
+        task.setDescription("<img src=x onerror=alert(1)> groceries");
+        taskRepository.save(task);
+
+        CustomUserDetails principal = new CustomUserDetails(owner);
+
+        mockMvc.perform(get("/api/tasks/search")
+                .param("q", "groceries")
+                .with(authentication(
+                        new UsernamePasswordAuthenticationToken(principal, null,
+                                principal.getAuthorities()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].highlight").value(
+                        org.hamcrest.Matchers.containsString("&lt;img src=x onerror=alert(1)&gt;")))
+                .andExpect(jsonPath("$[0].highlight").value(
+                        org.hamcrest.Matchers.not(org.hamcrest.Matchers.containsString("<img"))))
+                .andExpect(jsonPath("$[0].highlight").value(
+                        org.hamcrest.Matchers.containsString("<mark>groceries</mark>")));
+    }
+
+    @Test
+    void searchTasks_TextQueryWithRegexQuoteEnd_MatchesLiterally() throws Exception {
+        User owner = new User("quoteuser", "quoteuser@example.com", "GoodPassword1!");
+        owner.setRole(com.taskwell.model.UserRole.USER);
+        owner.setVerified(true);
+        owner = userRepository.save(owner);
+
+        searchTask(owner, "Fix C:\\Each(dir", com.taskwell.model.TaskPriority.LOW, null);
+
+        CustomUserDetails principal = new CustomUserDetails(owner);
+
+        mockMvc.perform(get("/api/tasks/search")
+                .param("q", "\\Each(")
+                .with(authentication(
+                        new UsernamePasswordAuthenticationToken(principal, null,
+                                principal.getAuthorities()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].highlight").value("Fix C:<mark>\\Each(</mark>dir "));
+    }
+
+    @Test
+    void searchTasks_RelevanceWithoutText_BadRequest() throws Exception {
+        User owner = new User("relevanceuser", "relevanceuser@example.com", "GoodPassword1!");
+        owner.setRole(com.taskwell.model.UserRole.USER);
+        owner = userRepository.save(owner);
+        CustomUserDetails principal = new CustomUserDetails(owner);
+
+        mockMvc.perform(get("/api/tasks/search")
+                .param("sort", "relevance")
+                .with(authentication(
+                        new UsernamePasswordAuthenticationToken(principal, null,
+                                principal.getAuthorities()))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void autocompleteTitles_ToleratesTypos() throws Exception {
+        User owner = new User("autocompleteuser", "autocompleteuser@example.com", "GoodPassword1!");
+        owner.setRole(com.taskwell.model.UserRole.USER);
+        owner.setVerified(true);
+        owner = userRepository.save(owner);
+        searchTask(owner, "Quarterly report", com.taskwell.model.TaskPriority.LOW, null);
+
+        CustomUserDetails principal = new CustomUserDetails(owner);
+
+        mockMvc.perform(get("/api/tasks/autocomplete")
+                .param("q", "quartrely")
+                .with(authentication(
+                        new UsernamePasswordAuthenticationToken(principal, null,
+                                principal.getAuthorities()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].title").value("Quarterly report"));
+    }
+
+    @Test
+    void createTasksBatch_CreatesValidItemsAndReportsInvalidOnes() throws Exception {
+        User owner = new User("batchuser", "batchuser@example.com", "GoodPassword1!");
+        owner.setRole(com.taskwell.model.UserRole.USER);
+        owner.setVerified(true);
+        owner = userRepository.save(owner);
+        CustomUserDetails principal = new CustomUserDetails(owner);
+
+        String due = LocalDateTime.now().plusDays(2).toString();
+        String batchJson = """
+                [
+                    { "title": "Batch one", "dueDate": "%1$s", "priority": "LOW", "status": "PENDING" },
+                    { "title": "", "dueDate": "%1$s", "priority": "LOW", "status": "PENDING" },
+                    { "title": "Batch two", "dueDate": "%1$s", "priority": "HIGH", "status": "PENDING" },
+                    { "title": "Batch one", "dueDate": "%1$s", "priority": "LOW", "status": "PENDING" }
+                ]
+                """.formatted(due);
+
+        mockMvc.perform(post("/api/tasks/batch")
+                .with(authentication(
+                        new UsernamePasswordAuthenticationToken(principal, null,
+                                principal.getAuthorities())))
+                .contentType("application/json")
+                .content(batchJson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created.length()").value(2))
+                .andExpect(jsonPath("$.created[0].index").value(0))
+                .andExpect(jsonPath("$.created[1].index").value(2))
+                .andExpect(jsonPath("$.errors.length()").value(2))
+                .andExpect(jsonPath("$.errors[0].index").value(1))
+                .andExpect(jsonPath("$.errors[1].index").value(3));
+
+        assertEquals(2, taskRepository.findTitlesByUserId(owner.getId()).size());
+    }
+
+    @Test
+    void bulkUpdateStatus_CompletesOnlyOwnedTasks() throws Exception {
+        User owner = new User("bulkuser", "bulkuser@example.com", "GoodPassword1!");
+        owner.setRole(com.taskwell.model.UserRole.USER);
+        owner.setVerified(true);
+        owner = userRepository.save(owner);
+        User other = new User("bulkother", "bulkother@example.com", "GoodPassword1!");
+        other.setRole(com.taskwell.model.UserRole.USER);
+        other.setVerified(true);
+        other = userRepository.save(other);
+
+        Long[] ids = new Long[3];
+        for (int i = 0; i < ids.length; i++) {
+            Task task = new Task("Bulk Task " + i, null);
+            task.setUser(i < 2 ? owner : other);
+            task.setStatus(com.taskwell.model.TaskStatus.PENDING);
+            task.setPriority(com.taskwell.model.TaskPriority.MEDIUM);
+            task.setDueDate(LocalDateTime.now().plusDays(1));
+            ids[i] = taskRepository.save(task).getId();
+        }
+        CustomUserDetails principal = new CustomUserDetails(owner);
+
+        mockMvc.perform(post("/api/tasks/bulk/status")
+                .with(authentication(
+                        new UsernamePasswordAuthenticationToken(principal, null,
+                                principal.getAuthorities())))
+                .contentType("application/json")
+                .content("""
+                        { "ids": [%d, %d, %d], "status": "COMPLETE" }
+                        """.formatted(ids[0], ids[1], ids[2])))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(2));
+
+        Task completed = taskRepository.findById(ids[0]).get();
+        assertEquals(com.taskwell.model.TaskStatus.COMPLETE, completed.getStatus());
+        assertNotNull(completed.getCompletedAt());
+        assertEquals(com.taskwell.model.TaskStatus.PENDING, taskRepository.findById(ids[2]).get().getStatus());
+    }
+
+    @Test
+    void bulkReassign_AdminMovesEveryTaskOfAnotherUser() throws Exception {
+        User admin = new User("bulkadmin", "bulkadmin@example.com", "GoodPassword1!");
+        admin.setRole(com.taskwell.model.UserRole.ADMIN);
+        admin.setVerified(true);
+        admin = userRepository.save(admin);
+        User leaver = new User("bulkleaver", "bulkleaver@example.com", "GoodPassword1!");
+        leaver.setRole(com.taskwell.model.UserRole.USER);
+        leaver = userRepository.save(leaver);
+        User heir = new User("bulkheir", "bulkheir@example.com", "GoodPassword1!");
+        heir.setRole(com.taskwell.model.UserRole.USER);
+        heir = userRepository.save(heir);
+
+        for (int i = 0; i < 2; i++) {
+            Task task = new Task("Handover Task " + i, null);
+            task.setUser(leaver);
+            task.setStatus(com.taskwell.model.TaskStatus.PENDING);
+            task.setPriority(com.taskwell.model.TaskPriority.MEDIUM);
+            task.setDueDate(LocalDateTime.now().plusDays(1));
+            taskRepository.save(task);
+        }
+        CustomUserDetails principal = new CustomUserDetails(admin);
+
+        mockMvc.perform(post("/api/tasks/bulk/reassign")
+                .with(authentication(
+                        new UsernamePasswordAuthenticationToken(principal, null,
+                                principal.getAuthorities())))
+                .contentType("application/json")
+                .content("""
+                        { "ownerId": %d, "all": true, "toUserId": %d }
+                        """.formatted(leaver.getId(), heir.getId())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(2));
+
+        assertEquals(0, taskRepository.findTitlesByUserId(leaver.getId()).size());
+        assertEquals(2, taskRepository.findTitlesByUserId(heir.getId()).size());
+    }
+
+    @Test
+    void bulkDelete_OtherUsersTasksWithoutAdmin_Forbidden() throws Exception {
+        User owner = new User("bulkdeleter", "bulkdeleter@example.com", "GoodPassword1!");
+        owner.setRole(com.taskwell.model.UserRole.USER);
+        owner = userRepository.save(owner);
+        CustomUserDetails principal = new CustomUserDetails(owner);
+
+        mockMvc.perform(post("/api/tasks/bulk/delete")
+                .with(authentication(
+                        new UsernamePasswordAuthenticationToken(principal, null,
+                                principal.getAuthorities())))
+                .contentType("application/json")
+                .content("""
+                        { "ownerId": %d, "all": true }
+                        """.formatted(owner.getId() + 1)))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void streamTasks_OtherUsersTasksWithoutAdmin_Forbidden() throws Exception {
+        User owner = new User("streamer", "streamer@example.com", "GoodPassword1!");
+        owner.setRole(com.taskwell.model.UserRole.USER);
+        owner = userRepository.save(owner);
+        CustomUserDetails principal = new CustomUserDetails(owner);
+
+        mockMvc.perform(get("/api/tasks/stream")
+                .param("userId", String.valueOf(owner.getId() + 1))
+                .with(authentication(
+                        new UsernamePasswordAuthenticationToken(principal, null,
+                                principal.getAuthorities()))))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void searchTasks_InvalidSort_BadRequest() throws Exception {
+        User owner = new User("badsortuser", "badsortuser@example.com", "GoodPassword1!");
+        owner.setRole(com.taskwell.model.UserRole.USER);
+        owner = userRepository.save(owner);
+        CustomUserDetails principal = new CustomUserDetails(owner);
+
+        mockMvc.perform(get("/api/tasks/search")
+                .param("sort", "description,desc")
+                .with(authentication(
+                        new UsernamePasswordAuthenticationToken(principal, null,
+                                principal.getAuthorities()))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getProductivityStats_CountsTodaysActivity() throws Exception {
+        User owner = new User("statsuser", "statsuser@example.com", "GoodPassword1!");
+        owner.setRole(com.taskwell.model.UserRole.USER);
+        owner.setVerified(true);
+        owner = userRepository.save(owner);
+
+        Task done = new Task("Stats Task", "Done today");
+        done.setUser(owner);
+        done.setStatus(com.taskwell.model.TaskStatus.COMPLETE);
+        done.setPriority(com.taskwell.model.TaskPriority.MEDIUM);
+        done.setDueDate(LocalDateTime.now().plusDays(1));
+        done.setCompletedAt(LocalDateTime.now());
+        taskRepository.save(done);
+
+        CustomUserDetails principal = new CustomUserDetails(owner);
+
+        mockMvc.perform(get("/api/tasks/stats/productivity")
+                .param("days", "7")
+                .param("bucket", "day")
+                .with(authentication(
+                        new UsernamePasswordAuthenticationToken(principal, null,
+                                principal.getAuthorities()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(7))
+                .andExpect(jsonPath("$[6].date").value(java.time.LocalDate.now().toString()))
+                .andExpect(jsonPath("$[6].created").value(1))
+                .andExpect(jsonPath("$[6].completed").value(1));
+    }
+
+    @Test
+    void getProductivityStats_InvalidBucket_BadRequest() throws Exception {
+        User owner = new User("statsbadbucket", "statsbadbucket@example.com", "GoodPassword1!");
+        owner.setRole(com.taskwell.model.UserRole.USER);
+        owner = userRepository.save(owner);
+        CustomUserDetails principal = new CustomUserDetails(owner);
+
+        mockMvc.perform(get("/api/tasks/stats/productivity")
+                .param("bucket", "month")
+                .with(authentication(
+                        new UsernamePasswordAuthenticationToken(principal, null,
+                                principal.getAuthorities()))))
+                .andExpect(status().isBadRequest());
+    }
+}
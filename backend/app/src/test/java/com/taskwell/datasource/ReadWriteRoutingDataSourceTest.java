@@ -0,0 +1,125 @@
+package com.taskwell.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.taskwell.model.User;
+import com.taskwell.model.UserRole;
+import com.taskwell.security.CustomUserDetails;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Routing against two local H2 databases, each holding a row that names it,
+ * through the same lazy proxy and transaction manager setup the app uses.
+ */
+class ReadWriteRoutingDataSourceTest {
+    private final AtomicLong nanos = new AtomicLong();
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    private static DataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:routing_" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS marker (name VARCHAR(20))");
+        jdbc.update("DELETE FROM marker");
+        jdbc.update("INSERT INTO marker (name) VALUES (?)", name);
+        return dataSource;
+    }
+
+    @BeforeEach
+    void setUp() {
+        ReadYourWrites readYourWrites = new ReadYourWrites(Duration.ofSeconds(5), nanos::get);
+        DataSource dataSource = new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(database("primary"), database("replica"), readYourWrites));
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void clearUser() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private static void signIn(long userId) {
+        User user = new User("router" + userId, "router" + userId + "@example.com", "GoodPassword1!");
+        user.setId(userId);
+        user.setRole(UserRole.USER);
+        CustomUserDetails principal = new CustomUserDetails(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    private String database(TransactionTemplate transaction) {
+        return transaction.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM marker", String.class));
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() {
+        assertEquals("replica", database(readOnly));
+        assertEquals("primary", database(readWrite));
+        // No transaction at all: the primary
+        assertEquals("primary", jdbcTemplate.queryForObject("SELECT name FROM marker", String.class));
+    }
+
+    @Test
+    void ownReadsStayOnThePrimaryForTheWindowAfterAWrite() {
+        signIn(7L);
+        assertEquals("replica", database(readOnly));
+
+        assertEquals("primary", database(readWrite));
+        assertEquals("primary", database(readOnly));
+
+        signIn(8L);
+        assertEquals("replica", database(readOnly));
+
+        signIn(7L);
+        nanos.addAndGet(Duration.ofSeconds(5).toNanos());
+        assertEquals("replica", database(readOnly));
+    }
+
+    @Test
+    void onPrimaryKeepsReadOnlyTransactionsOnThePrimary() {
+        // An admin's write pins the admin, not the user being locked, whose
+        // next sign-in must still see it
+        signIn(1L);
+        assertEquals("primary", database(readWrite));
+        SecurityContextHolder.clearContext();
+
+        assertEquals("replica", database(readOnly));
+        assertEquals("primary", ReadWriteRoutingDataSource.onPrimary(() -> database(readOnly)));
+        assertEquals("primary", ReadWriteRoutingDataSource.onPrimary(
+                () -> ReadWriteRoutingDataSource.onPrimary(() -> database(readOnly))));
+        // Only for the duration of the call
+        assertEquals("replica", database(readOnly));
+    }
+
+    @Test
+    void rolledBackWriteDoesNotPinTheUser() {
+        signIn(7L);
+        readWrite.executeWithoutResult(status -> {
+            jdbcTemplate.queryForObject("SELECT name FROM marker", String.class);
+            status.setRollbackOnly();
+        });
+
+        assertEquals("replica", database(readOnly));
+    }
+}
@@ -0,0 +1,135 @@
+package com.taskwell.repository;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import javax.sql.DataSource;
+
+/**
+ * The statements repository calls actually send, with the values bound to
+ * them, so the query-plan checks EXPLAIN what Hibernate generates rather than
+ * a hand-written copy of it. Import Config into the test context: it wraps the
+ * application DataSource, which records prepared statements only on a thread
+ * inside record().
+ */
+final class RecordedStatements {
+
+    private static final ThreadLocal<List<Statement>> RECORDING = new ThreadLocal<>();
+
+    private RecordedStatements() {
+    }
+
+    // One prepared statement: its SQL and the setter call that bound each
+    // parameter, by index
+    record Statement(String sql, SortedMap<Integer, Binding> bindings) {
+
+        void bind(PreparedStatement target) throws SQLException {
+            for (Binding binding : bindings.values()) {
+                try {
+                    binding.setter().invoke(target, binding.args());
+                } catch (ReflectiveOperationException e) {
+                    throw new SQLException("Could not replay " + binding.setter().getName(), e);
+                }
+            }
+        }
+
+        // The plan for the statement with the same values bound
+        String explain(JdbcTemplate jdbcTemplate) {
+            return String.join("\n", jdbcTemplate.query("EXPLAIN " + sql, this::bind,
+                    (rs, row) -> rs.getString(1)));
+        }
+    }
+
+    record Binding(Method setter, Object[] args) {
+    }
+
+    // Runs the call in a transaction that is always rolled back, so writes
+    // leave the data as it was, and returns the statements it prepared
+    static List<Statement> record(TransactionTemplate transactions, Runnable call) {
+        List<Statement> statements = new ArrayList<>();
+        RECORDING.set(statements);
+        try {
+            transactions.executeWithoutResult(status -> {
+                status.setRollbackOnly();
+                call.run();
+            });
+        } finally {
+            RECORDING.remove();
+        }
+        return statements;
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        static BeanPostProcessor recordingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource && beanName.equals("dataSource")
+                            ? proxy(DataSource.class, dataSource, RecordedStatements::connection)
+                            : bean;
+                }
+            };
+        }
+    }
+
+    private static Object connection(Object target, Method method, Object[] args) throws Throwable {
+        Object result = invoke(target, method, args);
+        return result instanceof Connection connection
+                ? proxy(Connection.class, connection, RecordedStatements::prepare)
+                : result;
+    }
+
+    private static Object prepare(Object target, Method method, Object[] args) throws Throwable {
+        Object result = invoke(target, method, args);
+        List<Statement> recording = RECORDING.get();
+        if (recording == null || !method.getName().equals("prepareStatement")) {
+            return result;
+        }
+        Statement statement = new Statement((String) args[0], new TreeMap<>());
+        recording.add(statement);
+        return proxy(PreparedStatement.class, (PreparedStatement) result, (prepared, setter, values) -> {
+            // setXxx(index, value[, ...]); one-argument setters are options
+            if (setter.getName().startsWith("set") && values != null && values.length >= 2
+                    && values[0] instanceof Integer index) {
+                statement.bindings().put(index, new Binding(setter, values.clone()));
+            }
+            return invoke(prepared, setter, values);
+        });
+    }
+
+    private interface Handler<T> {
+        Object handle(T target, Method method, Object[] args) throws Throwable;
+    }
+
+    private static <T> T proxy(Class<T> type, T target, Handler<T> handler) {
+        InvocationHandler invocation = (proxy, method, args) -> handler.handle(target, method, args);
+        return type.cast(Proxy.newProxyInstance(RecordedStatements.class.getClassLoader(), new Class<?>[] { type },
+                invocation));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.taskwell.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the optional partitioned schema on a real PostgreSQL database: every
+ * owner-scoped statement the TaskRepository calls send, with the values they
+ * bind, must plan against exactly one hash partition of task. Runs only when
+ * TASKWELL_PG_URL names a scratch database (with TASKWELL_PG_USER /
+ * TASKWELL_PG_PASSWORD), which it migrates.
+ */
+@SpringBootTest
+@Import(RecordedStatements.Config.class)
+@ActiveProfiles("partitioned")
+@EnabledIfEnvironmentVariable(named = "TASKWELL_PG_URL", matches = ".+")
+class TaskPartitionPruningTest {
+    private static final Pattern TASK_PARTITION = Pattern.compile("\\btask_p\\d+\\b");
+    private static final Pattern ARCHIVE_PARTITION = Pattern.compile("\\btask_archive_p\\d{6}\\b");
+    // A statement restricted to one owner, as Hibernate renders it
+    private static final Pattern OWNER_SCOPED = Pattern.compile("\\buser_id\\s*=\\s*\\?");
+    // Inserts route each row to its partition, so there is no scan to prune,
+    // and the scratch database need not hold the owner they reference
+    private static final Set<String> NOT_CHECKED = Set.of("insertAll");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private TransactionTemplate transactions;
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getenv("TASKWELL_PG_URL"));
+        registry.add("spring.datasource.username", () -> System.getenv("TASKWELL_PG_USER"));
+        registry.add("spring.datasource.password", () -> System.getenv("TASKWELL_PG_PASSWORD"));
+        // Separate database: keep it out of the JVM-wide second-level cache
+        registry.add("spring.jpa.properties.hibernate.cache.use_second_level_cache", () -> "false");
+        registry.add("spring.jpa.properties.hibernate.cache.use_query_cache", () -> "false");
+    }
+
+    private Set<String> partitions(Pattern pattern, String sql) {
+        return partitionsIn(pattern, String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class)));
+    }
+
+    private static Set<String> partitionsIn(Pattern pattern, String plan) {
+        Set<String> names = new TreeSet<>();
+        Matcher matcher = pattern.matcher(plan);
+        while (matcher.find()) {
+            names.add(matcher.group());
+        }
+        return names;
+    }
+
+    @Test
+    void ownerScopedQueriesPruneToOnePartition() {
+        List<String> unpruned = new ArrayList<>();
+        TaskRepositoryQueryPlanTest.calls().forEach((method, call) -> {
+            if (NOT_CHECKED.contains(method)) {
+                return;
+            }
+            for (RecordedStatements.Statement statement : RecordedStatements.record(transactions,
+                    () -> call.accept(taskRepository))) {
+                if (!OWNER_SCOPED.matcher(statement.sql()).find()) {
+                    continue;
+                }
+                Set<String> scanned = partitionsIn(TASK_PARTITION, statement.explain(jdbcTemplate));
+                if (scanned.size() != 1) {
+                    unpruned.add(method + ": " + scanned + "\n  " + statement.sql());
+                }
+            }
+        });
+        assertTrue(unpruned.isEmpty(), "Queries not pruned to one partition:\n" + String.join("\n", unpruned));
+    }
+
+    @Test
+    void archiveCutoffSkipsLaterMonths() {
+        Set<String> all = partitions(ARCHIVE_PARTITION, "SELECT id FROM task_archive");
+        LocalDate monthStart = LocalDate.now().withDayOfMonth(1);
+        Set<String> expired = partitions(ARCHIVE_PARTITION,
+                "SELECT id FROM task_archive WHERE archived_at < TIMESTAMP '" + monthStart + " 00:00:00'");
+        assertTrue(expired.size() < all.size(), "Archive cutoff scanned " + expired + " of " + all);
+    }
+}
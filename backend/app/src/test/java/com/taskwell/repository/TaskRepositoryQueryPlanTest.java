@@ -0,0 +1,225 @@
+package com.taskwell.repository;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.taskwell.dto.TaskExportRow;
+import com.taskwell.dto.TaskSearchCursor;
+import com.taskwell.dto.TaskSort;
+import com.taskwell.model.Task;
+import com.taskwell.model.TaskCategory;
+import com.taskwell.model.TaskPriority;
+import com.taskwell.model.TaskStatus;
+import com.taskwell.model.User;
+
+import java.lang.reflect.Method;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Calls every TaskRepository query against a seeded table, runs EXPLAIN for
+ * each statement it sends (see RecordedStatements) and fails if H2 plans a
+ * full table scan. Writes are rolled back. Uses its own in-memory
+ * database so the seed data never leaks into other tests, and without the
+ * second-level cache, whose JCache manager is shared by every context in the
+ * JVM and closed with whichever shuts down first.
+ */
+@SpringBootTest(properties = { "spring.datasource.url=jdbc:h2:mem:queryplans;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false" })
+@Import(RecordedStatements.Config.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TaskRepositoryQueryPlanTest {
+    private static final int USERS = 50;
+    private static final int TASKS_PER_USER = 100;
+
+    // Intentionally unindexed: the whole-table export reads every row by design
+    private static final Set<String> NOT_CHECKED = Set.of("streamAll");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private TransactionTemplate transactions;
+
+    @BeforeAll
+    void seed() {
+        List<Object[]> users = new ArrayList<>();
+        for (int u = 1; u <= USERS; u++) {
+            users.add(new Object[] { "planuser" + u, "planuser" + u + "@example.com", "x", "USER" });
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO users (username, email, password, role, locked, verified) VALUES (?, ?, ?, ?, FALSE, TRUE)",
+                users);
+        List<Long> userIds = jdbcTemplate.queryForList("SELECT id FROM users WHERE username LIKE 'planuser%'",
+                Long.class);
+
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 0, 0);
+        List<Object[]> tasks = new ArrayList<>();
+        int n = 0;
+        for (Long userId : userIds) {
+            for (int i = 0; i < TASKS_PER_USER; i++, n++) {
+                LocalDateTime createdAt = base.plusHours(n);
+                boolean complete = n % 7 == 2;
+                tasks.add(new Object[] {
+                        "Plan Task " + i, userId, n % 7, Timestamp.valueOf(createdAt.plusDays(n % 60 - 30)),
+                        Timestamp.valueOf(createdAt), Timestamp.valueOf(createdAt),
+                        complete ? Timestamp.valueOf(createdAt.plusDays(1)) : null, n % 3, n % 10 });
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO task (title, user_id, status, due_date, created_at, updated_at, "
+                + "completed_at, priority, category) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", tasks);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    // One call of each repository query, keyed by method name; the plans
+    // checked are those of the statements it sends. Also checked for
+    // partition pruning by TaskPartitionPruningTest.
+    static Map<String, Consumer<TaskRepository>> calls() {
+        LocalDateTime cursorAt = LocalDateTime.of(2025, 6, 1, 0, 0);
+        LocalDateTime from = LocalDateTime.of(2025, 2, 1, 0, 0);
+        LocalDateTime now = LocalDateTime.of(2025, 3, 1, 0, 0);
+        List<Long> ids = List.of(50L, 100L, 150L);
+        List<TaskStatus> unfinished = List.of(TaskStatus.PENDING, TaskStatus.IN_PROGRESS);
+        Pageable page = PageRequest.of(0, 50);
+        Map<String, Consumer<TaskRepository>> calls = new LinkedHashMap<>();
+        calls.put("findPage", tasks -> tasks.findPage(cursorAt, 2500L, page));
+        calls.put("findPageByUserId", tasks -> tasks.findPageByUserId(10L, cursorAt, 2500L, page));
+        calls.put("findPageByStatus", tasks -> tasks.findPageByStatus(TaskStatus.IN_PROGRESS, cursorAt, 2500L, page));
+        calls.put("findPageByCategory", tasks -> tasks.findPageByCategory(TaskCategory.HEALTH, cursorAt, 2500L, page));
+        calls.put("findPageByPriority", tasks -> tasks.findPageByPriority(TaskPriority.HIGH, cursorAt, 2500L, page));
+        calls.put("findPageByDueDate",
+                tasks -> tasks.findPageByDueDate(now.plusHours(10), cursorAt, 2500L, page));
+        calls.put("findOverduePage", tasks -> tasks.findOverduePage(cursorAt, 2500L, page));
+        calls.put("findUpcomingPage", tasks -> tasks.findUpcomingPage(cursorAt, 2500L, page));
+        calls.put("countByStatusForUser", tasks -> tasks.countByStatusForUser(10L));
+        calls.put("countByCategoryForUser", tasks -> tasks.countByCategoryForUser(10L));
+        calls.put("countByPriorityForUser", tasks -> tasks.countByPriorityForUser(10L));
+        // Counter deltas lock the task rows by primary key first
+        calls.put("lockCountedFields", tasks -> tasks.lockCountedFields(50L, 10L));
+        calls.put("lockCountedFieldsByIds", tasks -> tasks.lockCountedFieldsByIds(ids));
+        calls.put("countUpcomingForUser", tasks -> tasks.countUpcomingForUser(10L));
+        calls.put("findNextDueForUser", tasks -> tasks.findNextDueForUser(10L, PageRequest.of(0, 5)));
+        calls.put("findOldestOverdueForUser", tasks -> tasks.findOldestOverdueForUser(10L, PageRequest.of(0, 5)));
+        calls.put("countCreatedPerDayForUser", tasks -> tasks.countCreatedPerDayForUser(10L, from));
+        calls.put("countCompletedPerDayForUser", tasks -> tasks.countCompletedPerDayForUser(10L, from));
+        calls.put("findTitlesByUserId", tasks -> tasks.findTitlesByUserId(10L));
+        // Search with every filter set, in its default, due date and relevance orders
+        calls.put("search", tasks -> tasks.search(TaskSpecifications.ownedBy(10L)
+                .and(TaskSpecifications.hasStatus(TaskStatus.IN_PROGRESS))
+                .and(TaskSpecifications.hasPriority(TaskPriority.HIGH))
+                .and(TaskSpecifications.hasCategory(TaskCategory.HEALTH))
+                .and(TaskSpecifications.dueOnOrAfter(from))
+                .and(TaskSpecifications.dueOnOrBefore(now))
+                .and(TaskSpecifications.after(new TaskSearchCursor(TaskSort.defaultSort(), cursorAt, 2500L), null)),
+                null, TaskSort.defaultSort(), 50));
+        calls.put("search (dueDate)", tasks -> tasks.search(TaskSpecifications.ownedBy(10L)
+                .and(TaskSpecifications.hasStatus(TaskStatus.IN_PROGRESS)),
+                null, new TaskSort(TaskSort.Field.DUE_DATE, true), 50));
+        calls.put("search (text)", tasks -> tasks.search(TaskSpecifications.ownedBy(10L)
+                .and(TaskSpecifications.matchesText("plan")), "plan", TaskSort.relevance(), 50));
+        calls.put("completeByIdsForUser", tasks -> tasks.completeByIdsForUser(10L, ids, now));
+        calls.put("updateStatusByIdsForUser",
+                tasks -> tasks.updateStatusByIdsForUser(10L, ids, TaskStatus.ON_HOLD, now));
+        calls.put("streamByUserId", tasks -> {
+            try (Stream<TaskExportRow> rows = tasks.streamByUserId(10L)) {
+                rows.findFirst();
+            }
+        });
+        // Overdue sweep passes, across all owners
+        calls.put("findDueBefore", tasks -> tasks.findDueBefore(unfinished, now, PageRequest.of(0, 1000)));
+        calls.put("findOverdueDueFrom", tasks -> tasks.findOverdueDueFrom(now, PageRequest.of(0, 1000)));
+        calls.put("markOverdue", tasks -> tasks.markOverdue(ids, unfinished, now));
+        calls.put("clearOverdue", tasks -> tasks.clearOverdue(ids, now));
+        // Due-date timer rehydration window and fired-timer check
+        calls.put("findDueWindow",
+                tasks -> tasks.findDueWindow(unfinished, now, 0L, now.plusDays(1), PageRequest.of(0, 1000)));
+        calls.put("findDueByIds", tasks -> tasks.findDueByIds(ids, unfinished));
+        calls.put("deleteByIdsForUser", tasks -> tasks.deleteByIdsForUser(10L, ids));
+        calls.put("reassignByIdsForUser", tasks -> {
+            User owner = new User();
+            owner.setId(11L);
+            tasks.reassignByIdsForUser(10L, ids, owner, now);
+        });
+        // Next keyset chunk of a whole-account or filtered bulk delete / reassign
+        calls.put("findIdsAfter", tasks -> tasks.findIdsAfter(TaskSpecifications.ownedBy(10L)
+                .and(TaskSpecifications.hasPriority(TaskPriority.HIGH)), 1999L, 1000));
+        // Single-task access scoped to its owner
+        calls.put("findByIdAndUserId", tasks -> tasks.findByIdAndUserId(150L, 10L));
+        calls.put("updateForUser", tasks -> tasks.updateForUser(150L, 10L, "T", null, now, TaskPriority.MEDIUM,
+                TaskStatus.IN_PROGRESS, 3L, now));
+        calls.put("completeForUser", tasks -> tasks.completeForUser(150L, 10L, 3L, now));
+        calls.put("uncompleteForUser", tasks -> tasks.uncompleteForUser(150L, 10L, 3L, now));
+        calls.put("insertAll", tasks -> {
+            Task task = new Task();
+            task.setTitle("Imported");
+            task.setStatus(TaskStatus.PENDING);
+            task.setPriority(TaskPriority.MEDIUM);
+            task.setDueDate(now);
+            tasks.insertAll(10L, List.of(task), now);
+        });
+        calls.put("deleteByIdForUser", tasks -> tasks.deleteByIdForUser(150L, 10L));
+        // Cold-tier archiving: candidate reads, then the locked move of one chunk
+        calls.put("findArchivedStatus", tasks -> tasks.findArchivedStatus(PageRequest.of(0, 500)));
+        calls.put("findCompletedBefore", tasks -> tasks.findCompletedBefore(now, PageRequest.of(0, 500)));
+        calls.put("archive", tasks -> tasks.archive(ids, now, now));
+        return calls;
+    }
+
+    @Test
+    void everyRepositoryQueryHasAPlanCheck() {
+        Set<String> declared = java.util.stream.Stream.of(TaskRepository.class, TaskSearchRepository.class)
+                .flatMap(type -> java.util.Arrays.stream(type.getDeclaredMethods()))
+                .map(Method::getName)
+                .filter(name -> !NOT_CHECKED.contains(name))
+                .collect(Collectors.toSet());
+        Set<String> missing = declared.stream()
+                .filter(name -> !calls().containsKey(name))
+                .collect(Collectors.toSet());
+        assertTrue(missing.isEmpty(), "Add EXPLAIN coverage for: " + missing);
+    }
+
+    @Test
+    void noRepositoryQueryScansTheTaskTable() {
+        List<String> scans = new ArrayList<>();
+        calls().forEach((method, call) -> {
+            List<RecordedStatements.Statement> statements = RecordedStatements.record(transactions,
+                    () -> call.accept(taskRepository));
+            assertFalse(statements.isEmpty(), method + " sent no statement");
+            for (RecordedStatements.Statement statement : statements) {
+                String plan = statement.explain(jdbcTemplate);
+                if (plan.contains("tableScan")) {
+                    scans.add(method + ":\n" + plan);
+                }
+            }
+        });
+        assertTrue(scans.isEmpty(), "Full table scans planned for:\n" + String.join("\n\n", scans));
+    }
+
+    @Test
+    void verificationTokenLookupUsesIndex() {
+        String plan = String.join("\n",
+                jdbcTemplate.queryForList("EXPLAIN SELECT * FROM users WHERE verification_token = 'abc'",
+                        String.class));
+        assertFalse(plan.contains("tableScan"), plan);
+    }
+}
@@ -0,0 +1,122 @@
+package com.taskwell.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.taskwell.repository.TaskRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DueDateSchedulerTest {
+    private static final LocalDateTime START = LocalDateTime.of(2025, 3, 1, 12, 0);
+
+    private TaskRepository taskRepository;
+    private TaskChangeStamps changeStamps;
+    private TaskStats taskStats;
+    private ApplicationEventPublisher eventPublisher;
+    private DueDateScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        taskRepository = mock(TaskRepository.class);
+        changeStamps = mock(TaskChangeStamps.class);
+        taskStats = mock(TaskStats.class);
+        when(taskStats.tracking(anyCollection(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        scheduler = new DueDateScheduler(taskRepository, changeStamps, taskStats, eventPublisher,
+                new SimpleMeterRegistry(), Duration.ofMinutes(15), Duration.ofHours(24), 3, START);
+        when(taskRepository.findDueWindow(any(), any(), any(), any(), any())).thenReturn(List.of());
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return new ArrayList<>(List.of(rows));
+    }
+
+    private List<TaskDueEvent> published() {
+        ArgumentCaptor<TaskDueEvent> captor = ArgumentCaptor.forClass(TaskDueEvent.class);
+        verify(eventPublisher, atLeast(0)).publishEvent(captor.capture());
+        return captor.getAllValues();
+    }
+
+    @Test
+    void tick_FiresReminderThenMarksOverdueAtDueDate() {
+        LocalDateTime due = START.plusHours(1);
+        scheduler.refill(START);
+        scheduler.schedule(7L, due);
+        when(taskRepository.findDueByIds(List.of(7L), OverdueSweeper.UNFINISHED))
+                .thenReturn(rows(new Object[] { 7L, 2L, due }));
+
+        scheduler.tick(due.minusMinutes(16));
+        assertTrue(published().isEmpty());
+
+        scheduler.tick(due.minusMinutes(14));
+        assertEquals(List.of(TaskDueEvent.Kind.REMINDER), published().stream().map(TaskDueEvent::getKind).toList());
+        verify(taskRepository, never()).markOverdue(anyList(), any(), any());
+
+        LocalDateTime now = due.plusSeconds(1);
+        scheduler.tick(now);
+        verify(taskRepository).markOverdue(List.of(7L), OverdueSweeper.UNFINISHED, now);
+        verify(changeStamps).touch(2L);
+        verify(taskStats).tracking(eq(List.of(7L)), any());
+        assertEquals(TaskDueEvent.Kind.DUE, published().get(1).getKind());
+        assertEquals(2L, published().get(1).getUserId());
+        assertEquals(0, scheduler.size());
+    }
+
+    @Test
+    void cancel_StopsTheTimer() {
+        scheduler.refill(START);
+        scheduler.schedule(7L, START.plusMinutes(5));
+        scheduler.cancel(7L);
+
+        scheduler.tick(START.plusMinutes(10));
+
+        verifyNoInteractions(eventPublisher);
+        verify(taskRepository, never()).findDueByIds(anyList(), any());
+    }
+
+    @Test
+    void tick_TaskChangedSinceScheduled_DoesNothing() {
+        LocalDateTime due = START.plusMinutes(5);
+        scheduler.refill(START);
+        scheduler.schedule(7L, due);
+        // Another instance moved the due date
+        when(taskRepository.findDueByIds(List.of(7L), OverdueSweeper.UNFINISHED))
+                .thenReturn(rows(new Object[] { 7L, 2L, due.plusDays(1) }));
+
+        scheduler.tick(due.plusSeconds(1));
+
+        verify(taskRepository, never()).markOverdue(anyList(), any(), any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void refill_LoadsWindowUpToTheLimit() {
+        LocalDateTime to = START.plusHours(24);
+        when(taskRepository.findDueWindow(eq(OverdueSweeper.UNFINISHED), eq(START), eq(0L), eq(to), any()))
+                .thenReturn(rows(new Object[] { 1L, 2L, START.plusHours(1) },
+                        new Object[] { 2L, 2L, START.plusHours(2) },
+                        new Object[] { 3L, 2L, START.plusHours(3) },
+                        new Object[] { 4L, 2L, START.plusHours(4) }));
+
+        assertEquals(3, scheduler.refill(START));
+        assertEquals(3, scheduler.size());
+
+        // Beyond the loaded window: left to the next refill
+        scheduler.schedule(9L, to.plusMinutes(1));
+        assertEquals(3, scheduler.size());
+        assertEquals(0, scheduler.refill(START));
+    }
+}
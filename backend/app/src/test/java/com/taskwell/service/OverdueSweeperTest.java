@@ -0,0 +1,93 @@
+package com.taskwell.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.taskwell.repository.TaskRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class OverdueSweeperTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 1, 12, 0);
+
+    private TaskRepository taskRepository;
+    private TaskChangeStamps changeStamps;
+    private TaskStats taskStats;
+    private SimpleMeterRegistry registry;
+    private OverdueSweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        taskRepository = mock(TaskRepository.class);
+        changeStamps = mock(TaskChangeStamps.class);
+        taskStats = mock(TaskStats.class);
+        when(taskStats.tracking(anyCollection(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        registry = new SimpleMeterRegistry();
+        sweeper = new OverdueSweeper(taskRepository, changeStamps, taskStats, registry);
+        when(taskRepository.findDueBefore(any(), any(), any())).thenReturn(List.of());
+        when(taskRepository.findOverdueDueFrom(any(), any())).thenReturn(List.of());
+    }
+
+    private static List<Object[]> rows(int count, Long ownerId, LocalDateTime dueDate) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[] { (long) i, ownerId, dueDate });
+        }
+        return rows;
+    }
+
+    private double rowsCounter(String transition) {
+        return registry.get("taskwell.overdue.sweep.rows").tag("transition", transition).counter().count();
+    }
+
+    @Test
+    void sweep_MarksInChunksUntilAShortOne() {
+        when(taskRepository.findDueBefore(eq(OverdueSweeper.UNFINISHED), eq(NOW), any()))
+                .thenReturn(rows(OverdueSweeper.SWEEP_CHUNK_SIZE, 1L, NOW.minusHours(2)))
+                .thenReturn(rows(3, 2L, NOW.minusMinutes(1)));
+        when(taskRepository.markOverdue(anyList(), eq(OverdueSweeper.UNFINISHED), eq(NOW)))
+                .thenReturn(OverdueSweeper.SWEEP_CHUNK_SIZE, 3);
+
+        assertEquals(OverdueSweeper.SWEEP_CHUNK_SIZE + 3, sweeper.sweep(NOW));
+
+        verify(taskRepository, times(2)).markOverdue(anyList(), any(), any());
+        verify(changeStamps).touch(1L);
+        verify(changeStamps).touch(2L);
+        assertEquals(OverdueSweeper.SWEEP_CHUNK_SIZE + 3, rowsCounter("marked"));
+        assertEquals(7200, registry.get("taskwell.overdue.sweep.lag").gauge().value());
+    }
+
+    @Test
+    void sweep_ClearsOverdueTasksWithFutureDueDates() {
+        when(taskRepository.findOverdueDueFrom(eq(NOW), any())).thenReturn(rows(2, 3L, NOW.plusDays(1)));
+        when(taskRepository.clearOverdue(anyList(), eq(NOW))).thenReturn(2);
+
+        assertEquals(2, sweeper.sweep(NOW));
+
+        verify(taskRepository, never()).markOverdue(anyList(), any(), any());
+        verify(changeStamps).touch(3L);
+        verify(taskStats).tracking(eq(List.of(0L, 1L)), any());
+        assertEquals(2, rowsCounter("cleared"));
+        assertEquals(0, registry.get("taskwell.overdue.sweep.lag").gauge().value());
+    }
+
+    @Test
+    void sweep_FullChunkThatMovesNothing_StopsUntilNextRun() {
+        when(taskRepository.findDueBefore(any(), any(), any()))
+                .thenReturn(rows(OverdueSweeper.SWEEP_CHUNK_SIZE, 1L, NOW.minusHours(1)));
+        when(taskRepository.markOverdue(anyList(), any(), any())).thenReturn(0);
+
+        assertEquals(0, sweeper.sweep(NOW));
+
+        verify(taskRepository, times(1)).markOverdue(anyList(), any(), any());
+    }
+}
@@ -0,0 +1,116 @@
+package com.taskwell.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.taskwell.repository.ArchivedTaskRepository;
+import com.taskwell.repository.TaskRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskArchiveServiceTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 1, 12, 0);
+
+    @Mock
+    private TaskRepository taskRepository;
+    @Mock
+    private ArchivedTaskRepository archivedTaskRepository;
+    @Mock
+    private TaskTitleIndex titleIndex;
+    @Mock
+    private TaskChangeStamps changeStamps;
+    @Mock
+    private TaskStats taskStats;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private TaskArchiveService archiveService;
+
+    // Built by hand: the cutoff and retention are plain values, not mocks
+    @BeforeEach
+    void setUp() {
+        archiveService = new TaskArchiveService(taskRepository, archivedTaskRepository, titleIndex, changeStamps,
+                taskStats, registry, Duration.ofDays(400), Duration.ofDays(3650));
+    }
+
+    // Archive candidates as the finders return them: id, owner id
+    private static List<Object[]> candidates(int count, Long ownerId) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[] { (long) i, ownerId });
+        }
+        return rows;
+    }
+
+    @Test
+    void archive_MovesBothKindsInChunksAndInvalidatesOwners() {
+        LocalDateTime completedBefore = NOW.minusDays(400);
+        List<Object[]> full = candidates(TaskArchiveService.ARCHIVE_CHUNK_SIZE, 2L);
+        List<Object[]> tail = candidates(3, 2L);
+        when(taskStats.tracking(anyCollection(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        when(taskRepository.findArchivedStatus(any())).thenReturn(full, tail);
+        when(taskRepository.findCompletedBefore(eq(completedBefore), any())).thenReturn(candidates(2, 3L));
+        when(taskRepository.archive(anyList(), eq(completedBefore), eq(NOW)))
+                .thenReturn(TaskArchiveService.ARCHIVE_CHUNK_SIZE, 3, 2);
+
+        assertEquals(TaskArchiveService.ARCHIVE_CHUNK_SIZE + 5, archiveService.archive(NOW));
+
+        verify(taskRepository, times(3)).archive(anyList(), eq(completedBefore), eq(NOW));
+        verify(titleIndex, times(2)).invalidate(2L);
+        verify(changeStamps).touch(3L);
+        verify(taskStats, times(3)).tracking(anyList(), any());
+        assertEquals(TaskArchiveService.ARCHIVE_CHUNK_SIZE + 5,
+                registry.get("taskwell.archive.rows").tag("action", "archived").counter().count());
+    }
+
+    @Test
+    void archive_NothingMoved_StopsAndLeavesOwnersAlone() {
+        when(taskStats.tracking(anyCollection(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        when(taskRepository.findArchivedStatus(any()))
+                .thenReturn(candidates(TaskArchiveService.ARCHIVE_CHUNK_SIZE, 2L));
+        when(taskRepository.archive(anyList(), any(), any())).thenReturn(0);
+
+        assertEquals(0, archiveService.archive(NOW));
+
+        verify(taskRepository, times(1)).findArchivedStatus(any());
+        verifyNoInteractions(titleIndex, changeStamps);
+    }
+
+    @Test
+    void constructor_CutoffInsideTheProductivityWindow_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new TaskArchiveService(taskRepository,
+                archivedTaskRepository, titleIndex, changeStamps, taskStats, registry, Duration.ofDays(365),
+                Duration.ofDays(3650)));
+    }
+
+    @Test
+    void purge_DeletesInBatchesUntilAShortOne() {
+        LocalDateTime before = NOW.minusDays(3650);
+        List<Long> full = new ArrayList<>();
+        for (long id = 0; id < TaskArchiveService.PURGE_BATCH_SIZE; id++) {
+            full.add(id);
+        }
+        when(archivedTaskRepository.findIdsArchivedBefore(eq(before), any())).thenReturn(full, List.of(900L));
+        when(archivedTaskRepository.deleteByIds(anyList())).thenReturn(TaskArchiveService.PURGE_BATCH_SIZE, 1);
+
+        assertEquals(TaskArchiveService.PURGE_BATCH_SIZE + 1, archiveService.purge(NOW));
+
+        verify(archivedTaskRepository).deleteByIds(List.of(900L));
+        assertEquals(TaskArchiveService.PURGE_BATCH_SIZE + 1,
+                registry.get("taskwell.archive.rows").tag("action", "purged").counter().count());
+    }
+}
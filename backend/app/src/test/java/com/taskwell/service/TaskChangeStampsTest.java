@@ -0,0 +1,40 @@
+package com.taskwell.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskChangeStampsTest {
+    private TaskChangeStamps stamps;
+
+    @BeforeEach
+    void setUp() {
+        stamps = new TaskChangeStamps();
+    }
+
+    @Test
+    void touch_ChangesOwnAndGlobalTagOnly() {
+        String own = stamps.userTag(1L);
+        String other = stamps.userTag(2L);
+        String global = stamps.globalTag();
+
+        stamps.touch(1L);
+
+        assertNotEquals(own, stamps.userTag(1L));
+        assertEquals(other, stamps.userTag(2L));
+        assertNotEquals(global, stamps.globalTag());
+    }
+
+    @Test
+    void userTag_DiffersBetweenUntouchedUsers() {
+        assertEquals(stamps.userStamp(1L), stamps.userStamp(2L));
+        assertNotEquals(stamps.userTag(1L), stamps.userTag(2L));
+    }
+
+    @Test
+    void userTag_IsWeak() {
+        assertTrue(stamps.userTag(1L).startsWith("W/\""));
+        assertTrue(stamps.userMinuteTag(1L).startsWith("W/\"u1-"));
+    }
+}
@@ -0,0 +1,190 @@
+package com.taskwell.service;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskwell.dto.TaskExportFormat;
+import com.taskwell.dto.TaskExportRow;
+import com.taskwell.model.TaskStatus;
+import com.taskwell.repository.TaskRepository;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Streams a million seeded tasks through TaskExportService and checks that the
+ * live heap stays flat while they are written. Uses its own file-backed H2
+ * database with lazy query execution, so neither the seed data nor the result
+ * set sits on the test heap. The second-level cache is off: its JCache
+ * manager is shared by every context in the JVM, and @DirtiesContext would
+ * close it under the others.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:file:./build/tmp/exportheap/db;LAZY_QUERY_EXECUTION=TRUE",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false" })
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DirtiesContext
+class TaskExportServiceTest {
+    private static final int ROWS = 1_000_000;
+    // Output written between heap samples
+    private static final long SAMPLE_BYTES = 16L * 1024 * 1024;
+    // Allowance for GC noise; a materialized list of a million rows needs
+    // several hundred megabytes
+    private static final long MAX_HEAP_GROWTH = 64L * 1024 * 1024;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private TaskExportService exportService;
+
+    private Long bulkUserId;
+    private Long smallUserId;
+
+    @BeforeAll
+    void seed() {
+        // A run that died before dropDatabase leaves the file behind
+        jdbcTemplate.update("DELETE FROM task");
+        jdbcTemplate.update("DELETE FROM users");
+        bulkUserId = insertUser("exportbulk");
+        smallUserId = insertUser("exportsmall");
+        jdbcTemplate.update("INSERT INTO task (title, user_id, status, due_date, created_at, updated_at, priority, category) "
+                + "SELECT 'Export Task ' || X, ?, MOD(X, 7), DATEADD('HOUR', X, TIMESTAMP '2025-01-01 00:00:00'), "
+                + "TIMESTAMP '2025-01-01 00:00:00', TIMESTAMP '2025-01-01 00:00:00', MOD(X, 3), MOD(X, 10) "
+                + "FROM SYSTEM_RANGE(1, ?)", bulkUserId, ROWS);
+        jdbcTemplate.update("INSERT INTO task (title, user_id, status, created_at, updated_at, priority, category) "
+                + "VALUES ('First', ?, 0, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 1, 0), "
+                + "('Second, \"quoted\"', ?, 2, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 2, 1)", smallUserId, smallUserId);
+    }
+
+    @AfterAll
+    void dropDatabase() {
+        jdbcTemplate.execute("DROP ALL OBJECTS DELETE FILES");
+    }
+
+    private Long insertUser(String username) {
+        jdbcTemplate.update("INSERT INTO users (username, email, password, role, locked, verified) "
+                + "VALUES (?, ?, 'x', 'USER', FALSE, TRUE)", username, username + "@example.com");
+        return jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = ?", Long.class, username);
+    }
+
+    private static long usedHeapAfterGc() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    @Test
+    void writeJson_WritesOneUsersTasksAsArray() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(2, exportService.writeJson(smallUserId, out));
+
+        JsonNode rows = objectMapper.readTree(out.toByteArray());
+        assertEquals(2, rows.size());
+        assertEquals("First", rows.get(0).get("title").asText());
+        assertEquals("COMPLETE", rows.get(1).get("status").asText());
+        assertEquals(smallUserId, rows.get(1).get("ownerId").asLong());
+    }
+
+    private static String gunzip(ByteArrayOutputStream out) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    void export_Ndjson_WritesOneObjectPerLine() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(2, exportService.export(smallUserId, TaskExportFormat.NDJSON, out));
+
+        String[] lines = gunzip(out).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("First", objectMapper.readTree(lines[0]).get("title").asText());
+        assertEquals("Second, \"quoted\"", objectMapper.readTree(lines[1]).get("title").asText());
+    }
+
+    @Test
+    void export_Csv_QuotesTitlesThatNeedIt() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(2, exportService.export(smallUserId, TaskExportFormat.CSV, out));
+
+        String[] lines = gunzip(out).split("\r\n");
+        assertEquals(3, lines.length);
+        assertEquals("id,title,description,status,priority,category,dueDate,completedAt,createdAt,ownerId", lines[0]);
+        assertTrue(lines[1].contains(",First,,PENDING,MEDIUM,"), lines[1]);
+        assertTrue(lines[2].contains(",\"Second, \"\"quoted\"\"\",,COMPLETE,"), lines[2]);
+    }
+
+    @Test
+    void export_PastTimeout_Aborts() {
+        TaskRepository taskRepository = mock(TaskRepository.class);
+        when(taskRepository.streamByUserId(1L)).thenReturn(Stream.of(
+                new TaskExportRow(1L, "Late", null, TaskStatus.PENDING, null, null, null, null, null, 1L)));
+        TaskExportService expired = new TaskExportService(taskRepository, objectMapper, Duration.ZERO);
+
+        assertThrows(IOException.class,
+                () -> expired.export(1L, TaskExportFormat.CSV, new ByteArrayOutputStream()));
+    }
+
+    @Test
+    void writeJson_HeapStaysFlatForAMillionRows() throws IOException {
+        long baseline = usedHeapAfterGc();
+        HeapSamplingOutputStream out = new HeapSamplingOutputStream();
+
+        assertEquals(ROWS, exportService.writeJson(bulkUserId, out));
+
+        assertTrue(out.samples >= 5, "Too few heap samples: " + out.samples);
+        long growth = out.peak - baseline;
+        assertTrue(growth < MAX_HEAP_GROWTH,
+                "Heap grew by " + growth / (1024 * 1024) + " MB while streaming " + out.written / (1024 * 1024) + " MB");
+    }
+
+    // Discards what is written, recording the live heap every SAMPLE_BYTES
+    private static class HeapSamplingOutputStream extends OutputStream {
+        long written;
+        long peak;
+        int samples;
+        private long nextSample = SAMPLE_BYTES;
+
+        @Override
+        public void write(int b) {
+            advance(1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            advance(len);
+        }
+
+        private void advance(long bytes) {
+            written += bytes;
+            if (written >= nextSample) {
+                nextSample += SAMPLE_BYTES;
+                samples++;
+                peak = Math.max(peak, usedHeapAfterGc());
+            }
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.taskwell.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.MockedStatic;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.taskwell.dto.TaskExportFormat;
+import com.taskwell.dto.TaskExportRow;
+import com.taskwell.dto.TaskImportResponse;
+import com.taskwell.model.Task;
+import com.taskwell.model.TaskCategory;
+import com.taskwell.model.TaskPriority;
+import com.taskwell.model.TaskStatus;
+import com.taskwell.model.User;
+import com.taskwell.repository.TaskRepository;
+import com.taskwell.repository.UserRepository;
+import com.taskwell.security.CustomUserDetails;
+import com.taskwell.utils.SecurityUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TaskImportServiceTest {
+    private TaskRepository taskRepository;
+    private TaskTitleIndex titleIndex;
+    private TaskChangeStamps changeStamps;
+    private TaskStats taskStats;
+    private DueDateScheduler dueDates;
+    private TaskImportService importService;
+    private MockedStatic<SecurityUtils> mockedSecurity;
+
+    @BeforeEach
+    void setUp() {
+        taskRepository = mock(TaskRepository.class);
+        UserRepository userRepository = mock(UserRepository.class);
+        titleIndex = mock(TaskTitleIndex.class);
+        changeStamps = mock(TaskChangeStamps.class);
+        taskStats = mock(TaskStats.class);
+        when(taskStats.adding(any(), anyCollection(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(2).get());
+        dueDates = mock(DueDateScheduler.class);
+        importService = new TaskImportService(taskRepository, userRepository, titleIndex, changeStamps, taskStats,
+                dueDates, new ObjectMapper());
+
+        User user = new User();
+        user.setId(1L);
+        user.setVerified(true);
+        mockedSecurity = mockStatic(SecurityUtils.class);
+        mockedSecurity.when(SecurityUtils::getCurrentUser).thenReturn(new CustomUserDetails(user));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(taskRepository.findTitlesByUserId(1L)).thenReturn(List.<Object[]>of(new Object[] { 5L, "Existing" }));
+        when(taskRepository.insertAll(eq(1L), anyList(), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> ids(invocation.getArgument(1)));
+    }
+
+    // Generated ids for an insertAll call, counting up from 100
+    private static List<Long> ids(List<Task> tasks) {
+        return LongStream.range(100, 100 + tasks.size()).boxed().toList();
+    }
+
+    @AfterEach
+    void tearDown() {
+        mockedSecurity.close();
+    }
+
+    private TaskImportResponse importText(TaskExportFormat format, String text) throws IOException {
+        return importService.importTasks(format, new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static List<Long> errorRows(TaskImportResponse response) {
+        return response.getErrors().stream().map(TaskImportResponse.RowError::getRow).toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Task> inserted() {
+        ArgumentCaptor<List<Task>> captor = ArgumentCaptor.forClass(List.class);
+        verify(taskRepository, atLeastOnce()).insertAll(eq(1L), captor.capture(), any(LocalDateTime.class));
+        return captor.getAllValues().stream().flatMap(List::stream).toList();
+    }
+
+    @Test
+    void importTasks_Csv_ReportsBadRowsAndInsertsTheRest() throws IOException {
+        String due = LocalDate.now().plusDays(3).toString();
+        String csv = "title,priority,dueDate,ownerId\r\n"
+                + "\"Pay rent, then \"\"relax\"\"\",HIGH," + due + ",99\r\n"
+                + "Existing,LOW," + due + ",99\r\n"
+                + "Bad priority,URGENT," + due + ",99\r\n"
+                + "Short row\r\n"
+                + "\"Multi\nline\",," + due + ",99\r\n";
+
+        TaskImportResponse response = importText(TaskExportFormat.CSV, csv);
+
+        assertEquals(5, response.getRows());
+        assertEquals(2, response.getImported());
+        assertEquals(List.of(2L, 3L, 4L), errorRows(response));
+        List<Task> tasks = inserted();
+        assertEquals("Pay rent, then \"relax\"", tasks.get(0).getTitle());
+        assertEquals(TaskPriority.HIGH, tasks.get(0).getPriority());
+        assertEquals(TaskStatus.PENDING, tasks.get(0).getStatus());
+        assertEquals("Multi\nline", tasks.get(1).getTitle());
+        assertEquals(TaskPriority.MEDIUM, tasks.get(1).getPriority());
+        verify(titleIndex).invalidate(1L);
+        verify(changeStamps).touch(1L);
+        verify(taskStats).adding(eq(1L), eq(List.of(
+                new TaskStats.Counted(TaskStatus.PENDING, null, TaskPriority.HIGH),
+                new TaskStats.Counted(TaskStatus.PENDING, null, TaskPriority.MEDIUM))), any());
+    }
+
+    @Test
+    void importTasks_Ndjson_SkipsMalformedLinesAndRepeatedTitles() throws IOException {
+        String due = LocalDateTime.now().plusDays(1).withNano(0).toString();
+        String ndjson = "{\"title\":\"One\",\"status\":\"COMPLETE\",\"dueDate\":\"" + due + "\"}\n"
+                + "not json\n"
+                + "\n"
+                + "{\"title\":\"One\",\"dueDate\":\"" + due + "\"}\n"
+                + "{\"title\":\"Two\",\"dueDate\":\"" + due + "\"}\n";
+
+        TaskImportResponse response = importText(TaskExportFormat.NDJSON, ndjson);
+
+        assertEquals(4, response.getRows());
+        assertEquals(2, response.getImported());
+        assertEquals(List.of(2L, 3L), errorRows(response));
+        List<Task> tasks = inserted();
+        assertEquals(TaskStatus.COMPLETE, tasks.get(0).getStatus());
+        assertNotNull(tasks.get(0).getCompletedAt());
+        // Only the unfinished task gets a due timer, under its generated id
+        verify(dueDates).schedule(101L, LocalDateTime.parse(due));
+        verify(dueDates, never()).schedule(eq(100L), any());
+    }
+
+    @Test
+    void importTasks_ConflictingBatch_RetriesRowByRow() throws IOException {
+        String due = LocalDate.now().plusDays(3).toString();
+        when(taskRepository.insertAll(eq(1L), anyList(), any(LocalDateTime.class))).thenAnswer(invocation -> {
+            List<Task> tasks = invocation.getArgument(1);
+            if (tasks.stream().anyMatch(task -> task.getTitle().equals("Taken"))) {
+                throw new DataIntegrityViolationException("uk_task_user_title");
+            }
+            return ids(tasks);
+        });
+
+        TaskImportResponse response = importText(TaskExportFormat.CSV,
+                "title,dueDate\nFree," + due + "\nTaken," + due + "\n");
+
+        assertEquals(1, response.getImported());
+        assertEquals(List.of(2L), errorRows(response));
+    }
+
+    @Test
+    void importTasks_NothingImported_KeepsCaches() throws IOException {
+        TaskImportResponse response = importText(TaskExportFormat.CSV, "title\nExisting\n");
+
+        assertEquals(0, response.getImported());
+        verify(taskRepository, never()).insertAll(any(), anyList(), any());
+        verify(titleIndex, never()).invalidate(any());
+        verify(changeStamps, never()).touch(any());
+    }
+
+    // Exports two tasks through TaskExportService in the given format and
+    // imports the file again; every field the import accepts must survive
+    private void assertRoundTrip(TaskExportFormat format) throws IOException {
+        LocalDateTime due = LocalDateTime.now().plusDays(2).withNano(0);
+        LocalDateTime created = LocalDateTime.now().minusDays(5).withNano(0);
+        TaskRepository source = mock(TaskRepository.class);
+        when(source.streamByUserId(99L)).thenReturn(Stream.of(
+                new TaskExportRow(10L, "Plan \"trip\", part 1", "Line one\nline two, with a comma",
+                        TaskStatus.IN_PROGRESS, TaskPriority.HIGH, TaskCategory.PERSONAL, due, null, created, 99L),
+                new TaskExportRow(11L, "Done already", "Finished \"early\"", TaskStatus.COMPLETE,
+                        TaskPriority.LOW, null, due, created.plusDays(1), created, 99L)));
+        ObjectMapper exportMapper = JsonMapper.builder().findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+        ByteArrayOutputStream exported = new ByteArrayOutputStream();
+        new TaskExportService(source, exportMapper, Duration.ofMinutes(1)).export(99L, format, exported);
+
+        TaskImportResponse response;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(exported.toByteArray()))) {
+            response = importService.importTasks(format, in);
+        }
+
+        assertEquals(2, response.getImported(), () -> String.valueOf(errorRows(response)));
+        List<Task> tasks = inserted();
+        assertEquals("Plan \"trip\", part 1", tasks.get(0).getTitle());
+        assertEquals("Line one\nline two, with a comma", tasks.get(0).getDescription());
+        assertEquals(TaskStatus.IN_PROGRESS, tasks.get(0).getStatus());
+        assertEquals(TaskPriority.HIGH, tasks.get(0).getPriority());
+        assertEquals(TaskCategory.PERSONAL, tasks.get(0).getCategory());
+        assertEquals(due, tasks.get(0).getDueDate());
+        assertEquals("Finished \"early\"", tasks.get(1).getDescription());
+        assertEquals(TaskStatus.COMPLETE, tasks.get(1).getStatus());
+        assertEquals(created.plusDays(1), tasks.get(1).getCompletedAt());
+    }
+
+    @Test
+    void importTasks_CsvExport_RoundTrips() throws IOException {
+        assertRoundTrip(TaskExportFormat.CSV);
+    }
+
+    @Test
+    void importTasks_NdjsonExport_RoundTrips() throws IOException {
+        assertRoundTrip(TaskExportFormat.NDJSON);
+    }
+}
@@ -0,0 +1,65 @@
+package com.taskwell.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TaskPartitionMaintainerTest {
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry registry;
+    private TaskPartitionMaintainer maintainer;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        registry = new SimpleMeterRegistry();
+        maintainer = new TaskPartitionMaintainer(jdbcTemplate, registry, 2, Duration.ofDays(365));
+    }
+
+    @Test
+    void createAhead_CreatesCurrentAndFollowingMonths() {
+        maintainer.createAhead(YearMonth.of(2025, 11));
+
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS task_archive_p202511 PARTITION OF task_archive "
+                + "FOR VALUES FROM ('2025-11-01') TO ('2025-12-01')");
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS task_archive_p202512 PARTITION OF task_archive "
+                + "FOR VALUES FROM ('2025-12-01') TO ('2026-01-01')");
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS task_archive_p202601 PARTITION OF task_archive "
+                + "FOR VALUES FROM ('2026-01-01') TO ('2026-02-01')");
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void dropExpired_DetachesAndDropsOnlyMonthsBeforeTheCutoff() {
+        // Cutoff is 2024-03-15: February ended before it, March has not
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class))).thenReturn(
+                List.of("task_archive_p202401", "task_archive_p202402", "task_archive_p202403", "task_archive_old"));
+
+        assertEquals(2, maintainer.dropExpired(LocalDateTime.of(2025, 3, 15, 8, 0)));
+
+        verify(jdbcTemplate).execute("ALTER TABLE task_archive DETACH PARTITION task_archive_p202401");
+        verify(jdbcTemplate).execute("DROP TABLE task_archive_p202401");
+        verify(jdbcTemplate).execute("ALTER TABLE task_archive DETACH PARTITION task_archive_p202402");
+        verify(jdbcTemplate).execute("DROP TABLE task_archive_p202402");
+        verify(jdbcTemplate, never()).execute("DROP TABLE task_archive_p202403");
+        verify(jdbcTemplate, never()).execute("DROP TABLE task_archive_old");
+        assertEquals(2, registry.get("taskwell.partitions.dropped").counter().count());
+    }
+
+    @Test
+    void monthOf_ParsesOnlyMaintainedNames() {
+        assertEquals(YearMonth.of(2025, 3), TaskPartitionMaintainer.monthOf("task_archive_p202503"));
+        assertNull(TaskPartitionMaintainer.monthOf("task_archive_pold"));
+        assertNull(TaskPartitionMaintainer.monthOf("task_p3"));
+    }
+}
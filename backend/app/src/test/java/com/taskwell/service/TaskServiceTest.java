@@ -17,29 +17,77 @@ import com.taskwell.utils.ValidationUtils;
 
 import java.util.Optional;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.function.Consumer;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 import org.mockito.InjectMocks;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
+import com.taskwell.dto.BatchCreateResponse;
+import com.taskwell.dto.BulkTaskSelection;
+import com.taskwell.dto.CursorPage;
+import com.taskwell.dto.ProductivityBucket;
+import com.taskwell.dto.ProductivityPoint;
+import com.taskwell.dto.TaskCursor;
+import com.taskwell.dto.TaskFilter;
+import com.taskwell.dto.TaskSearchCriteria;
+import com.taskwell.dto.TaskSearchCursor;
+import com.taskwell.dto.TaskSearchHit;
+import com.taskwell.dto.TaskSort;
+import com.taskwell.dto.TaskSummaryResponse;
+import com.taskwell.dto.TaskView;
+
 @ExtendWith(MockitoExtension.class)
 class TaskServiceTest {
     @Mock
     private TaskRepository taskRepository;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private TaskTitleIndex titleIndex;
+    @Mock
+    private TaskChangeStamps changeStamps;
+    @Mock
+    private DueDateScheduler dueDates;
+    @Mock
+    private TaskStats taskStats;
 
     @InjectMocks
     private TaskService taskService;
 
+    // TaskStats is a mock; let the writes it wraps run
+    private void runTrackedWrites() {
+        when(taskStats.tracking(anyCollection(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+    }
+
+    // The same for status writes, reporting the given changes as the real
+    // TaskStats would read them off the locked rows
+    private void runTrackedStatusWrites(TaskStats.StatusChange... changes) {
+        when(taskStats.tracking(anyCollection(), any(), any())).thenAnswer(invocation -> {
+            Object result = invocation.<Supplier<?>>getArgument(1).get();
+            Consumer<TaskStats.StatusChange> statusChanged = invocation.getArgument(2);
+            List.of(changes).forEach(statusChanged);
+            return result;
+        });
+    }
+
     @Test
     void createTask_Success() {
         Task task = new Task();
         task.setTitle("Valid Task Name");
         task.setDueDate(LocalDateTime.now().plusDays(1)); // (Valid due date)
+        task.setStatus(TaskStatus.PENDING);
 
         try (MockedStatic<com.taskwell.utils.SecurityUtils> mockedSecurity = mockStatic(
                 com.taskwell.utils.SecurityUtils.class)) {
@@ -55,9 +103,215 @@ class TaskServiceTest {
             when(taskRepository.save(task)).thenReturn(task);
             Task createdTask = taskService.createTask(task);
             assertEquals("Valid Task Name", createdTask.getTitle());
+            verify(titleIndex).taskSaved(1L, createdTask.getId(), "Valid Task Name");
+            verify(dueDates).schedule(createdTask.getId(), task.getDueDate());
+        }
+    }
+
+    private static Task batchItem(String title) {
+        Task task = new Task(title, null);
+        task.setStatus(TaskStatus.PENDING);
+        task.setPriority(TaskPriority.MEDIUM);
+        task.setDueDate(LocalDateTime.now().plusDays(1));
+        return task;
+    }
+
+    @Test
+    void createTasks_ReportsInvalidItemsAndSavesTheRest() {
+        try (MockedStatic<com.taskwell.utils.SecurityUtils> mockedSecurity = mockStatic(
+                com.taskwell.utils.SecurityUtils.class)) {
+            User user = new User();
+            user.setId(1L);
+            user.setVerified(true);
+            com.taskwell.security.CustomUserDetails principal = new com.taskwell.security.CustomUserDetails(user);
+            mockedSecurity.when(com.taskwell.utils.SecurityUtils::getCurrentUser).thenReturn(principal);
+            when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+            when(taskRepository.findTitlesByUserId(1L)).thenReturn(List.<Object[]>of(new Object[] { 5L, "Existing" }));
+            when(taskStats.adding(eq(1L), anyCollection(), any()))
+                    .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(2).get());
+            when(taskRepository.saveAll(anyList())).thenAnswer(invocation -> {
+                List<Task> saved = invocation.getArgument(0);
+                long id = 100;
+                for (Task task : saved) {
+                    task.setId(id++);
+                }
+                return saved;
+            });
+
+            Task pastDue = batchItem("Past due");
+            pastDue.setDueDate(LocalDateTime.now().minusDays(2));
+            BatchCreateResponse response = taskService.createTasks(List.of(
+                    batchItem("First"), batchItem(""), batchItem("Existing"), pastDue, batchItem("First"),
+                    batchItem("Second")));
+
+            assertEquals(List.of(0, 5), response.getCreated().stream().map(BatchCreateResponse.Created::getIndex)
+                    .toList());
+            assertEquals(List.of(100L, 101L), response.getCreated().stream().map(BatchCreateResponse.Created::getId)
+                    .toList());
+            assertEquals(List.of(1, 2, 3, 4), response.getErrors().stream()
+                    .map(BatchCreateResponse.ItemError::getIndex).toList());
+            verify(userRepository, times(1)).findById(1L);
+            verify(taskRepository, never()).save(any());
+            verify(taskStats).adding(eq(1L), eq(List.of(
+                    new TaskStats.Counted(TaskStatus.PENDING, null, TaskPriority.MEDIUM),
+                    new TaskStats.Counted(TaskStatus.PENDING, null, TaskPriority.MEDIUM))), any());
+            verify(titleIndex).invalidate(1L);
+        }
+    }
+
+    @Test
+    void createTasks_OversizedBatch_ThrowsException() {
+        List<Task> tasks = java.util.Collections.nCopies(TaskService.MAX_BATCH_SIZE + 1, batchItem("Task"));
+
+        assertThrows(IllegalArgumentException.class, () -> taskService.createTasks(tasks));
+        verify(taskRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void updateTask_OverdueMovedToFutureDate_BecomesPending() {
+        try (MockedStatic<com.taskwell.utils.SecurityUtils> mockedSecurity = mockStatic(
+                com.taskwell.utils.SecurityUtils.class)) {
+            User user = new User();
+            user.setId(1L);
+            com.taskwell.security.CustomUserDetails principal = new com.taskwell.security.CustomUserDetails(user);
+            mockedSecurity.when(com.taskwell.utils.SecurityUtils::getCurrentUser).thenReturn(principal);
+            Task edited = batchItem("Moved");
+            edited.setStatus(TaskStatus.OVERDUE);
+            when(taskRepository.updateForUser(eq(7L), eq(1L), eq("Moved"), any(), any(), any(),
+                    eq(TaskStatus.PENDING), isNull(), any(LocalDateTime.class))).thenReturn(1);
+            when(taskRepository.findByIdAndUserId(7L, 1L)).thenReturn(Optional.of(edited));
+
+            taskService.updateTask(7L, edited);
+
+            verify(taskRepository).updateForUser(eq(7L), eq(1L), eq("Moved"), any(), any(), any(),
+                    eq(TaskStatus.PENDING), isNull(), any(LocalDateTime.class));
+        }
+    }
+
+    @Test
+    void updateTask_OverdueWithoutDueDate_ThrowsException() {
+        Task edited = batchItem("Undated");
+        edited.setStatus(TaskStatus.OVERDUE);
+        edited.setDueDate(null);
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> taskService.updateTask(7L, edited));
+
+        assertEquals("Due date is required", error.getMessage());
+        verify(taskRepository, never()).updateForUser(any(), any(), any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void bulkUpdateStatus_CompleteByIds_UsesCompletingUpdate() {
+        try (MockedStatic<com.taskwell.utils.SecurityUtils> mockedSecurity = mockStatic(
+                com.taskwell.utils.SecurityUtils.class)) {
+            User user = new User();
+            user.setId(1L);
+            com.taskwell.security.CustomUserDetails principal = new com.taskwell.security.CustomUserDetails(user);
+            mockedSecurity.when(com.taskwell.utils.SecurityUtils::getCurrentUser).thenReturn(principal);
+            runTrackedStatusWrites(new TaskStats.StatusChange(3L, TaskStatus.COMPLETE, null),
+                    new TaskStats.StatusChange(4L, TaskStatus.COMPLETE, LocalDateTime.now().plusHours(1)));
+            when(taskRepository.completeByIdsForUser(eq(1L), eq(List.of(3L, 4L)), any(LocalDateTime.class)))
+                    .thenReturn(2);
+
+            assertEquals(2, taskService.bulkUpdateStatus(List.of(3L, 4L), null, TaskStatus.COMPLETE));
+            verify(taskRepository, never()).updateStatusByIdsForUser(any(), any(), any(), any());
+            verify(taskStats).tracking(eq(List.of(3L, 4L)), any(), any());
+            verify(dueDates).cancel(3L);
+            verify(dueDates).cancel(4L);
+            verify(dueDates, never()).schedule(any(), any());
         }
     }
 
+    @Test
+    void bulkUpdateStatus_ReopenByIds_SchedulesTheReopenedTasks() {
+        try (MockedStatic<com.taskwell.utils.SecurityUtils> mockedSecurity = mockStatic(
+                com.taskwell.utils.SecurityUtils.class)) {
+            User user = new User();
+            user.setId(1L);
+            com.taskwell.security.CustomUserDetails principal = new com.taskwell.security.CustomUserDetails(user);
+            mockedSecurity.when(com.taskwell.utils.SecurityUtils::getCurrentUser).thenReturn(principal);
+            // Task 4 was already pending, so only 3 comes back as changed
+            LocalDateTime due = LocalDateTime.now().plusMinutes(30);
+            runTrackedStatusWrites(new TaskStats.StatusChange(3L, TaskStatus.PENDING, due));
+            when(taskRepository.updateStatusByIdsForUser(eq(1L), eq(List.of(3L, 4L)), eq(TaskStatus.PENDING),
+                    any(LocalDateTime.class))).thenReturn(1);
+
+            assertEquals(1, taskService.bulkUpdateStatus(List.of(3L, 4L), null, TaskStatus.PENDING));
+            verify(dueDates).schedule(3L, due);
+            verify(dueDates, never()).schedule(eq(4L), any());
+            verify(dueDates, never()).cancel(any());
+        }
+    }
+
+    @Test
+    void bulkUpdateStatus_IdsAndFilter_ThrowsException() {
+        TaskFilter filter = new TaskFilter();
+        filter.setStatus(TaskStatus.PENDING);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> taskService.bulkUpdateStatus(List.of(1L), filter, TaskStatus.COMPLETE));
+        assertThrows(IllegalArgumentException.class,
+                () -> taskService.bulkUpdateStatus(null, null, TaskStatus.COMPLETE));
+    }
+
+    @Test
+    void bulkDelete_All_DeletesOneKeysetChunkAtATime() {
+        try (MockedStatic<com.taskwell.utils.SecurityUtils> mockedSecurity = mockStatic(
+                com.taskwell.utils.SecurityUtils.class)) {
+            User user = new User();
+            user.setId(1L);
+            com.taskwell.security.CustomUserDetails principal = new com.taskwell.security.CustomUserDetails(user);
+            mockedSecurity.when(com.taskwell.utils.SecurityUtils::getCurrentUser).thenReturn(principal);
+            runTrackedWrites();
+            when(taskRepository.findIdsAfter(any(), eq(0L), eq(TaskService.BULK_CHUNK_SIZE)))
+                    .thenReturn(List.of(3L, 70L));
+            when(taskRepository.findIdsAfter(any(), eq(70L), eq(TaskService.BULK_CHUNK_SIZE)))
+                    .thenReturn(List.of(90000L));
+            when(taskRepository.findIdsAfter(any(), eq(90000L), eq(TaskService.BULK_CHUNK_SIZE)))
+                    .thenReturn(List.of());
+            when(taskRepository.deleteByIdsForUser(1L, List.of(3L, 70L))).thenReturn(2);
+            when(taskRepository.deleteByIdsForUser(1L, List.of(90000L))).thenReturn(1);
+            BulkTaskSelection selection = new BulkTaskSelection();
+            selection.setAll(true);
+
+            assertEquals(3, taskService.bulkDelete(selection));
+            verify(taskRepository, times(2)).deleteByIdsForUser(eq(1L), any());
+            verify(dueDates).cancel(3L);
+            verify(dueDates).cancel(70L);
+            verify(dueDates).cancel(90000L);
+            verify(titleIndex).invalidate(1L);
+        }
+    }
+
+    @Test
+    void bulkDelete_OtherOwnerWithoutAdmin_ThrowsException() {
+        try (MockedStatic<com.taskwell.utils.SecurityUtils> mockedSecurity = mockStatic(
+                com.taskwell.utils.SecurityUtils.class)) {
+            User user = new User();
+            user.setId(1L);
+            com.taskwell.security.CustomUserDetails principal = new com.taskwell.security.CustomUserDetails(user);
+            mockedSecurity.when(com.taskwell.utils.SecurityUtils::getCurrentUser).thenReturn(principal);
+            mockedSecurity.when(com.taskwell.utils.SecurityUtils::isAdmin).thenReturn(false);
+            BulkTaskSelection selection = new BulkTaskSelection();
+            selection.setOwnerId(2L);
+            selection.setAll(true);
+
+            assertThrows(org.springframework.security.access.AccessDeniedException.class,
+                    () -> taskService.bulkDelete(selection));
+            verify(taskRepository, never()).deleteByIdsForUser(any(), any());
+        }
+    }
+
+    @Test
+    void bulkUpdateStatus_TooManyIds_ThrowsException() {
+        List<Long> ids = java.util.stream.LongStream.rangeClosed(1, TaskService.MAX_BULK_IDS + 1).boxed().toList();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> taskService.bulkUpdateStatus(ids, null, TaskStatus.ON_HOLD));
+        verify(taskRepository, never()).updateStatusByIdsForUser(any(), any(), any(), any());
+    }
+
     @Test
     void createTask_EmptyName_ThrowsException() {
         Task task = new Task();
@@ -202,186 +456,290 @@ class TaskServiceTest {
         assertFalse(foundTask.isPresent());
     }
 
-    @Test
-    void findAllTasks_Success() {
-        taskService.findAllTasks();
-        verify(taskRepository).findAll();
+    private static TaskView view(Long id, LocalDateTime createdAt) {
+        return new TaskView(id, "Task " + id, TaskStatus.PENDING, TaskPriority.MEDIUM, null, null, null, createdAt, 1L);
     }
 
     @Test
-    void findTasksByUser_Success() {
-        Task task = new Task();
-        task.setId(1L);
-        User user = new User();
-        user.setId(1L);
-        task.setUser(user);
-        when(taskRepository.findByUser(any())).thenReturn(java.util.List.of(task));
-        List<Task> tasks = taskService.findTasksByUser(user);
-        assertEquals(1, tasks.size());
-        assertEquals(task, tasks.get(0));
-        verify(taskRepository).findByUser(user);
+    void findAllTasks_Paged_NextCursorPointsAtLastItem() {
+        TaskView first = view(7L, LocalDateTime.of(2025, 1, 2, 10, 0));
+        TaskView last = view(5L, LocalDateTime.of(2025, 1, 1, 10, 0));
+        when(taskRepository.findPage(any(), any(), any()))
+                .thenReturn(new SliceImpl<>(List.of(first, last), PageRequest.of(0, 2), true));
+
+        CursorPage<TaskView> page = taskService.findAllTasks(null, 2);
+
+        assertEquals(2, page.getItems().size());
+        assertTrue(page.hasNext());
+        TaskCursor next = TaskCursor.decode(page.getNext());
+        assertEquals(5L, next.getId());
+        assertEquals(LocalDateTime.of(2025, 1, 1, 10, 0), next.getCreatedAt());
+        verify(taskRepository).findPage(TaskCursor.start().getCreatedAt(), TaskCursor.start().getId(),
+                PageRequest.of(0, 2));
     }
 
     @Test
-    void findTaskByUser_NoTasks_ReturnsEmptyList() {
-        User user = new User();
-        user.setId(1L);
-        when(taskRepository.findByUser(any())).thenReturn(java.util.List.of());
-        List<Task> tasks = taskService.findTasksByUser(user);
-        assertTrue(tasks.isEmpty());
-        verify(taskRepository).findByUser(user);
+    void findAllTasks_Paged_LastPageHasNoCursor() {
+        TaskView task = view(1L, LocalDateTime.now());
+        when(taskRepository.findPage(any(), any(), any()))
+                .thenReturn(new SliceImpl<>(List.of(task), PageRequest.of(0, 2), false));
+
+        CursorPage<TaskView> page = taskService.findAllTasks(null, 2);
+
+        assertEquals(1, page.getItems().size());
+        assertFalse(page.hasNext());
+        assertNull(page.getNext());
     }
 
     @Test
-    void findTasksByStatus_Success() {
-        Task task = new Task();
-        task.setId(1L);
-        task.setStatus(com.taskwell.model.TaskStatus.PENDING);
-        when(taskRepository.findByStatus(TaskStatus.PENDING)).thenReturn(List.of(task));
-        List<Task> tasks = taskService.findTasksByStatus(TaskStatus.PENDING);
-        assertEquals(1, tasks.size());
-        assertEquals(task, tasks.get(0));
-        verify(taskRepository).findByStatus(TaskStatus.PENDING);
+    void findAllTasks_Paged_ResumesFromCursor() {
+        TaskCursor cursor = new TaskCursor(LocalDateTime.of(2025, 3, 4, 5, 6, 7), 42L);
+        when(taskRepository.findPage(any(), any(), any()))
+                .thenReturn(new SliceImpl<>(List.of(), PageRequest.of(0, 10), false));
+
+        taskService.findAllTasks(cursor.encode(), 10);
+
+        verify(taskRepository).findPage(LocalDateTime.of(2025, 3, 4, 5, 6, 7), 42L, PageRequest.of(0, 10));
     }
 
     @Test
-    void findTasksByStatus_NoTasks_ReturnsEmptyList() {
-        when(taskRepository.findByStatus(TaskStatus.PENDING)).thenReturn(List.of());
-        List<Task> tasks = taskService.findTasksByStatus(TaskStatus.PENDING);
-        assertTrue(tasks.isEmpty());
-        verify(taskRepository).findByStatus(TaskStatus.PENDING);
+    void findAllTasks_Paged_InvalidCursor_ThrowsException() {
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> {
+            taskService.findAllTasks("not-a-cursor", 10);
+        });
+        assertTrue(exception.getMessage().contains("Invalid cursor"));
+        verify(taskRepository, never()).findPage(any(), any(), any());
     }
 
     @Test
-    void findTasksByStatus_NullStatus_ThrowsException() {
-        Exception exception = assertThrows(NullPointerException.class, () -> {
-            taskService.findTasksByStatus(null);
+    void findAllTasks_Paged_NonPositiveSize_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            taskService.findAllTasks(null, 0);
         });
-        assertNotNull(exception);
-        verify(taskRepository, never()).findByStatus(any());
+        verify(taskRepository, never()).findPage(any(), any(), any());
     }
 
     @Test
-    void findTasksByCategory_Success() {
-        Task task = new Task();
-        task.setId(1L);
-        task.setCategory(TaskCategory.WORK);
-        when(taskRepository.findByCategory(TaskCategory.WORK)).thenReturn(List.of(task));
-        List<Task> tasks = taskService.findTasksByCategory(TaskCategory.WORK);
-        assertEquals(1, tasks.size());
-        assertEquals(task, tasks.get(0));
-        verify(taskRepository).findByCategory(TaskCategory.WORK);
+    void findTasksByStatus_Paged_NullStatus_ThrowsException() {
+        assertThrows(NullPointerException.class, () -> {
+            taskService.findTasksByStatus(null, null, 10);
+        });
+        verify(taskRepository, never()).findPageByStatus(any(), any(), any(), any());
     }
 
     @Test
-    void findTasksByCategory_NoTasks_ReturnsEmptyList() {
-        when(taskRepository.findByCategory(TaskCategory.WORK)).thenReturn(List.of());
-        List<Task> tasks = taskService.findTasksByCategory(TaskCategory.WORK);
-        assertTrue(tasks.isEmpty());
-        verify(taskRepository).findByCategory(TaskCategory.WORK);
+    void searchTasks_NextCursorFollowsRequestedSort() {
+        try (MockedStatic<com.taskwell.utils.SecurityUtils> mockedSecurity = mockStatic(
+                com.taskwell.utils.SecurityUtils.class)) {
+            User user = new User();
+            user.setId(1L);
+            com.taskwell.security.CustomUserDetails principal = new com.taskwell.security.CustomUserDetails(user);
+            mockedSecurity.when(com.taskwell.utils.SecurityUtils::getCurrentUser).thenReturn(principal);
+
+            TaskSort sort = TaskSort.parse("priority,desc");
+            TaskSearchCriteria criteria = new TaskSearchCriteria();
+            criteria.setStatus(TaskStatus.PENDING);
+            criteria.setSort(sort);
+            TaskView last = new TaskView(4L, "Last", TaskStatus.PENDING, TaskPriority.HIGH, null, null, null,
+                    LocalDateTime.now(), 1L);
+            when(taskRepository.search(any(), isNull(), eq(sort), eq(2)))
+                    .thenReturn(new SliceImpl<>(List.of(new TaskSearchHit(view(6L, LocalDateTime.now()), null, null),
+                            new TaskSearchHit(last, null, null)), PageRequest.of(0, 2), true));
+
+            CursorPage<TaskSearchHit> page = taskService.searchTasks(criteria, null, 2);
+
+            TaskSearchCursor next = TaskSearchCursor.decode(page.getNext(), sort);
+            assertEquals(TaskPriority.HIGH, next.getKey());
+            assertEquals(4L, next.getId());
+        }
     }
 
     @Test
-    void findTasksByCategory_NullCategory_ThrowsException() {
-        Exception exception = assertThrows(NullPointerException.class, () -> {
-            taskService.findTasksByCategory(null);
-        });
-        assertTrue(exception.getMessage().contains("Category must not be null"));
+    void searchTasks_CursorFromOtherSort_ThrowsException() {
+        try (MockedStatic<com.taskwell.utils.SecurityUtils> mockedSecurity = mockStatic(
+                com.taskwell.utils.SecurityUtils.class)) {
+            User user = new User();
+            user.setId(1L);
+            com.taskwell.security.CustomUserDetails principal = new com.taskwell.security.CustomUserDetails(user);
+            mockedSecurity.when(com.taskwell.utils.SecurityUtils::getCurrentUser).thenReturn(principal);
+
+            String titleCursor = new TaskSearchCursor(TaskSort.parse("title"), "A|B", 3L).encode();
+            TaskSearchCriteria criteria = new TaskSearchCriteria();
+            criteria.setSort(TaskSort.parse("dueDate"));
 
-        verify(taskRepository, never()).findByCategory(any());
+            assertThrows(IllegalArgumentException.class, () -> taskService.searchTasks(criteria, titleCursor, 10));
+            verify(taskRepository, never()).search(any(), any(), any(), anyInt());
+        }
     }
 
     @Test
-    void findTasksByPriority_Success() {
-        Task task = new Task();
-        task.setId(1L);
-        task.setPriority(com.taskwell.model.TaskPriority.HIGH);
-        when(taskRepository.findByPriority(TaskPriority.HIGH)).thenReturn(List.of(task));
-        List<Task> tasks = taskService.findTasksByPriority(TaskPriority.HIGH);
-        assertEquals(1, tasks.size());
-        assertEquals(task, tasks.get(0));
-        verify(taskRepository).findByPriority(TaskPriority.HIGH);
+    void searchTasks_WithText_DefaultsToRelevanceOrder() {
+        try (MockedStatic<com.taskwell.utils.SecurityUtils> mockedSecurity = mockStatic(
+                com.taskwell.utils.SecurityUtils.class)) {
+            User user = new User();
+            user.setId(1L);
+            com.taskwell.security.CustomUserDetails principal = new com.taskwell.security.CustomUserDetails(user);
+            mockedSecurity.when(com.taskwell.utils.SecurityUtils::getCurrentUser).thenReturn(principal);
+
+            TaskSearchCriteria criteria = new TaskSearchCriteria();
+            criteria.setText("  groceries ");
+            TaskSearchHit hit = new TaskSearchHit(view(3L, LocalDateTime.now()), 0.5, "<mark>groceries</mark>");
+            when(taskRepository.search(any(), eq("groceries"), eq(TaskSort.relevance()), eq(1)))
+                    .thenReturn(new SliceImpl<>(List.of(hit), PageRequest.of(0, 1), true));
+
+            CursorPage<TaskSearchHit> page = taskService.searchTasks(criteria, null, 1);
+
+            TaskSearchCursor next = TaskSearchCursor.decode(page.getNext(), TaskSort.relevance());
+            assertEquals(0.5, next.getKey());
+            assertEquals(3L, next.getId());
+        }
     }
 
     @Test
-    void findTasksByPriority_NoTasks_ReturnsEmptyList() {
-        when(taskRepository.findByPriority(TaskPriority.HIGH)).thenReturn(List.of());
-        List<Task> tasks = taskService.findTasksByPriority(TaskPriority.HIGH);
-        assertTrue(tasks.isEmpty());
-        verify(taskRepository).findByPriority(TaskPriority.HIGH);
+    void searchTasks_RelevanceWithoutText_ThrowsException() {
+        TaskSearchCriteria criteria = new TaskSearchCriteria();
+        criteria.setSort(TaskSort.relevance());
+
+        assertThrows(IllegalArgumentException.class, () -> taskService.searchTasks(criteria, null, 10));
+        verify(taskRepository, never()).search(any(), any(), any(), anyInt());
     }
 
     @Test
-    void findTasksByPriority_NullPriority_ThrowsException() {
-        Exception exception = assertThrows(NullPointerException.class, () -> {
-            taskService.findTasksByPriority(null);
-        });
-        assertNotNull(exception);
-        verify(taskRepository, never()).findByPriority(any());
+    void searchTasks_DueRangeReversed_ThrowsException() {
+        TaskSearchCriteria criteria = new TaskSearchCriteria();
+        criteria.setDueFrom(LocalDateTime.of(2025, 2, 1, 0, 0));
+        criteria.setDueTo(LocalDateTime.of(2025, 1, 1, 0, 0));
+
+        assertThrows(IllegalArgumentException.class, () -> taskService.searchTasks(criteria, null, 10));
+        verify(taskRepository, never()).search(any(), any(), any(), anyInt());
     }
 
     @Test
-    void findTasksByDueDate_Success() {
-        Task task = new Task();
-        task.setId(1L);
-        LocalDateTime dueDate = LocalDateTime.now().plusDays(1);
-        task.setDueDate(dueDate);
-        when(taskRepository.findByDueDate(dueDate)).thenReturn(List.of(task));
-        List<Task> tasks = taskService.findTasksByDueDate(dueDate);
-        assertEquals(1, tasks.size());
-        assertEquals(task, tasks.get(0));
-        verify(taskRepository).findByDueDate(dueDate);
+    void searchTasks_Unauthenticated_ThrowsAccessDenied() {
+        try (MockedStatic<com.taskwell.utils.SecurityUtils> mockedSecurity = mockStatic(
+                com.taskwell.utils.SecurityUtils.class)) {
+            mockedSecurity.when(com.taskwell.utils.SecurityUtils::getCurrentUser).thenReturn(null);
+
+            assertThrows(org.springframework.security.access.AccessDeniedException.class,
+                    () -> taskService.searchTasks(new TaskSearchCriteria(), null, 10));
+        }
     }
 
     @Test
-    void findTasksByDueDate_NoTasks_ReturnsEmptyList() {
-        LocalDateTime dueDate = LocalDateTime.now().plusDays(1);
-        when(taskRepository.findByDueDate(dueDate)).thenReturn(List.of());
-        List<Task> tasks = taskService.findTasksByDueDate(dueDate);
-        assertTrue(tasks.isEmpty());
-        verify(taskRepository).findByDueDate(dueDate);
+    void getTaskSummary_AggregatesCountsForCurrentUser() {
+        try (MockedStatic<com.taskwell.utils.SecurityUtils> mockedSecurity = mockStatic(
+                com.taskwell.utils.SecurityUtils.class)) {
+            User user = new User();
+            user.setId(1L);
+            com.taskwell.security.CustomUserDetails principal = new com.taskwell.security.CustomUserDetails(user);
+            mockedSecurity.when(com.taskwell.utils.SecurityUtils::getCurrentUser).thenReturn(principal);
+
+            when(taskStats.counts(1L)).thenReturn(Map.of(
+                    TaskStats.TOTAL, 6L,
+                    TaskStats.key(TaskStats.STATUS, TaskStatus.PENDING), 3L,
+                    TaskStats.key(TaskStats.STATUS, TaskStatus.COMPLETE), 2L,
+                    TaskStats.key(TaskStats.STATUS, TaskStatus.OVERDUE), 1L,
+                    TaskStats.key(TaskStats.CATEGORY, TaskCategory.WORK), 5L,
+                    TaskStats.key(TaskStats.CATEGORY, null), 1L,
+                    TaskStats.key(TaskStats.PRIORITY, TaskPriority.HIGH), 6L));
+            when(taskRepository.countUpcomingForUser(1L)).thenReturn(2L);
+            Task next = new Task("Next", null);
+            next.setId(9L);
+            when(taskRepository.findNextDueForUser(eq(1L), any())).thenReturn(List.of(next));
+            when(taskRepository.findOldestOverdueForUser(eq(1L), any())).thenReturn(List.of());
+
+            TaskSummaryResponse summary = taskService.getTaskSummary(5);
+
+            assertEquals(6L, summary.getTotal());
+            assertEquals(3L, summary.getByStatus().get(TaskStatus.PENDING));
+            assertEquals(2L, summary.getByStatus().get(TaskStatus.COMPLETE));
+            assertEquals(0L, summary.getByStatus().get(TaskStatus.ARCHIVED));
+            assertEquals(5L, summary.getByCategory().get(TaskCategory.WORK));
+            assertEquals(1L, summary.getUncategorized());
+            assertEquals(6L, summary.getByPriority().get(TaskPriority.HIGH));
+            assertEquals(1L, summary.getOverdue());
+            assertEquals(2L, summary.getUpcoming());
+            assertEquals(1, summary.getNextDue().size());
+            assertEquals("Next", summary.getNextDue().get(0).getTitle());
+            assertTrue(summary.getOverdueTasks().isEmpty());
+        }
     }
 
     @Test
-    void findOverdueTasks_Success() {
-        Task task = new Task();
-        task.setId(1L);
-        task.setDueDate(LocalDateTime.now().minusDays(1));
-        task.setStatus(TaskStatus.PENDING);
-        when(taskRepository.findOverdueTasks()).thenReturn(List.of(task));
-        List<Task> tasks = taskService.findOverdueTasks();
-        assertEquals(1, tasks.size());
-        assertEquals(task, tasks.get(0));
-        verify(taskRepository).findOverdueTasks();
+    void getTaskSummary_ListSizeIsCapped() {
+        try (MockedStatic<com.taskwell.utils.SecurityUtils> mockedSecurity = mockStatic(
+                com.taskwell.utils.SecurityUtils.class)) {
+            User user = new User();
+            user.setId(1L);
+            com.taskwell.security.CustomUserDetails principal = new com.taskwell.security.CustomUserDetails(user);
+            mockedSecurity.when(com.taskwell.utils.SecurityUtils::getCurrentUser).thenReturn(principal);
+
+            taskService.getTaskSummary(1000);
+
+            verify(taskRepository).findNextDueForUser(1L, PageRequest.of(0, TaskService.MAX_SUMMARY_LIST_SIZE));
+        }
     }
 
     @Test
-    void FindOverdueTasks_NoTasks_ReturnsEmptyList() {
-        when(taskRepository.findOverdueTasks()).thenReturn(List.of());
-        List<Task> tasks = taskService.findOverdueTasks();
-        assertTrue(tasks.isEmpty());
-        verify(taskRepository).findOverdueTasks();
+    void getProductivity_Daily_FillsGapsWithZeros() {
+        try (MockedStatic<com.taskwell.utils.SecurityUtils> mockedSecurity = mockStatic(
+                com.taskwell.utils.SecurityUtils.class)) {
+            User user = new User();
+            user.setId(1L);
+            com.taskwell.security.CustomUserDetails principal = new com.taskwell.security.CustomUserDetails(user);
+            mockedSecurity.when(com.taskwell.utils.SecurityUtils::getCurrentUser).thenReturn(principal);
+
+            LocalDate today = LocalDate.now();
+            when(taskRepository.countCreatedPerDayForUser(eq(1L), any())).thenReturn(List.<Object[]>of(
+                    new Object[] { today.minusDays(2), 3L }));
+            when(taskRepository.countCompletedPerDayForUser(eq(1L), any())).thenReturn(List.<Object[]>of(
+                    new Object[] { today, 1L }));
+
+            List<ProductivityPoint> points = taskService.getProductivity(7, ProductivityBucket.DAY);
+
+            assertEquals(7, points.size());
+            assertEquals(today.minusDays(6), points.get(0).getDate());
+            assertEquals(today, points.get(6).getDate());
+            assertEquals(3L, points.get(4).getCreated());
+            assertEquals(0L, points.get(5).getCreated());
+            assertEquals(1L, points.get(6).getCompleted());
+            verify(taskRepository).countCreatedPerDayForUser(1L, today.minusDays(6).atStartOfDay());
+        }
     }
 
     @Test
-    void findUpcomingTasks_Success() {
-        Task task = new Task();
-        task.setId(1L);
-        task.setDueDate(LocalDateTime.now().plusDays(1));
-        task.setStatus(TaskStatus.PENDING);
-        when(taskRepository.findUpcomingTasks()).thenReturn(List.of(task));
-        List<Task> tasks = taskService.findUpcomingTasks();
-        assertEquals(1, tasks.size());
-        assertEquals(task, tasks.get(0));
-        verify(taskRepository).findUpcomingTasks();
+    void getProductivity_Weekly_RollsDaysIntoMondayBuckets() {
+        try (MockedStatic<com.taskwell.utils.SecurityUtils> mockedSecurity = mockStatic(
+                com.taskwell.utils.SecurityUtils.class)) {
+            User user = new User();
+            user.setId(1L);
+            com.taskwell.security.CustomUserDetails principal = new com.taskwell.security.CustomUserDetails(user);
+            mockedSecurity.when(com.taskwell.utils.SecurityUtils::getCurrentUser).thenReturn(principal);
+
+            LocalDate thisMonday = LocalDate.now().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            when(taskRepository.countCreatedPerDayForUser(eq(1L), any())).thenReturn(List.of(
+                    new Object[] { thisMonday, 2L },
+                    new Object[] { LocalDate.now(), 1L }));
+            when(taskRepository.countCompletedPerDayForUser(eq(1L), any())).thenReturn(List.of());
+
+            List<ProductivityPoint> points = taskService.getProductivity(14, ProductivityBucket.WEEK);
+
+            ProductivityPoint last = points.get(points.size() - 1);
+            assertEquals(thisMonday, last.getDate());
+            assertEquals(3L, last.getCreated());
+            assertEquals(DayOfWeek.MONDAY, points.get(0).getDate().getDayOfWeek());
+        }
     }
 
     @Test
-    void findUpcomingTasks_NoTasks_ReturnsEmptyList() {
-        when(taskRepository.findUpcomingTasks()).thenReturn(List.of());
-        List<Task> tasks = taskService.findUpcomingTasks();
-        assertTrue(tasks.isEmpty());
-        verify(taskRepository).findUpcomingTasks();
+    void getProductivity_DaysOutOfRange_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            taskService.getProductivity(0, ProductivityBucket.DAY);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            taskService.getProductivity(TaskService.MAX_PRODUCTIVITY_DAYS + 1, ProductivityBucket.DAY);
+        });
+        verify(taskRepository, never()).countCreatedPerDayForUser(any(), any());
     }
 
     @Test
@@ -396,27 +754,91 @@ class TaskServiceTest {
 
             Task task = new Task();
             task.setId(1L);
-            task.setStatus(TaskStatus.PENDING);
+            task.setStatus(TaskStatus.COMPLETE);
             task.setUser(user);
-            when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
-            when(taskRepository.save(any(Task.class))).thenReturn(task);
+            when(taskRepository.completeForUser(eq(1L), eq(1L), isNull(), any(LocalDateTime.class))).thenReturn(1);
+            when(taskRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(task));
 
             Task updatedTask = taskService.markTaskAsCompleted(1L);
             assertEquals(TaskStatus.COMPLETE, updatedTask.getStatus());
-            verify(taskRepository).save(task);
+            verify(taskRepository, never()).findById(any());
+            verify(taskRepository, never()).save(any(Task.class));
+            verify(dueDates).cancel(1L);
         }
     }
 
     @Test
     void markTaskAsCompleted_TaskNotFound_ThrowsException() {
-        when(taskRepository.findById(1L)).thenReturn(Optional.empty());
+        try (MockedStatic<com.taskwell.utils.SecurityUtils> mockedSecurity = mockStatic(
+                com.taskwell.utils.SecurityUtils.class)) {
+            User user = new User();
+            user.setId(1L);
+            com.taskwell.security.CustomUserDetails principal = new com.taskwell.security.CustomUserDetails(user);
+            mockedSecurity.when(com.taskwell.utils.SecurityUtils::getCurrentUser).thenReturn(principal);
+            when(taskRepository.completeForUser(eq(1L), eq(1L), isNull(), any(LocalDateTime.class))).thenReturn(0);
+            when(taskRepository.existsById(1L)).thenReturn(false);
 
-        Exception exception = assertThrows(org.springframework.web.server.ResponseStatusException.class, () -> {
-            taskService.markTaskAsCompleted(1L);
-        });
-        assertEquals(HttpStatus.NOT_FOUND,
-                ((org.springframework.web.server.ResponseStatusException) exception).getStatusCode());
-        verify(taskRepository, never()).save(any(Task.class));
+            Exception exception = assertThrows(org.springframework.web.server.ResponseStatusException.class, () -> {
+                taskService.markTaskAsCompleted(1L);
+            });
+            assertEquals(HttpStatus.NOT_FOUND,
+                    ((org.springframework.web.server.ResponseStatusException) exception).getStatusCode());
+            verify(taskRepository, never()).save(any(Task.class));
+        }
+    }
+
+    @Test
+    void markTaskAsCompleted_OtherUsersTask_ThrowsAccessDenied() {
+        try (MockedStatic<com.taskwell.utils.SecurityUtils> mockedSecurity = mockStatic(
+                com.taskwell.utils.SecurityUtils.class)) {
+            User user = new User();
+            user.setId(1L);
+            com.taskwell.security.CustomUserDetails principal = new com.taskwell.security.CustomUserDetails(user);
+            mockedSecurity.when(com.taskwell.utils.SecurityUtils::getCurrentUser).thenReturn(principal);
+            when(taskRepository.completeForUser(eq(1L), eq(1L), isNull(), any(LocalDateTime.class))).thenReturn(0);
+            when(taskRepository.existsById(1L)).thenReturn(true);
+
+            assertThrows(org.springframework.security.access.AccessDeniedException.class,
+                    () -> taskService.markTaskAsCompleted(1L));
+        }
+    }
+
+    @Test
+    void markTaskAsCompleted_StaleVersionButAlreadyComplete_ReturnsTask() {
+        try (MockedStatic<com.taskwell.utils.SecurityUtils> mockedSecurity = mockStatic(
+                com.taskwell.utils.SecurityUtils.class)) {
+            User user = new User();
+            user.setId(1L);
+            com.taskwell.security.CustomUserDetails principal = new com.taskwell.security.CustomUserDetails(user);
+            mockedSecurity.when(com.taskwell.utils.SecurityUtils::getCurrentUser).thenReturn(principal);
+            Task task = new Task();
+            task.setId(1L);
+            task.setStatus(TaskStatus.COMPLETE);
+            when(taskRepository.completeForUser(eq(1L), eq(1L), eq(3L), any(LocalDateTime.class))).thenReturn(0);
+            when(taskRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(task));
+
+            assertSame(task, taskService.markTaskAsCompleted(1L, 3L));
+        }
+    }
+
+    @Test
+    void markTaskAsCompleted_StaleVersion_ThrowsPreconditionFailed() {
+        try (MockedStatic<com.taskwell.utils.SecurityUtils> mockedSecurity = mockStatic(
+                com.taskwell.utils.SecurityUtils.class)) {
+            User user = new User();
+            user.setId(1L);
+            com.taskwell.security.CustomUserDetails principal = new com.taskwell.security.CustomUserDetails(user);
+            mockedSecurity.when(com.taskwell.utils.SecurityUtils::getCurrentUser).thenReturn(principal);
+            Task task = new Task();
+            task.setId(1L);
+            task.setStatus(TaskStatus.ON_HOLD);
+            when(taskRepository.completeForUser(eq(1L), eq(1L), eq(3L), any(LocalDateTime.class))).thenReturn(0);
+            when(taskRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(task));
+
+            ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                    () -> taskService.markTaskAsCompleted(1L, 3L));
+            assertEquals(HttpStatus.PRECONDITION_FAILED, exception.getStatusCode());
+        }
     }
 
     @Test
@@ -431,27 +853,35 @@ class TaskServiceTest {
 
             Task task = new Task();
             task.setId(1L);
-            task.setStatus(TaskStatus.COMPLETE);
+            task.setStatus(TaskStatus.PENDING);
             task.setUser(user);
-            when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
-            when(taskRepository.save(any(Task.class))).thenReturn(task);
+            when(taskRepository.uncompleteForUser(eq(1L), eq(1L), isNull(), any(LocalDateTime.class))).thenReturn(1);
+            when(taskRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(task));
 
             Task updatedTask = taskService.markTaskAsUncompleted(1L);
             assertEquals(TaskStatus.PENDING, updatedTask.getStatus());
-            verify(taskRepository).save(task);
+            verify(taskRepository, never()).save(any(Task.class));
         }
     }
 
     @Test
     void markTaskAsUncompleted_TaskNotFound_ThrowsException() {
-        when(taskRepository.findById(1L)).thenReturn(Optional.empty());
+        try (MockedStatic<com.taskwell.utils.SecurityUtils> mockedSecurity = mockStatic(
+                com.taskwell.utils.SecurityUtils.class)) {
+            User user = new User();
+            user.setId(1L);
+            com.taskwell.security.CustomUserDetails principal = new com.taskwell.security.CustomUserDetails(user);
+            mockedSecurity.when(com.taskwell.utils.SecurityUtils::getCurrentUser).thenReturn(principal);
+            when(taskRepository.uncompleteForUser(eq(1L), eq(1L), isNull(), any(LocalDateTime.class))).thenReturn(0);
+            when(taskRepository.existsById(1L)).thenReturn(false);
 
-        Exception exception = assertThrows(org.springframework.web.server.ResponseStatusException.class, () -> {
-            taskService.markTaskAsUncompleted(1L);
-        });
-        assertEquals(HttpStatus.NOT_FOUND,
-                ((org.springframework.web.server.ResponseStatusException) exception).getStatusCode());
-        verify(taskRepository, never()).save(any(Task.class));
+            Exception exception = assertThrows(org.springframework.web.server.ResponseStatusException.class, () -> {
+                taskService.markTaskAsUncompleted(1L);
+            });
+            assertEquals(HttpStatus.NOT_FOUND,
+                    ((org.springframework.web.server.ResponseStatusException) exception).getStatusCode());
+            verify(taskRepository, never()).save(any(Task.class));
+        }
     }
 
     @Test
@@ -466,10 +896,12 @@ class TaskServiceTest {
             com.taskwell.security.CustomUserDetails principal = new com.taskwell.security.CustomUserDetails(user);
             mockedSecurity.when(com.taskwell.utils.SecurityUtils::getCurrentUser).thenReturn(principal);
 
-            when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+            when(taskRepository.deleteByIdForUser(1L, 1L)).thenReturn(1);
             boolean result = taskService.deleteTask(1L);
             assertTrue(result);
-            verify(taskRepository).deleteById(1L);
+            verify(taskRepository, never()).findById(any());
+            verify(titleIndex).taskRemoved(1L, 1L);
+            verify(dueDates).cancel(1L);
         }
     }
 
@@ -483,7 +915,8 @@ class TaskServiceTest {
             com.taskwell.security.CustomUserDetails principal = new com.taskwell.security.CustomUserDetails(user);
             mockedSecurity.when(com.taskwell.utils.SecurityUtils::getCurrentUser).thenReturn(principal);
 
-            when(taskRepository.findById(1L)).thenReturn(Optional.empty());
+            when(taskRepository.deleteByIdForUser(1L, 1L)).thenReturn(0);
+            when(taskRepository.existsById(1L)).thenReturn(false);
             Exception exception = assertThrows(ResponseStatusException.class, () -> {
                 taskService.deleteTask(1L);
             });
@@ -500,10 +933,12 @@ class TaskServiceTest {
         user.setId(1L);
         when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(taskRepository.save(any(Task.class))).thenReturn(task);
+        runTrackedWrites();
+        when(taskRepository.saveAndFlush(any(Task.class))).thenReturn(task);
         Task updatedTask = taskService.assignTaskToUser(1L, user);
         assertEquals(user, updatedTask.getUser());
-        verify(taskRepository).save(task);
+        verify(taskRepository).saveAndFlush(task);
+        verify(taskStats).tracking(eq(List.of(1L)), any());
     }
 
     @Test
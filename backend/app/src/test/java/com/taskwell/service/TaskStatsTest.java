@@ -0,0 +1,161 @@
+package com.taskwell.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.taskwell.model.TaskCategory;
+import com.taskwell.model.TaskPriority;
+import com.taskwell.model.TaskStat;
+import com.taskwell.model.TaskStatus;
+import com.taskwell.repository.TaskRepository;
+import com.taskwell.repository.TaskStatRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TaskStatsTest {
+    private TaskRepository taskRepository;
+    private TaskStatRepository taskStatRepository;
+    private SimpleMeterRegistry registry;
+    private TaskStats taskStats;
+
+    @BeforeEach
+    void setUp() {
+        taskRepository = mock(TaskRepository.class);
+        taskStatRepository = mock(TaskStatRepository.class);
+        registry = new SimpleMeterRegistry();
+        taskStats = new TaskStats(taskRepository, taskStatRepository, registry);
+        when(taskRepository.countByStatusForUser(1L)).thenReturn(List.<Object[]>of(
+                new Object[] { TaskStatus.PENDING, 2L }));
+        when(taskRepository.countByCategoryForUser(1L)).thenReturn(List.<Object[]>of(
+                new Object[] { null, 2L }));
+        when(taskRepository.countByPriorityForUser(1L)).thenReturn(List.<Object[]>of(
+                new Object[] { TaskPriority.HIGH, 2L }));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void counts_NoCounters_RecountsAndStoresEveryKey() {
+        when(taskStatRepository.findByUserId(1L)).thenReturn(List.of());
+
+        Map<String, Long> counts = taskStats.counts(1L);
+
+        assertEquals(2L, counts.get(TaskStats.TOTAL));
+        assertEquals(2L, counts.get("status:PENDING"));
+        assertEquals(2L, counts.get("category:none"));
+        ArgumentCaptor<List<TaskStat>> rows = ArgumentCaptor.forClass(List.class);
+        verify(taskStatRepository).saveAll(rows.capture());
+        // total, plus "none" and each value of every dimension
+        int expected = 1 + 3 + TaskStatus.values().length + TaskCategory.values().length
+                + TaskPriority.values().length;
+        assertEquals(expected, rows.getValue().size());
+    }
+
+    @Test
+    void counts_BuiltCounters_AreReadAsStored() {
+        when(taskStatRepository.findByUserId(1L)).thenReturn(List.of(
+                new TaskStat(1L, TaskStats.TOTAL, 7L), new TaskStat(1L, "status:COMPLETE", 7L)));
+
+        assertEquals(Map.of(TaskStats.TOTAL, 7L, "status:COMPLETE", 7L), taskStats.counts(1L));
+        verifyNoInteractions(taskRepository);
+        verify(taskStatRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void changed_MovesOnlyTheKeysThatDiffer() {
+        TaskStats.Counted before = new TaskStats.Counted(TaskStatus.PENDING, TaskCategory.WORK, TaskPriority.LOW);
+
+        taskStats.changed(1L, before, before.withStatus(TaskStatus.COMPLETE));
+
+        verify(taskStatRepository).moveCount(1L, Set.of("status:PENDING"), Set.of("status:COMPLETE"));
+        verifyNoMoreInteractions(taskStatRepository);
+    }
+
+    @Test
+    void changed_NothingCountedChanged_WritesNothing() {
+        TaskStats.Counted before = new TaskStats.Counted(TaskStatus.PENDING, TaskCategory.WORK, TaskPriority.LOW);
+
+        taskStats.changed(1L, before, before.withPriority(TaskPriority.LOW));
+        taskStats.changed(1L, null, before);
+
+        verifyNoInteractions(taskStatRepository);
+    }
+
+    @Test
+    void tracking_AppliesTheDifferenceBeforeAndAfterTheWrite() {
+        // Three tasks of user 1, one of user 2; the write moves two of user 1's
+        // to OVERDUE and deletes user 2's
+        LocalDateTime due = LocalDateTime.of(2024, 3, 1, 9, 0);
+        when(taskRepository.lockCountedFieldsByIds(List.of(5L, 6L, 7L, 8L))).thenReturn(
+                List.<Object[]>of(
+                        new Object[] { 1L, TaskStatus.PENDING.ordinal(), null, TaskPriority.LOW.ordinal(), 5L, due },
+                        new Object[] { 1L, TaskStatus.IN_PROGRESS.ordinal(), null, TaskPriority.LOW.ordinal(), 6L,
+                                Timestamp.valueOf(due) },
+                        new Object[] { 1L, TaskStatus.COMPLETE.ordinal(), null, TaskPriority.LOW.ordinal(), 7L, due },
+                        new Object[] { 2L, TaskStatus.PENDING.ordinal(), null, TaskPriority.HIGH.ordinal(), 8L, due }),
+                List.<Object[]>of(
+                        new Object[] { 1L, TaskStatus.OVERDUE.ordinal(), null, TaskPriority.LOW.ordinal(), 5L, due },
+                        new Object[] { 1L, TaskStatus.OVERDUE.ordinal(), null, TaskPriority.LOW.ordinal(), 6L,
+                                Timestamp.valueOf(due) },
+                        new Object[] { 1L, TaskStatus.COMPLETE.ordinal(), null, TaskPriority.LOW.ordinal(), 7L, due }));
+        List<TaskStats.StatusChange> changes = new ArrayList<>();
+
+        assertEquals(3, taskStats.tracking(List.of(5L, 6L, 7L, 8L), () -> 3, changes::add));
+
+        assertEquals(List.of(new TaskStats.StatusChange(5L, TaskStatus.OVERDUE, due),
+                new TaskStats.StatusChange(6L, TaskStatus.OVERDUE, due)), changes);
+
+        verify(taskStatRepository).addToCounts(eq(1L), argThat(keys -> Set.copyOf(keys).equals(Set.of(
+                "status:PENDING", "status:IN_PROGRESS"))), eq(-1L));
+        verify(taskStatRepository).addToCounts(1L, List.of("status:OVERDUE"), 2);
+        verify(taskStatRepository).addToCounts(eq(2L), argThat(keys -> Set.copyOf(keys).equals(Set.of(
+                TaskStats.TOTAL, "status:PENDING", "category:none", "priority:HIGH"))), eq(-1L));
+        verifyNoMoreInteractions(taskStatRepository);
+    }
+
+    @Test
+    void adding_CountsEveryInsertedTask() {
+        TaskStats.Counted task = new TaskStats.Counted(TaskStatus.PENDING, TaskCategory.WORK, TaskPriority.LOW);
+
+        assertEquals(2, taskStats.adding(1L, List.of(task, task), () -> 2));
+
+        verify(taskStatRepository).addToCounts(eq(1L), argThat(keys -> Set.copyOf(keys).equals(Set.of(
+                TaskStats.TOTAL, "status:PENDING", "category:WORK", "priority:LOW"))), eq(2L));
+        verifyNoMoreInteractions(taskStatRepository);
+    }
+
+    @Test
+    void reconcile_DriftedCounters_AreDropped() {
+        when(taskStatRepository.findByUserId(1L)).thenReturn(List.of(
+                new TaskStat(1L, TaskStats.TOTAL, 3L), new TaskStat(1L, "status:PENDING", 3L),
+                new TaskStat(1L, "category:none", 3L), new TaskStat(1L, "priority:HIGH", 3L),
+                new TaskStat(1L, "status:COMPLETE", 0L)));
+
+        assertTrue(taskStats.reconcile(1L));
+
+        verify(taskStatRepository).deleteByUser(1L);
+        assertEquals(1, registry.get("taskwell.task-stats.drift").counter().count());
+    }
+
+    @Test
+    void reconcile_MatchingCounters_AreKept() {
+        when(taskStatRepository.findByUserId(1L)).thenReturn(List.of(
+                new TaskStat(1L, TaskStats.TOTAL, 2L), new TaskStat(1L, "status:PENDING", 2L),
+                new TaskStat(1L, "category:none", 2L), new TaskStat(1L, "priority:HIGH", 2L),
+                new TaskStat(1L, "status:COMPLETE", 0L)));
+
+        assertFalse(taskStats.reconcile(1L));
+
+        verify(taskStatRepository, never()).deleteByUser(any());
+    }
+}
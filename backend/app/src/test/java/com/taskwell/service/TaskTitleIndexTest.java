@@ -0,0 +1,117 @@
+package com.taskwell.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.taskwell.dto.TitleSuggestion;
+import com.taskwell.repository.TaskRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TaskTitleIndexTest {
+    private TaskRepository taskRepository;
+    private TaskTitleIndex index;
+
+    @BeforeEach
+    void setUp() {
+        taskRepository = mock(TaskRepository.class);
+        index = new TaskTitleIndex(taskRepository, 1_000_000);
+    }
+
+    private void givenTitles(Long userId, Object[]... rows) {
+        List<Object[]> list = new ArrayList<>(List.of(rows));
+        when(taskRepository.findTitlesByUserId(userId)).thenReturn(list);
+    }
+
+    private static List<String> titles(List<TitleSuggestion> suggestions) {
+        return suggestions.stream().map(TitleSuggestion::title).toList();
+    }
+
+    @Test
+    void suggest_MatchesPrefixOfAnyWord() {
+        givenTitles(1L, new Object[] { 1L, "Buy groceries" }, new Object[] { 2L, "Pay rent" });
+
+        assertEquals(List.of("Buy groceries"), titles(index.suggest(1L, "groc", 10)));
+    }
+
+    @Test
+    void suggest_ToleratesTypos() {
+        givenTitles(1L, new Object[] { 1L, "Quarterly report" }, new Object[] { 2L, "Call plumber" });
+
+        assertEquals(List.of("Quarterly report"), titles(index.suggest(1L, "quartrely", 10)));
+        assertEquals(List.of("Call plumber"), titles(index.suggest(1L, "plumbr", 10)));
+    }
+
+    @Test
+    void suggest_ShortQueriesMustMatchExactly() {
+        givenTitles(1L, new Object[] { 1L, "Tax return" }, new Object[] { 2L, "Fax invoice" });
+
+        assertEquals(List.of("Tax return"), titles(index.suggest(1L, "tax", 10)));
+    }
+
+    @Test
+    void suggest_ExactMatchesRankFirst() {
+        givenTitles(1L, new Object[] { 1L, "Preview lease" }, new Object[] { 2L, "Review lease" });
+
+        assertEquals(List.of("Review lease", "Preview lease"), titles(index.suggest(1L, "review", 10)));
+    }
+
+    @Test
+    void suggest_BuildsIndexOnceFromDatabase() {
+        givenTitles(1L, new Object[] { 1L, "Buy groceries" });
+
+        index.suggest(1L, "buy", 10);
+        index.suggest(1L, "groceries", 10);
+
+        verify(taskRepository, times(1)).findTitlesByUserId(1L);
+    }
+
+    @Test
+    void taskChanges_UpdateCachedIndex() {
+        givenTitles(1L, new Object[] { 1L, "Buy groceries" });
+        index.suggest(1L, "buy", 10);
+
+        index.taskSaved(1L, 2L, "Book flights");
+        index.taskSaved(1L, 1L, "Buy milk");
+        index.taskRemoved(1L, 2L);
+
+        assertEquals(List.of("Buy milk"), titles(index.suggest(1L, "b", 10)));
+        assertTrue(index.suggest(1L, "groceries", 10).isEmpty());
+        verify(taskRepository, times(1)).findTitlesByUserId(1L);
+    }
+
+    @Test
+    void overBudget_EvictsLeastRecentlyUsedUser() {
+        // Each user's five titles weigh roughly 2.7KB, so two fit and three do not
+        index = new TaskTitleIndex(taskRepository, 6_000);
+        for (long user = 1; user <= 3; user++) {
+            List<Object[]> rows = new ArrayList<>();
+            for (long task = 0; task < 5; task++) {
+                rows.add(new Object[] { user * 100 + task, "Task number " + task });
+            }
+            when(taskRepository.findTitlesByUserId(user)).thenReturn(rows);
+        }
+
+        index.suggest(1L, "task", 10);
+        index.suggest(2L, "task", 10);
+        index.suggest(1L, "task", 10);
+        index.suggest(3L, "task", 10);
+
+        assertTrue(index.estimatedBytes() <= 6_000);
+        assertEquals(2, index.cachedUsers());
+        // User 2 was the coldest, so it is rebuilt on its next query
+        index.suggest(2L, "task", 10);
+        verify(taskRepository, times(2)).findTitlesByUserId(2L);
+    }
+
+    @Test
+    void prefixDistance_CountsEditsAgainstBestPrefix() {
+        assertEquals(0, TaskTitleIndex.prefixDistance("gro", "groceries", 2));
+        assertEquals(1, TaskTitleIndex.prefixDistance("grpc", "groceries", 2));
+        assertEquals(3, TaskTitleIndex.prefixDistance("xyzw", "groceries", 2));
+    }
+}
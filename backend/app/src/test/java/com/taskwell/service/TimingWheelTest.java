@@ -0,0 +1,79 @@
+package com.taskwell.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    private static List<String> advance(TimingWheel<String> wheel, long tick) {
+        List<String> expired = new ArrayList<>();
+        wheel.advanceTo(tick, expired);
+        return expired;
+    }
+
+    @Test
+    void advanceTo_FiresEachTimerOnItsTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(4, 3, 100);
+        wheel.add(103, "c");
+        wheel.add(101, "a");
+        wheel.add(102, "b");
+
+        assertEquals(List.of("a"), advance(wheel, 101));
+        assertEquals(List.of(), advance(wheel, 101));
+        assertEquals(List.of("b", "c"), advance(wheel, 103));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advanceTo_CascadesTimersFromHigherLevels() {
+        // 4 slots on 3 levels reach 64 ticks
+        TimingWheel<String> wheel = new TimingWheel<>(4, 3, 0);
+        List<Long> deadlines = List.of(5L, 17L, 18L, 40L, 63L);
+        for (Long deadline : deadlines) {
+            wheel.add(deadline, "t" + deadline);
+        }
+
+        List<String> fired = new ArrayList<>();
+        for (long tick = 1; tick <= 63; tick++) {
+            List<String> expired = advance(wheel, tick);
+            for (String name : expired) {
+                assertEquals("t" + tick, name);
+            }
+            fired.addAll(expired);
+        }
+        assertEquals(List.of("t5", "t17", "t18", "t40", "t63"), fired);
+    }
+
+    @Test
+    void cancel_RemovesOnlyThatTimer() {
+        TimingWheel<String> wheel = new TimingWheel<>(60, 3, 0);
+        TimingWheel.Timer<String> first = wheel.add(10, "first");
+        wheel.add(10, "second");
+
+        assertTrue(wheel.cancel(first));
+        assertFalse(wheel.cancel(first));
+        assertFalse(first.isPending());
+        assertEquals(List.of("second"), advance(wheel, 10));
+    }
+
+    @Test
+    void add_PastDeadline_FiresOnNextTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(60, 3, 1000);
+        wheel.add(900, "late");
+
+        assertEquals(List.of("late"), advance(wheel, 1001));
+    }
+
+    @Test
+    void add_BeyondReach_ThrowsException() {
+        TimingWheel<String> wheel = new TimingWheel<>(60, 3, 0);
+
+        assertThrows(IllegalArgumentException.class, () -> wheel.add(wheel.getReach(), "far"));
+        wheel.add(wheel.getReach() - 1, "edge");
+        assertEquals(List.of("edge"), advance(wheel, wheel.getReach() - 1));
+    }
+}
@@ -0,0 +1,140 @@
+package com.taskwell.service;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import com.taskwell.model.User;
+import com.taskwell.model.UserRole;
+import com.taskwell.repository.UserRepository;
+import com.taskwell.security.CustomUserDetails;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Second-level cache and principal cache behaviour for users. Not
+ * @Transactional: every service call commits on its own, which is when
+ * Hibernate updates the cache and the principal cache evicts after commit, so
+ * the user is saved before and deleted after each test. Uses the controller
+ * tests' configuration so the application context is shared with them.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class UserCacheIntegrationTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserPrincipalCache principalCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User("cacheuser", "cacheuser@example.com", "GoodPassword1!");
+        user.setRole(UserRole.USER);
+        user.setVerified(true);
+        userId = userRepository.save(user).getId();
+
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        User admin = new User("cacheadmin", "cacheadmin@example.com", "GoodPassword1!");
+        admin.setId(-1L);
+        admin.setRole(UserRole.ADMIN);
+        admin.setVerified(true);
+        CustomUserDetails principal = new CustomUserDetails(admin);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        userRepository.findById(userId).ifPresent(userRepository::delete);
+    }
+
+    @Test
+    void repeatedLookupsAreServedFromTheCache() {
+        userService.findByID(userId);
+        userService.findByID(userId);
+        assertTrue(entityManagerFactory.getCache().contains(User.class, userId));
+        assertTrue(statistics.getSecondLevelCacheHitCount() >= 1);
+
+        userService.findByUsername("cacheuser");
+        userService.findByUsername("cacheuser");
+        assertTrue(statistics.getNaturalIdCacheHitCount() >= 1);
+
+        userService.findByEmail("cacheuser@example.com");
+        userService.findByEmail("cacheuser@example.com");
+        assertTrue(statistics.getQueryCacheHitCount() >= 1);
+    }
+
+    @Test
+    void changeUsername_OldUsernameNoLongerResolves() {
+        userService.findByUsername("cacheuser");
+        userService.findPrincipal("cacheuser");
+
+        userService.changeUsername(userId, "cacheuser2", null);
+
+        assertThrows(UsernameNotFoundException.class, () -> userService.findByUsername("cacheuser"));
+        assertTrue(principalCache.find("cacheuser").isEmpty());
+        assertEquals(userId, userService.findByUsername("cacheuser2").getId());
+        assertEquals("cacheuser2", userService.findByID(userId).getUsername());
+    }
+
+    @Test
+    void changeEmail_OldEmailNoLongerResolves() {
+        userService.findByEmail("cacheuser@example.com");
+
+        userService.changeEmail(userId, "cacheuser2@example.com", null);
+
+        assertThrows(UsernameNotFoundException.class, () -> userService.findByEmail("cacheuser@example.com"));
+        assertEquals(userId, userService.findByEmail("cacheuser2@example.com").getId());
+    }
+
+    @Test
+    void toggleUserLocked_CachedUserSeesTheChange() {
+        assertFalse(userService.findByID(userId).isLocked());
+        assertFalse(userService.findPrincipal("cacheuser").isLocked());
+
+        userService.toggleUserLocked(userId);
+
+        assertTrue(userService.findByID(userId).isLocked());
+        assertTrue(userService.findByUsername("cacheuser").isLocked());
+        assertTrue(userService.findPrincipal("cacheuser").isLocked());
+    }
+
+    @Test
+    void deleteUser_EvictsTheUser() {
+        userService.findByID(userId);
+        userService.findByUsername("cacheuser");
+        userService.findPrincipal("cacheuser");
+
+        userService.deleteUser(userId);
+
+        assertFalse(entityManagerFactory.getCache().contains(User.class, userId));
+        assertThrows(UsernameNotFoundException.class, () -> userService.findByID(userId));
+        assertThrows(UsernameNotFoundException.class, () -> userService.findByUsername("cacheuser"));
+        assertThrows(UsernameNotFoundException.class, () -> userService.findPrincipal("cacheuser"));
+    }
+}
@@ -0,0 +1,100 @@
+package com.taskwell.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import com.taskwell.datasource.ReadWriteRoutingDataSource;
+import com.taskwell.model.User;
+import com.taskwell.repository.UserRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserPrincipalCacheTest {
+    private UserRepository userRepository;
+    private SimpleMeterRegistry registry;
+    private UserPrincipalCache cache;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        registry = new SimpleMeterRegistry();
+        cache = new UserPrincipalCache(userRepository, registry, Duration.ofMinutes(5), 100);
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static User user(String username, boolean locked) {
+        User user = new User(username, username + "@example.com", "x");
+        user.setLocked(locked);
+        return user;
+    }
+
+    @Test
+    void find_LoadsOnceUntilEvicted() {
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user("alice", false)));
+
+        assertFalse(cache.find("alice").get().isLocked());
+        assertFalse(cache.find("alice").get().isLocked());
+        verify(userRepository, times(1)).findByUsername("alice");
+        assertEquals(1, registry.get("cache.gets").tag("cache", "principals").tag("result", "hit")
+                .functionCounter().count());
+
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user("alice", true)));
+        cache.evict("alice");
+
+        assertTrue(cache.find("alice").get().isLocked());
+        verify(userRepository, times(2)).findByUsername("alice");
+    }
+
+    @Test
+    void find_LoadsFromThePrimary() {
+        when(userRepository.findByUsername("alice")).thenAnswer(invocation -> {
+            assertTrue(ReadWriteRoutingDataSource.isOnPrimary());
+            return Optional.of(user("alice", false));
+        });
+
+        assertTrue(cache.find("alice").isPresent());
+        assertFalse(ReadWriteRoutingDataSource.isOnPrimary());
+        verify(userRepository).findByUsername("alice");
+    }
+
+    @Test
+    void find_DoesNotCacheUnknownUsernames() {
+        when(userRepository.findByUsername("ghost")).thenReturn(Optional.empty());
+
+        assertTrue(cache.find("ghost").isEmpty());
+        assertTrue(cache.find("ghost").isEmpty());
+
+        verify(userRepository, times(2)).findByUsername("ghost");
+    }
+
+    @Test
+    void evict_InTransaction_EvictsAgainAfterCommit() {
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user("alice", false)));
+        cache.find("alice");
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.evict("alice");
+        // A read between the eviction and the commit still sees the old row
+        cache.find("alice");
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user("alice", true)));
+        TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+
+        assertTrue(cache.find("alice").get().isLocked());
+        verify(userRepository, times(3)).findByUsername("alice");
+    }
+}
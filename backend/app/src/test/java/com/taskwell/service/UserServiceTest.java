@@ -30,6 +30,9 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserPrincipalCache principalCache;
+
     @InjectMocks
     private UserService userService;
 
@@ -279,6 +282,7 @@ class UserServiceTest {
 
             // Verifications
             verify(userRepository).save(user);
+            verify(principalCache).evict("oldusername");
         } finally {
             org.springframework.security.core.context.SecurityContextHolder.clearContext();
         }
@@ -614,6 +618,7 @@ class UserServiceTest {
         assertNotNull(updatedUser);
         assertEquals(UserRole.ADMIN, updatedUser.getRole());
         verify(userRepository).save(user);
+        verify(principalCache).evict(user.getUsername());
     }
 
     @Test
@@ -648,6 +653,7 @@ class UserServiceTest {
             boolean result = userService.deleteUser(1L);
             assertTrue(result);
             verify(userRepository).delete(user);
+            verify(principalCache).evict("testuser");
         } finally {
             SecurityContextHolder.clearContext();
         }
@@ -691,6 +697,7 @@ class UserServiceTest {
 
         assertTrue(user.isLocked());
         verify(userRepository).save(user);
+        verify(principalCache).evict(user.getUsername());
     }
 
     @Test
@@ -702,6 +709,7 @@ class UserServiceTest {
         assertThrows(UsernameNotFoundException.class, () -> userService.toggleUserLocked(fakeId));
 
         verify(userRepository, never()).save(any(User.class));
+        verify(principalCache, never()).evict(any());
     }
 
     @Test
@@ -726,6 +734,7 @@ class UserServiceTest {
 
             // Verifications
             verify(userRepository).save(user);
+            verify(principalCache).evict(user.getUsername());
         }
     }
 
@@ -1,32 +1,11 @@
 import { PieChart, Pie, Cell, Tooltip, Legend } from "recharts";
-import { useEffect, useState } from "react";
 import { formatCategory } from "../../utils/formatting";
-import Spinner from "../Spinner";
 
-function CategoryPieChart() {
-  const [loading, setLoading] = useState(true);
-  const [error, setError] = useState("");
-  const [data, setData] = useState([]);
-
-  useEffect(() => {
-    fetch("http://localhost:8080/api/tasks", { credentials: "include" })
-      .then((res) => {
-        if (!res.ok) throw new Error("Failed to fetch tasks");
-        return res.json();
-      })
-      .then((tasks) => {
-        const chartData = Object.entries(
-          tasks.reduce((acc, task) => {
-            const category = formatCategory(task.category) || "Uncategorized";
-            acc[category] = (acc[category] || 0) + 1;
-            return acc;
-          }, {}),
-        ).map(([name, value]) => ({ name, value }));
-        setData(chartData);
-      })
-      .catch((err) => setError(err.message))
-      .finally(() => setLoading(false));
-  }, []);
+function CategoryPieChart({ summary }) {
+  const data = Object.entries(summary.byCategory || {})
+    .map(([category, value]) => ({ name: formatCategory(category), value }))
+    .concat([{ name: "Uncategorized", value: summary.uncategorized || 0 }])
+    .filter((entry) => entry.value > 0);
 
   const COLORS = [
     "#0088FE",
@@ -37,13 +16,6 @@ function CategoryPieChart() {
     "#8884D8",
   ];
 
-  if (loading) return <Spinner aria-label="Loading category pie chart..." />;
-  if (error)
-    return (
-      <div style={{ color: "red" }} aria-live="assertive">
-        {error}
-      </div>
-    );
   if (!data.length)
     return (
       <div
@@ -16,46 +16,15 @@ function ProductivityChartWidget() {
   const [error, setError] = useState("");
 
   useEffect(() => {
-    fetch("http://localhost:8080/api/tasks", { credentials: "include" })
+    fetch(
+      "http://localhost:8080/api/tasks/stats/productivity?days=7&bucket=day",
+      { credentials: "include" },
+    )
       .then((res) => {
         if (!res.ok) throw new Error("Failed to fetch tasks");
         return res.json();
       })
-      .then((tasks) => {
-        const completedTasks = tasks.filter(
-          (t) => t.status === "COMPLETE" && t.completedAt,
-        );
-        const createdTasks = tasks.filter((t) => t.createdAt);
-        const counts = {};
-        const today = new Date();
-        for (let i = 6; i >= 0; i--) {
-          const d = new Date(today);
-          d.setDate(today.getDate() - i);
-          const dateStr = d.toISOString().slice(0, 10);
-          counts[dateStr] = { completed: 0, created: 0 };
-        }
-        completedTasks.forEach((task) => {
-          const date = task.completedAt.slice(0, 10);
-          if (counts[date] !== undefined) {
-            counts[date].completed++;
-          }
-        });
-
-        createdTasks.forEach((task) => {
-          const date = task.createdAt.slice(0, 10);
-          if (counts[date] !== undefined) {
-            counts[date].created++;
-          }
-        });
-        const chartData = Object.entries(counts).map(
-          ([date, { completed, created }]) => ({
-            date,
-            completed,
-            created,
-          }),
-        );
-        setData(chartData);
-      })
+      .then((points) => setData(points))
       .catch((err) => setError(err.message))
       .finally(() => setLoading(false));
   }, []);
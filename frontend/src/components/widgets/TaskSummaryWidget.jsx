@@ -1,34 +1,7 @@
-import React, { useEffect, useState } from "react";
-import Spinner from "../Spinner";
-
-function TaskSummaryWidget() {
-  const [summary, setSummary] = useState({ total: 0, complete: 0, pending: 0 });
-  const [loading, setLoading] = useState(true);
-  const [error, setError] = useState("");
-
-  useEffect(() => {
-    fetch("http://localhost:8080/api/tasks", { credentials: "include" })
-      .then((res) => {
-        if (!res.ok) throw new Error("Failed to fetch tasks");
-        return res.json();
-      })
-      .then((tasks) => {
-        const total = tasks.length;
-        const complete = tasks.filter((t) => t.status === "COMPLETE").length;
-        const pending = total - complete;
-        setSummary({ total, complete, pending });
-      })
-      .catch((err) => setError(err.message))
-      .finally(() => setLoading(false));
-  }, []);
-
-  if (loading) return <Spinner aria-label="Loading task summary..." />;
-  if (error)
-    return (
-      <div style={{ color: "red" }} aria-live="assertive">
-        {error}
-      </div>
-    );
+function TaskSummaryWidget({ summary }) {
+  const total = summary.total;
+  const complete = summary.byStatus?.COMPLETE || 0;
+  const pending = total - complete;
 
   return (
     <div
@@ -38,9 +11,9 @@ function TaskSummaryWidget() {
     >
       <h3>Task Summary</h3>
       <ul role="list">
-        <li role="listitem">Total tasks: {summary.total}</li>
-        <li role="listitem">Completed: {summary.complete}</li>
-        <li role="listitem">Uncompleted: {summary.pending}</li>
+        <li role="listitem">Total tasks: {total}</li>
+        <li role="listitem">Completed: {complete}</li>
+        <li role="listitem">Uncompleted: {pending}</li>
       </ul>
     </div>
   );
@@ -9,10 +9,19 @@ import { useState, useEffect } from "react";
 
 function Dashboard() {
   const [loading, setLoading] = useState(true);
-  const [error] = useState("");
+  const [error, setError] = useState("");
+  const [summary, setSummary] = useState(null);
 
+  // One aggregated request feeds every summary widget
   useEffect(() => {
-    setTimeout(() => setLoading(false), 1000);
+    fetch("http://localhost:8080/api/tasks/summary", { credentials: "include" })
+      .then((res) => {
+        if (!res.ok) throw new Error("Failed to fetch tasks");
+        return res.json();
+      })
+      .then((data) => setSummary(data))
+      .catch((err) => setError(err.message))
+      .finally(() => setLoading(false));
   }, []);
 
   return (
@@ -30,17 +39,17 @@ function Dashboard() {
           and activity.
         </p>
         <StatusMessage loading={loading} error={error} />
-        {!loading && !error && (
+        {!loading && !error && summary && (
           <div
             className="dashboard-widgets"
             aria-label="Task Widgets"
             role="region"
           >
-            <TaskSummaryWidget />
-            <UpcomingTasksWidget />
-            <OverdueTasksWidget />
+            <TaskSummaryWidget summary={summary} />
+            <UpcomingTasksWidget tasks={summary.nextDue} />
+            <OverdueTasksWidget tasks={summary.overdueTasks} />
             <ProductivityChartWidget />
-            <CategoryPieChart />
+            <CategoryPieChart summary={summary} />
           </div>
         )}
       </div>
@@ -10,6 +10,36 @@ beforeAll(() => {
   };
 });
 
+// Pending until a test installs its own mock
+beforeEach(() => {
+  global.fetch = jest.fn(() => new Promise(() => {}));
+});
+
+function mockSummary(summary) {
+  global.fetch = jest.fn((url) =>
+    Promise.resolve({
+      ok: true,
+      json: () =>
+        Promise.resolve(
+          url.includes("/api/tasks/summary")
+            ? {
+                total: 0,
+                byStatus: {},
+                byCategory: {},
+                uncategorized: 0,
+                byPriority: {},
+                overdue: 0,
+                upcoming: 0,
+                nextDue: [],
+                overdueTasks: [],
+                ...summary,
+              }
+            : [],
+        ),
+    }),
+  );
+}
+
 test("Renders Dashboard component", () => {
   render(
     <BrowserRouter>
@@ -33,17 +63,7 @@ test("Shows spinner when loading", () => {
 
 test("Renders widgets after loading", async () => {
   jest.useFakeTimers();
-  global.fetch = jest.fn(() =>
-    Promise.resolve({
-      ok: true,
-      json: () =>
-        Promise.resolve([
-          { status: "COMPLETE" },
-          { status: "PENDING" },
-          { status: "COMPLETE" },
-        ]),
-    }),
-  );
+  mockSummary({ total: 3, byStatus: { COMPLETE: 2, PENDING: 1 } });
   render(
     <BrowserRouter>
       <Dashboard />
@@ -63,6 +83,7 @@ test("Renders widgets after loading", async () => {
 
 test("Dashboard container aria-busy updates after loading", async () => {
   jest.useFakeTimers();
+  mockSummary({});
   render(
     <BrowserRouter>
       <Dashboard />
@@ -107,19 +128,7 @@ widgetLabels.forEach((widgetLabel) => {
 });
 test("Numbers in TaskSummaryWidget match mocked fetch data", async () => {
   jest.useFakeTimers();
-  global.fetch = jest.fn(() =>
-    Promise.resolve({
-      ok: true,
-      json: () =>
-        Promise.resolve([
-          { status: "COMPLETE" },
-          { status: "PENDING" },
-          { status: "COMPLETE" },
-          { status: "PENDING" },
-          { status: "PENDING" },
-        ]),
-    }),
-  );
+  mockSummary({ total: 5, byStatus: { COMPLETE: 2, PENDING: 3 } });
   render(
     <BrowserRouter>
       <Dashboard />
@@ -133,3 +142,25 @@ test("Numbers in TaskSummaryWidget match mocked fetch data", async () => {
   });
   jest.useRealTimers();
 });
+
+test("Dashboard requests the task summary once", async () => {
+  mockSummary({
+    total: 2,
+    byStatus: { PENDING: 2 },
+    nextDue: [{ id: 1, title: "Soon Task", dueDate: "2030-01-01T10:00:00" }],
+    overdueTasks: [{ id: 2, title: "Late Task", dueDate: "2020-01-01T10:00:00" }],
+  });
+  render(
+    <BrowserRouter>
+      <Dashboard />
+    </BrowserRouter>,
+  );
+  await waitFor(() => {
+    expect(screen.getByText(/soon task/i)).toBeInTheDocument();
+    expect(screen.getByText(/late task/i)).toBeInTheDocument();
+  });
+  const summaryCalls = global.fetch.mock.calls.filter(([url]) =>
+    url.includes("/api/tasks/summary"),
+  );
+  expect(summaryCalls.length).toBe(1);
+});
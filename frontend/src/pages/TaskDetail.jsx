@@ -41,9 +41,9 @@ function TaskDetail() {
     setError("");
     try {
       if (task.status === "COMPLETE") {
-        await uncompleteTask(task.id);
+        await uncompleteTask(task.id, task.version);
       } else {
-        await completeTask(task.id);
+        await completeTask(task.id, task.version);
       }
       // Refetch task to update status
       const res = await fetch(`http://localhost:8080/api/tasks/${id}`, {
@@ -26,7 +26,7 @@ function TaskEditPage({ skipDelay = false }) {
       const dueDateTime = form.dueDate
         ? new Date(form.dueDate).toISOString()
         : null;
-      await updateTask(id, { ...form, dueDate: dueDateTime });
+      await updateTask(id, { ...form, dueDate: dueDateTime }, task.version);
       setSuccess(true);
       if (skipDelay) {
         navigate("/tasks/" + id);
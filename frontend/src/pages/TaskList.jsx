@@ -13,16 +13,27 @@ function TaskList() {
   const [sortField, setSortField] = useState("title");
   const [sortDirection, setSortDirection] = useState("asc");
   const [error, setError] = useState("");
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
+
+  // The API returns one page at a time; the cursor for the next page comes
+  // back in the X-Next-Cursor header
+  async function fetchPage(cursor) {
+    const url = cursor
+      ? `http://localhost:8080/api/tasks?cursor=${encodeURIComponent(cursor)}`
+      : "http://localhost:8080/api/tasks";
+    const res = await fetch(url, { credentials: "include" });
+    if (!res.ok) throw new Error("Failed to fetch tasks");
+    const data = await res.json();
+    return { data, next: res.headers?.get("X-Next-Cursor") || null };
+  }
 
   useEffect(() => {
     async function fetchTasks() {
       try {
-        const res = await fetch("http://localhost:8080/api/tasks", {
-          credentials: "include",
-        });
-        if (!res.ok) throw new Error("Failed to fetch tasks");
-        const data = await res.json();
+        const { data, next } = await fetchPage(null);
         setTasks(data);
+        setNextCursor(next);
       } catch {
         setTasks([]);
         setError("Failed to fetch tasks");
@@ -33,6 +44,19 @@ function TaskList() {
     fetchTasks();
   }, []);
 
+  async function loadMore() {
+    setLoadingMore(true);
+    try {
+      const { data, next } = await fetchPage(nextCursor);
+      setTasks((prev) => [...prev, ...data]);
+      setNextCursor(next);
+    } catch {
+      setError("Failed to fetch tasks");
+    } finally {
+      setLoadingMore(false);
+    }
+  }
+
   // Filtered tasks (search + filters)
   const filteredTasks = tasks.filter((task) => {
     const matchesSearch = task.title
@@ -147,6 +171,16 @@ function TaskList() {
                 ))}
               </ul>
             ) : null}
+            {!loading && nextCursor && (
+              <button
+                type="button"
+                onClick={loadMore}
+                disabled={loadingMore}
+                aria-label="Load more tasks"
+              >
+                {loadingMore ? "Loading..." : "Load more"}
+              </button>
+            )}
           </div>
         </div>
       </div>
@@ -207,3 +207,41 @@ test("Sorting works", async () => {
 
   jest.useRealTimers();
 });
+
+test("Loads the next page when more tasks are available", async () => {
+  global.fetch = jest
+    .fn()
+    .mockResolvedValueOnce({
+      ok: true,
+      headers: { get: () => "cursor-1" },
+      json: () =>
+        Promise.resolve([
+          { id: 1, title: "Task One", status: "PENDING", priority: "HIGH" },
+        ]),
+    })
+    .mockResolvedValueOnce({
+      ok: true,
+      headers: { get: () => null },
+      json: () =>
+        Promise.resolve([
+          { id: 2, title: "Task Two", status: "COMPLETE", priority: "LOW" },
+        ]),
+    });
+  render(
+    <BrowserRouter>
+      <TaskList />
+    </BrowserRouter>,
+  );
+  const loadMoreButton = await screen.findByLabelText(/load more tasks/i);
+  expect(screen.getByText(/task one/i)).toBeInTheDocument();
+
+  fireEvent.click(loadMoreButton);
+  await waitFor(() => {
+    expect(screen.getByText(/task two/i)).toBeInTheDocument();
+  });
+  expect(global.fetch).toHaveBeenLastCalledWith(
+    "http://localhost:8080/api/tasks?cursor=cursor-1",
+    { credentials: "include" },
+  );
+  expect(screen.queryByLabelText(/load more tasks/i)).not.toBeInTheDocument();
+});
@@ -100,10 +100,18 @@ export async function getTask(id) {
   return res.json();
 }
 
-export async function updateTask(id, data) {
+// Sends If-Match when the caller knows the version it edited, so a
+// concurrent change elsewhere fails with 412 instead of being overwritten.
+function versionHeaders(version) {
+  return version === undefined || version === null
+    ? {}
+    : { "If-Match": `"${version}"` };
+}
+
+export async function updateTask(id, data, version) {
   const res = await fetch(`${BASE_URL}/tasks/${id}`, {
     method: "PUT",
-    headers: { "Content-Type": "application/json" },
+    headers: { "Content-Type": "application/json", ...versionHeaders(version) },
     body: JSON.stringify(data),
     credentials: "include",
   });
@@ -126,9 +134,10 @@ export async function deleteTask(id) {
   return;
 }
 
-export async function completeTask(id) {
+export async function completeTask(id, version) {
   const res = await fetch(`${BASE_URL}/tasks/${id}/complete`, {
     method: "POST",
+    headers: versionHeaders(version),
     credentials: "include",
   });
   if (!res.ok) {
@@ -138,9 +147,10 @@ export async function completeTask(id) {
   return res.json();
 }
 
-export async function uncompleteTask(id) {
+export async function uncompleteTask(id, version) {
   const res = await fetch(`${BASE_URL}/tasks/${id}/uncomplete`, {
     method: "POST",
+    headers: versionHeaders(version),
     credentials: "include",
   });
   if (!res.ok) {